@@ -0,0 +1,63 @@
+package io.github.thymeleaf.assetdialect.benchmarks;
+
+import io.github.thymeleaf.assetdialect.tad.AssetProperties;
+import io.github.thymeleaf.assetdialect.tad.DefaultAssetResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures path validation through {@link DefaultAssetResolver#resolve(String)} for valid and
+ * adversarial inputs. Rejected paths throw, so the score includes building the exception and the
+ * security warning; run with logging at ERROR to leave appender costs out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathValidationBenchmark {
+
+    @Param({"valid", "long-valid", "traversal", "encoded-traversal", "late-invalid-character",
+            "blocked-extension", "system-directory", "non-ascii"})
+    private String input;
+
+    private DefaultAssetResolver resolver;
+    private String path;
+
+    @Setup
+    public void setUp() {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setVersionAssets(false);
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new DefaultAssetResolver(properties, environment);
+        path = switch (input) {
+            case "valid" -> "/js/main.js";
+            case "long-valid" -> "/" + "segment/".repeat(128) + "main.js";
+            case "traversal" -> "/js/../../../etc/passwd";
+            case "encoded-traversal" -> "/js/" + "%2E%2e%2f".repeat(64) + "etc/passwd";
+            case "late-invalid-character" -> "/" + "a".repeat(4096) + "*.js";
+            case "blocked-extension" -> "/" + "a".repeat(1024) + ".bat";
+            case "system-directory" -> "/etc/passwd";
+            case "non-ascii" -> "/images/" + "caf\u00e9-\u00fcbersicht-".repeat(64) + ".png";
+            default -> throw new IllegalArgumentException("Unknown input: " + input);
+        };
+    }
+
+    @Benchmark
+    public Object resolve() {
+        try {
+            return resolver.resolve(path);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.thymeleaf.assetdialect.benchmarks;
+
+import io.github.thymeleaf.assetdialect.tad.AssetProperties;
+import io.github.thymeleaf.assetdialect.tad.DefaultAssetResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of resolving a versioned CDN URL whose version is already cached.
+ * Run with the {@code gc} profiler (enabled in the build) and watch {@code gc.alloc.rate.norm},
+ * the bytes allocated per resolve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResolveAllocationBenchmark {
+
+    @Param({"true", "false"})
+    private boolean validateOnRead;
+
+    private Path assetDirectory;
+    private DefaultAssetResolver resolver;
+
+    @Setup
+    public void setUp() throws IOException {
+        assetDirectory = Files.createTempDirectory("tad-bench");
+        Files.createDirectories(assetDirectory.resolve("js"));
+        Files.writeString(assetDirectory.resolve("js/main.js"), "console.log('main');");
+
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(assetDirectory.toString());
+        properties.setVersionStrategy("crc32c");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new DefaultAssetResolver(properties, environment);
+        resolver.getDigestCache().setValidateOnRead(validateOnRead);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(assetDirectory);
+    }
+
+    @Benchmark
+    public String resolveVersionedCdnUrl() {
+        return resolver.resolve("/js/main.js");
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.thymeleaf.assetdialect.benchmarks;
+
+import io.github.thymeleaf.assetdialect.tad.AssetProperties;
+import io.github.thymeleaf.assetdialect.tad.DefaultAssetResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefaultAssetResolver#resolve(String, String, boolean)} per resolution mode:
+ * <ul>
+ *     <li>{@code cdn} - default CDN, unversioned</li>
+ *     <li>{@code named-cdn} - CDN selected by name, unversioned</li>
+ *     <li>{@code local} - local path in the dev profile, unversioned</li>
+ *     <li>{@code versioned-cdn} - default CDN with a cached crc32c content version</li>
+ *     <li>{@code versioned-local} - local path with a cached crc32c content version</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResolveBenchmark {
+
+    @Param({"cdn", "named-cdn", "local", "versioned-cdn", "versioned-local"})
+    private String mode;
+
+    private Path assetDirectory;
+    private DefaultAssetResolver resolver;
+    private String cdn;
+
+    @Setup
+    public void setUp() throws IOException {
+        assetDirectory = Files.createTempDirectory("tad-bench");
+        Files.createDirectories(assetDirectory.resolve("js"));
+        Files.writeString(assetDirectory.resolve("js/main.js"), "console.log('main');");
+
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setCdns(Map.of("scripts", "https://js.example.com"));
+        properties.setLocalPath("/static");
+        properties.setAssetBasePath(assetDirectory.toString());
+        properties.setVersionStrategy("crc32c");
+        properties.setVersionAssets(mode.startsWith("versioned-"));
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.setActiveProfiles(mode.endsWith("local") ? "dev" : "prod");
+        cdn = mode.equals("named-cdn") ? "scripts" : null;
+        resolver = new DefaultAssetResolver(properties, environment);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(assetDirectory);
+    }
+
+    @Benchmark
+    public String resolve() {
+        return resolver.resolve("/js/main.js", cdn, false);
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.thymeleaf.assetdialect.benchmarks;
+
+import io.github.thymeleaf.assetdialect.tad.AssetDialect;
+import io.github.thymeleaf.assetdialect.tad.AssetProperties;
+import io.github.thymeleaf.assetdialect.tad.DefaultAssetResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.FileSystemUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full {@link SpringTemplateEngine} rendering of a cached template with {@code elements}
+ * script elements. With {@code dialect=true} every element uses {@code tad:src} and is resolved to a
+ * versioned CDN URL by the {@link AssetDialect}; with {@code dialect=false} the same page is rendered
+ * with plain {@code src} attributes and no dialect, as the baseline the dialect adds to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplateRenderingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int elements;
+
+    @Param({"true", "false"})
+    private boolean dialect;
+
+    private Path assetDirectory;
+    private SpringTemplateEngine engine;
+    private String template;
+    private final Context context = new Context();
+
+    @Setup
+    public void setUp() throws IOException {
+        assetDirectory = Files.createTempDirectory("tad-bench");
+        Files.createDirectories(assetDirectory.resolve("js"));
+        StringBuilder page = new StringBuilder("<!DOCTYPE html>\n<html xmlns:tad=\"thymeleaf-asset-dialect\">\n<head>\n");
+        for (int i = 0; i < elements; i++) {
+            Files.writeString(assetDirectory.resolve("js/module" + i + ".js"), "console.log(" + i + ");");
+            page.append("  <script ").append(dialect ? "tad:src" : "src")
+                    .append("=\"/js/module").append(i).append(".js\"></script>\n");
+        }
+        template = page.append("</head>\n<body></body>\n</html>\n").toString();
+
+        StringTemplateResolver templateResolver = new StringTemplateResolver();
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(true);
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(templateResolver);
+        if (dialect) {
+            AssetProperties properties = new AssetProperties();
+            properties.setDefaultCdn("https://cdn.example.com");
+            properties.setAssetBasePath(assetDirectory.toString());
+            properties.setVersionStrategy("crc32c");
+            StandardEnvironment environment = new StandardEnvironment();
+            environment.setActiveProfiles("prod");
+            engine.addDialect(new AssetDialect(properties, new DefaultAssetResolver(properties, environment)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(assetDirectory);
+    }
+
+    @Benchmark
+    public String render() {
+        return engine.process(template, context);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.thymeleaf.assetdialect.benchmarks;
+
+import io.github.thymeleaf.assetdialect.tad.AssetDigester;
+import io.github.thymeleaf.assetdialect.tad.VersionStrategies;
+import io.github.thymeleaf.assetdialect.tad.VersionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the built-in content version strategies over small files up to large bundles, covering
+ * both the pooled-buffer and the memory-mapped hashing path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VersionStrategyBenchmark {
+
+    @Param({"md5", "sha256", "crc32c", "xxhash64"})
+    private String strategy;
+
+    @Param({"1024", "16384", "1048576", "16777216"})
+    private int fileSize;
+
+    private Path file;
+    private VersionStrategy versionStrategy;
+    private final AssetDigester digester = new AssetDigester();
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        file = Files.createTempFile("tad-bench", ".js");
+        Files.write(file, content);
+        versionStrategy = VersionStrategies.discover().get(strategy);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String version() throws IOException {
+        return versionStrategy.getVersion(file, digester);
+    }
+}
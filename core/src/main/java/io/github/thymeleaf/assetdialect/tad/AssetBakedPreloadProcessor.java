@@ -0,0 +1,35 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Processor for the tad:baked-preload attribute.
+ * {@link AssetTemplateResolver} adds it to stylesheets, scripts and fonts it resolved at parse
+ * time, holding the original asset path, so they are recorded in the request's
+ * {@link PreloadCollector} although {@link AssetProcessor} no longer sees them. The URL is taken
+ * from the baked {@code src} attribute, nothing is resolved, and the attribute is removed from the
+ * output.
+ */
+public class AssetBakedPreloadProcessor extends AbstractAttributeTagProcessor {
+
+    public AssetBakedPreloadProcessor(String dialectPrefix) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "baked-preload", true, 1000, true);
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+                             AttributeName attributeName, String attributeValue,
+                             IElementTagStructureHandler handler) {
+        handler.removeAttribute(attributeName);
+        PreloadCollector collector = PreloadCollector.from(context);
+        String url = tag.getAttributeValue("src");
+        if (collector != null && url != null && !AssetPathValidator.isBlank(attributeValue)) {
+            collector.addIfCritical(attributeValue, url);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.engine.AttributeNames;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IModelFactory;
+import org.thymeleaf.model.IOpenElementTag;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Processor for the tad:bundle attribute.
+ * Points a script or stylesheet element to a bundle built by {@link AssetBundler}, resolved
+ * like {@code tad:src} (including {@code tad:cdn} and {@code tad:local}) and versioned by the
+ * bundle's content digest. {@code <link>} elements get an {@code href}, all others a {@code src}.
+ *
+ * <p>While assets resolve locally (see {@link AssetResolver#isUseLocal()}), the element is instead
+ * repeated for every asset of the bundle, so each file can be debugged on its own.</p>
+ */
+public class AssetBundleProcessor extends AbstractAttributeTagProcessor {
+    private final AssetResolver resolver;
+    private final AssetBundles bundles;
+    private final AssetRouter router;
+    private final AttributeName cdnAttributeName;
+    private final AttributeName localAttributeName;
+
+    public AssetBundleProcessor(String dialectPrefix, AssetResolver resolver, AssetBundles bundles) {
+        this(dialectPrefix, resolver, bundles, null);
+    }
+
+    /**
+     * @param router selects the CDN of elements without {@code tad:cdn} per request, or {@code null}
+     */
+    public AssetBundleProcessor(String dialectPrefix, AssetResolver resolver, AssetBundles bundles,
+                                AssetRouter router) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "bundle", true, 1000, true);
+        this.resolver = resolver;
+        this.bundles = bundles;
+        this.router = router;
+        this.cdnAttributeName = AttributeNames.forHTMLName(dialectPrefix, "cdn");
+        this.localAttributeName = AttributeNames.forHTMLName(dialectPrefix, "local");
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+                             AttributeName attributeName, String attributeValue,
+                             IElementTagStructureHandler handler) {
+        if (AssetPathValidator.isBlank(attributeValue)) {
+            return;
+        }
+        AssetBundles.Bundle bundle = bundles.get(attributeValue.trim());
+        if (bundle == null) {
+            throw new IllegalArgumentException("Unknown asset bundle: " + attributeValue);
+        }
+
+        String cdn = tag.getAttributeValue(cdnAttributeName);
+        if (router != null) {
+            cdn = router.cdnFor(context, cdn);
+        }
+        boolean forceLocal = Boolean.parseBoolean(tag.getAttributeValue(localAttributeName));
+        String urlAttribute = "link".equalsIgnoreCase(tag.getElementCompleteName()) ? "href" : "src";
+        PreloadCollector collector = PreloadCollector.from(context);
+
+        if (!resolver.isUseLocal()) {
+            String path = toWebPath(bundle.getPath());
+            String resolvedUrl = resolver.resolve(path, cdn, forceLocal);
+            handler.setAttribute(urlAttribute, resolvedUrl);
+            if (collector != null) {
+                collector.addIfCritical(path, resolvedUrl);
+            }
+            return;
+        }
+
+        // Expand the bundle into one element per asset
+        IModelFactory modelFactory = context.getModelFactory();
+        IProcessableElementTag template = modelFactory.removeAttribute(
+                modelFactory.removeAttribute(modelFactory.removeAttribute(tag, attributeName),
+                        cdnAttributeName), localAttributeName);
+        IModel model = modelFactory.createModel();
+        for (String asset : bundle.getAssets()) {
+            String path = toWebPath(asset);
+            String resolvedUrl = resolver.resolve(path, cdn, forceLocal);
+            if (model.size() > 0) {
+                model.add(modelFactory.createText("\n"));
+            }
+            model.add(modelFactory.setAttribute(template, urlAttribute, resolvedUrl));
+            if (template instanceof IOpenElementTag) {
+                model.add(modelFactory.createCloseElementTag(template.getElementCompleteName()));
+            }
+            if (collector != null) {
+                collector.addIfCritical(path, resolvedUrl);
+            }
+        }
+        handler.replaceWith(model, false);
+    }
+
+    private static String toWebPath(String logicalPath) {
+        return logicalPath.startsWith("/") ? logicalPath : "/" + logicalPath;
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Build-time bundler of {@link AssetBundles}.
+ * Concatenates the assets of every bundle into its bundle file and records the content digest
+ * of the result, so {@link DefaultAssetResolver} can version the bundle without reading it.
+ *
+ * <p>Assets are streamed through a single direct buffer that also feeds the digest, so each asset
+ * is read exactly once and never held in memory as a whole. Scripts are separated by {@code ;}
+ * and a line break, other assets by a line break.</p>
+ *
+ * <p>Intended to be run from a build task:</p>
+ * <pre>
+ * java io.github.thymeleaf.assetdialect.tad.AssetBundler &lt;assetBasePath&gt; &lt;definitionsFile&gt; &lt;outputDir&gt; &lt;bundlesFile&gt; [versionStrategy]
+ * </pre>
+ * Bundle files are written below the output directory at their logical paths. The optional version
+ * strategy must be content based and defaults to {@code hash}.
+ */
+public class AssetBundler {
+    private static final Logger logger = LoggerFactory.getLogger(AssetBundler.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] SCRIPT_SEPARATOR = ";\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SEPARATOR = "\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path basePath;
+    private final Path outputDir;
+    private final ContentVersionStrategy versionStrategy;
+
+    public AssetBundler(Path basePath, Path outputDir) {
+        this(basePath, outputDir, VersionStrategies.HASH);
+    }
+
+    /**
+     * @param basePath the static asset directory
+     * @param outputDir the directory bundle files are written to
+     * @param versionStrategy computes the digest recorded for each bundle
+     */
+    public AssetBundler(Path basePath, Path outputDir, ContentVersionStrategy versionStrategy) {
+        this.basePath = basePath.normalize();
+        this.outputDir = outputDir.normalize();
+        this.versionStrategy = versionStrategy;
+    }
+
+    /**
+     * Builds all bundles and returns them with their digests.
+     *
+     * @throws IllegalArgumentException if a bundle or asset path is invalid or leaves its directory
+     * @throws IOException if an asset cannot be read or a bundle cannot be written
+     */
+    public AssetBundles bundle(AssetBundles definitions) throws IOException {
+        Map<String, AssetBundles.Bundle> bundles = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (Map.Entry<String, AssetBundles.Bundle> e : definitions.getBundles().entrySet()) {
+            bundles.put(e.getKey(), bundle(e.getKey(), e.getValue(), buffer));
+        }
+        return new AssetBundles(bundles);
+    }
+
+    /**
+     * Builds all bundles and writes the record to the given file, creating parent directories as needed.
+     */
+    public AssetBundles writeTo(AssetBundles definitions, Path bundlesFile) throws IOException {
+        AssetBundles bundles = bundle(definitions);
+        Path parent = bundlesFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = Files.newOutputStream(bundlesFile)) {
+            bundles.write(out);
+        }
+        return bundles;
+    }
+
+    private AssetBundles.Bundle bundle(String name, AssetBundles.Bundle definition, ByteBuffer buffer)
+            throws IOException {
+        Path target = resolveBelow(outputDir, definition.getPath());
+        byte[] separator = isScript(definition.getPath()) ? SCRIPT_SEPARATOR : SEPARATOR;
+        Files.createDirectories(target.getParent());
+        Fingerprint fingerprint = versionStrategy.newFingerprint();
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            boolean first = true;
+            for (String asset : definition.getAssets()) {
+                if (!first) {
+                    write(ByteBuffer.wrap(separator), out, fingerprint);
+                }
+                first = false;
+                try (FileChannel in = FileChannel.open(resolveBelow(basePath, asset), StandardOpenOption.READ)) {
+                    buffer.clear();
+                    while (in.read(buffer) != -1) {
+                        buffer.flip();
+                        write(buffer, out, fingerprint);
+                        buffer.clear();
+                    }
+                }
+            }
+        }
+        String digest = versionStrategy.format(fingerprint.digest());
+        logger.debug("Bundled {} asset(s) into {} ({})", definition.getAssets().size(), target, name);
+        return new AssetBundles.Bundle(definition.getPath(), definition.getAssets(), digest);
+    }
+
+    private static void write(ByteBuffer data, FileChannel out, Fingerprint fingerprint) throws IOException {
+        fingerprint.update(data.duplicate());
+        while (data.hasRemaining()) {
+            out.write(data);
+        }
+    }
+
+    /**
+     * Resolves a logical path below the given directory, rejecting paths that fail validation or escape it.
+     */
+    private static Path resolveBelow(Path directory, String logicalPath) {
+        AssetPathValidator.Violation violation = AssetPathValidator.validate(logicalPath);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation.getDescription() + ": " + logicalPath);
+        }
+        Path resolved = directory.resolve(logicalPath.startsWith("/") ? logicalPath.substring(1) : logicalPath)
+                .normalize();
+        if (!resolved.startsWith(directory)) {
+            throw new IllegalArgumentException("Path leaves " + directory + ": " + logicalPath);
+        }
+        return resolved;
+    }
+
+    private static boolean isScript(String path) {
+        String lowerCase = path.toLowerCase(Locale.ROOT);
+        return lowerCase.endsWith(".js") || lowerCase.endsWith(".mjs");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4 || args.length > 5) {
+            System.err.println("Usage: AssetBundler <assetBasePath> <definitionsFile> <outputDir> <bundlesFile> [versionStrategy]");
+            System.exit(2);
+        }
+        String strategyName = args.length == 5 ? args[4] : VersionStrategies.HASH.getName();
+        if (!(VersionStrategies.discover().get(strategyName) instanceof ContentVersionStrategy strategy)) {
+            System.err.println("Not a content version strategy: " + strategyName);
+            System.exit(2);
+            return;
+        }
+        AssetBundles definitions;
+        try (InputStream in = Files.newInputStream(Paths.get(args[1]))) {
+            definitions = AssetBundles.read(in);
+        }
+        Path bundlesFile = Paths.get(args[3]);
+        AssetBundles bundles = new AssetBundler(Paths.get(args[0]), Paths.get(args[2]), strategy)
+                .writeTo(definitions, bundlesFile);
+        logger.info("Wrote {} bundle(s) to {}", bundles.size(), bundlesFile);
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of named asset bundles, used by {@link AssetBundleProcessor} to render a single
+ * {@code tad:bundle="name"} element for several scripts or stylesheets.
+ * Paths are relative to the asset base directory and use forward slashes without a leading
+ * slash (e.g. {@code js/vendor/jquery.js}).
+ *
+ * <p>Bundles are defined in JSON and built by {@link AssetBundler}, which concatenates the assets
+ * into the bundle path and writes the same JSON back with the digest of each bundle:</p>
+ * <pre>
+ * {
+ *   "bundles": {
+ *     "vendor": {
+ *       "path": "bundles/vendor.js",
+ *       "assets": [ "js/vendor/jquery.js", "js/vendor/htmx.js" ],
+ *       "digest": "0d1f..."
+ *     }
+ *   }
+ * }
+ * </pre>
+ * The {@code path} defaults to {@code bundles/<name>.<extension of the first asset>}, the
+ * {@code digest} is only present once the bundle was built.
+ */
+public final class AssetBundles {
+
+    /**
+     * Default file name of the bundles record.
+     */
+    public static final String DEFAULT_FILE_NAME = "asset-bundles.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final AssetBundles EMPTY = new AssetBundles(Map.of());
+
+    private final Map<String, Bundle> bundles;
+    private final Map<String, Bundle> bundlesByPath;
+
+    public AssetBundles(Map<String, Bundle> bundles) {
+        this.bundles = Collections.unmodifiableMap(new HashMap<>(bundles));
+        Map<String, Bundle> byPath = new HashMap<>();
+        for (Bundle bundle : bundles.values()) {
+            byPath.put(bundle.getPath(), bundle);
+        }
+        this.bundlesByPath = Collections.unmodifiableMap(byPath);
+    }
+
+    /**
+     * Returns a record without any bundles.
+     */
+    public static AssetBundles empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the bundle with the given name, or {@code null} if there is none.
+     */
+    public Bundle get(String name) {
+        return bundles.get(name);
+    }
+
+    /**
+     * Returns the bundle built to the given logical path, or {@code null} if there is none.
+     */
+    public Bundle getByPath(String logicalPath) {
+        return bundlesByPath.get(logicalPath);
+    }
+
+    public Map<String, Bundle> getBundles() {
+        return bundles;
+    }
+
+    public boolean isEmpty() {
+        return bundles.isEmpty();
+    }
+
+    public int size() {
+        return bundles.size();
+    }
+
+    /**
+     * Loads a bundles record from the given resource.
+     */
+    public static AssetBundles load(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a bundles record from its JSON form.
+     */
+    public static AssetBundles read(InputStream in) throws IOException {
+        JsonNode nodes = MAPPER.readTree(in).path("bundles");
+        Map<String, Bundle> bundles = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = nodes.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode node = field.getValue();
+            List<String> assets = new ArrayList<>();
+            for (JsonNode asset : node.path("assets")) {
+                assets.add(asset.asText());
+            }
+            if (assets.isEmpty()) {
+                throw new IOException("Asset bundle '" + field.getKey() + "' has no assets");
+            }
+            String path = node.hasNonNull("path") ? node.get("path").asText() : defaultPath(field.getKey(), assets);
+            String digest = node.hasNonNull("digest") ? node.get("digest").asText() : null;
+            bundles.put(field.getKey(), new Bundle(path, assets, digest));
+        }
+        return new AssetBundles(bundles);
+    }
+
+    private static String defaultPath(String name, List<String> assets) {
+        String first = assets.get(0);
+        int extensionIndex = first.lastIndexOf('.');
+        String extension = extensionIndex > first.lastIndexOf('/') ? first.substring(extensionIndex) : "";
+        return "bundles/" + name + extension;
+    }
+
+    /**
+     * Writes the record as JSON, with bundles sorted by name so the output is reproducible.
+     */
+    public void write(OutputStream out) throws IOException {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode nodes = root.putObject("bundles");
+        for (Map.Entry<String, Bundle> e : new TreeMap<>(bundles).entrySet()) {
+            ObjectNode node = nodes.putObject(e.getKey());
+            node.put("path", e.getValue().getPath());
+            ArrayNode assets = node.putArray("assets");
+            e.getValue().getAssets().forEach(assets::add);
+            if (e.getValue().getDigest() != null) {
+                node.put("digest", e.getValue().getDigest());
+            }
+        }
+        MAPPER.writeValue(out, root);
+    }
+
+    /**
+     * A bundle of assets concatenated into one file.
+     */
+    public static final class Bundle {
+        private final String path;
+        private final List<String> assets;
+        private final String digest;
+
+        /**
+         * @param digest the content digest of the built bundle, or {@code null} if it wasn't built
+         */
+        public Bundle(String path, List<String> assets, String digest) {
+            this.path = path.startsWith("/") ? path.substring(1) : path;
+            this.assets = List.copyOf(assets);
+            this.digest = digest;
+        }
+
+        /**
+         * Returns the logical path of the bundle file.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the logical paths of the bundled assets, in concatenation order.
+         */
+        public List<String> getAssets() {
+            return assets;
+        }
+
+        /**
+         * Returns the content digest of the built bundle file, used as its version.
+         */
+        public String getDigest() {
+            return digest;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time generator of precompressed asset variants.
+ * Walks the static asset directory and writes a gzip copy at maximum compression next to every
+ * compressible asset (e.g. {@code css/site.css.gz} for {@code css/site.css}), so servers can send
+ * the precompressed file instead of compressing it on every response.
+ * {@link FingerprintedAssetHandler} serves these copies to clients whose {@code Accept-Encoding}
+ * allows gzip.
+ *
+ * <p>Only text formats are compressed, and a copy is only kept when it saves at least
+ * {@value #MIN_SAVING_PERCENT}% of the original size. Copies that are newer than their source are
+ * kept as they are, so repeated builds only compress changed assets.</p>
+ *
+ * <p>Intended to be run from a build task:</p>
+ * <pre>
+ * java io.github.thymeleaf.assetdialect.tad.AssetCompressor &lt;assetBasePath&gt; [outputDir]
+ * </pre>
+ * Compressed copies are written below the output directory with the same relative paths as their
+ * sources; the output directory defaults to the asset base path itself.
+ */
+public class AssetCompressor {
+    private static final Logger logger = LoggerFactory.getLogger(AssetCompressor.class);
+
+    /**
+     * Extensions of the assets that are compressed.
+     */
+    public static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of("css", "js", "svg", "json", "xml", "txt");
+
+    /**
+     * Minimum saving, in percent of the original size, for a compressed copy to be kept.
+     */
+    public static final int MIN_SAVING_PERCENT = 10;
+
+    private static final String EXTENSION = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path basePath;
+    private final Path outputDir;
+
+    public AssetCompressor(Path basePath) {
+        this(basePath, basePath);
+    }
+
+    /**
+     * @param basePath the static asset directory
+     * @param outputDir the directory compressed copies are written to, mirroring the asset directory
+     */
+    public AssetCompressor(Path basePath, Path outputDir) {
+        this.basePath = basePath.normalize();
+        this.outputDir = outputDir.normalize();
+    }
+
+    /**
+     * Compresses all valid compressible assets below the base path.
+     *
+     * @return the number of assets that have a compressed copy afterwards
+     */
+    public int compress() throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(basePath)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+
+        int compressed = 0;
+        int written = 0;
+        long originalBytes = 0;
+        long compressedBytes = 0;
+        for (Path file : files) {
+            String logicalPath = toLogicalPath(file);
+            if (!isCompressible(logicalPath)) {
+                continue;
+            }
+            AssetPathValidator.Violation violation = AssetPathValidator.validate(logicalPath);
+            if (violation != null) {
+                logger.warn("Skipping asset that does not pass path validation ({}) - {}",
+                        violation.getDescription(), logicalPath);
+                continue;
+            }
+            Path target = outputDir.resolve(logicalPath + EXTENSION);
+            Result result = compress(file, target);
+            if (result != Result.NOT_WORTH_IT) {
+                compressed++;
+            }
+            if (result == Result.WRITTEN) {
+                // Only count what this run compressed, not copies kept from earlier builds
+                written++;
+                originalBytes += Files.size(file);
+                compressedBytes += Files.size(target);
+            }
+        }
+        logger.debug("Compressed {} asset(s) from {} to {} bytes, {} copies were up to date",
+                written, originalBytes, compressedBytes, compressed - written);
+        return compressed;
+    }
+
+    /**
+     * Returns whether assets with the given path are compressed.
+     */
+    public static boolean isCompressible(String path) {
+        int extensionIndex = path.lastIndexOf('.');
+        return extensionIndex > path.lastIndexOf('/')
+                && COMPRESSIBLE_EXTENSIONS.contains(path.substring(extensionIndex + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes the compressed copy of a file unless an up-to-date one exists.
+     */
+    private Result compress(Path source, Path target) throws IOException {
+        if (Files.exists(target)
+                && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+            return Result.UP_TO_DATE;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = new MaxCompressionOutputStream(Files.newOutputStream(temporary))) {
+            Files.copy(source, out);
+        }
+
+        long originalSize = Files.size(source);
+        if (Files.size(temporary) * 100 > originalSize * (100 - MIN_SAVING_PERCENT)) {
+            // Not worth the decompression on the client, drop copies of earlier builds too
+            Files.delete(temporary);
+            Files.deleteIfExists(target);
+            return Result.NOT_WORTH_IT;
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Result.WRITTEN;
+    }
+
+    private String toLogicalPath(Path file) {
+        return basePath.relativize(file.normalize()).toString().replace('\\', '/');
+    }
+
+    private enum Result {
+        /** A compressed copy was written. */
+        WRITTEN,
+        /** The existing compressed copy is newer than its source and was kept. */
+        UP_TO_DATE,
+        /** Compression doesn't pay off, no copy exists. */
+        NOT_WORTH_IT
+    }
+
+    private static final class MaxCompressionOutputStream extends GZIPOutputStream {
+        private MaxCompressionOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: AssetCompressor <assetBasePath> [outputDir]");
+            System.exit(2);
+        }
+        Path basePath = Paths.get(args[0]);
+        Path outputDir = args.length == 2 ? Paths.get(args[1]) : basePath;
+        int compressed = new AssetCompressor(basePath, outputDir).compress();
+        logger.info("Wrote {} compressed asset(s) to {}", compressed, outputDir);
+    }
+}
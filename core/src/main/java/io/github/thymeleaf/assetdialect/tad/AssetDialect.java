@@ -9,21 +9,69 @@ import java.util.Set;
 /**
  * A Thymeleaf dialect that provides asset URL resolution with CDN support.
  * This dialect adds the 'asset' namespace with attributes for managing static resources.
+ *
+ * <p>While requests are routed ({@code tad.routing.*}), a resolver that doesn't cache resolved
+ * URLs itself is wrapped in a {@link CachingAssetResolver} configured by
+ * {@code tad.resolution-cache.*}, so routed elements are memoized per CDN and path even when the
+ * resolution cache isn't enabled.</p>
  */
 public class AssetDialect extends AbstractProcessorDialect {
     private final AssetProperties properties;
     private final AssetResolver resolver;
+    private final ImageVariants imageVariants;
+    private final AssetBundles bundles;
+    private final AssetRouter router;
 
     public AssetDialect(AssetProperties properties, AssetResolver resolver) {
+        this(properties, resolver, ImageVariants.empty());
+    }
+
+    /**
+     * @param imageVariants the generated image variants tad:srcset expands source paths into
+     */
+    public AssetDialect(AssetProperties properties, AssetResolver resolver, ImageVariants imageVariants) {
+        this(properties, resolver, imageVariants, AssetBundles.empty());
+    }
+
+    /**
+     * @param imageVariants the generated image variants tad:srcset expands source paths into
+     * @param bundles the bundles tad:bundle refers to by name
+     */
+    public AssetDialect(AssetProperties properties, AssetResolver resolver, ImageVariants imageVariants,
+                        AssetBundles bundles) {
         super("Asset Manager", "tad", 1000);
         this.properties = properties;
-        this.resolver = resolver;
+        this.imageVariants = imageVariants;
+        this.bundles = bundles;
+        this.router = properties != null ? AssetRouter.from(properties.getRouting()) : null;
+        this.resolver = router != null && !(resolver instanceof CachingAssetResolver)
+                ? CachingAssetResolver.from(resolver, properties.getResolutionCache()) : resolver;
+    }
+
+    /**
+     * Returns the router compiled from {@code tad.routing.*}, or {@code null} if requests aren't routed.
+     */
+    public AssetRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * Returns the resolver the processors resolve against, the given one or its caching wrapper.
+     */
+    public AssetResolver getResolver() {
+        return resolver;
     }
 
     @Override
     public Set<IProcessor> getProcessors(final String dialectPrefix) {
         final Set<IProcessor> processors = new HashSet<>();
-        processors.add(new AssetProcessor(dialectPrefix, resolver));
+        processors.add(new AssetProcessor(dialectPrefix, resolver, router));
+        processors.add(new AssetSrcsetProcessor(dialectPrefix, resolver, imageVariants, router));
+        processors.add(new AssetSizesProcessor(dialectPrefix));
+        processors.add(new AssetPreloadProcessor(dialectPrefix, resolver, router));
+        processors.add(new AssetBakedPreloadProcessor(dialectPrefix));
+        processors.add(new AssetIntegrityProcessor(dialectPrefix, resolver));
+        processors.add(new AssetBundleProcessor(dialectPrefix, resolver, bundles, router));
         return processors;
     }
 }
@@ -0,0 +1,367 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of asset digests.
+ * Entries are keyed by the normalized file path and validated against the file's
+ * identity (size, last-modified time and file key) on every lookup, so a hit costs
+ * a single metadata read and never touches the file content.
+ *
+ * <p>When an external component keeps the entries fresh (see {@link AssetWatcher}),
+ * read validation can be switched off so lookups are pure in-memory reads. Every change
+ * to the cached versions increments the {@linkplain #getGeneration() generation}; reloads that
+ * produce the same digests, e.g. after an entry expired or its file was only touched, don't.</p>
+ */
+public class AssetDigestCache {
+
+    /**
+     * Computes the digest of a file on a cache miss.
+     */
+    @FunctionalInterface
+    public interface DigestLoader {
+        String load(Path file) throws IOException;
+
+        /**
+         * Computes all digests of a file that are cached together, by default only the version.
+         * Loaders producing several digests override this to compute them in a single read pass.
+         *
+         * @return the digests, or {@code null} if the file has none
+         */
+        default Digests loadDigests(Path file) throws IOException {
+            String version = load(file);
+            return version != null ? new Digests(version, null) : null;
+        }
+
+        /**
+         * Called when the file of a cached digest turned out to be deleted, e.g. to drop it from
+         * a persistent index as well.
+         */
+        default void deleted(Path file) {
+        }
+    }
+
+    /**
+     * The digests cached for one file: its content version and, if computed, its
+     * Subresource Integrity metadata.
+     */
+    public static final class Digests {
+        private final String version;
+        private final String integrity;
+
+        public Digests(String version, String integrity) {
+            this.version = version;
+            this.integrity = integrity;
+        }
+
+        /**
+         * Returns the version, or {@code null} if only integrity metadata was computed.
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the integrity metadata (e.g. {@code sha384-...}), or {@code null} if not computed.
+         */
+        public String getIntegrity() {
+            return integrity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Digests other && Objects.equals(version, other.version)
+                    && Objects.equals(integrity, other.integrity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(version, integrity);
+        }
+    }
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    // Entries in write order; replaced and removed entries stay queued until evicted or purged
+    private final ConcurrentLinkedQueue<Entry> writeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final long expireAfterWriteNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean validateOnRead = true;
+
+    /**
+     * @param maxSize maximum number of entries kept; the oldest entries are evicted first
+     * @param expireAfterWrite how long an entry stays valid after it was computed,
+     *                         or {@code null}/zero to keep entries until the file changes
+     */
+    public AssetDigestCache(int maxSize, Duration expireAfterWrite) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache max size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.expireAfterWriteNanos = expireAfterWrite != null && !expireAfterWrite.isNegative()
+                ? expireAfterWrite.toNanos() : 0L;
+    }
+
+    public static AssetDigestCache from(AssetProperties.Caching caching) {
+        return new AssetDigestCache(caching.getMaxSize(), caching.getExpireAfterWrite());
+    }
+
+    /**
+     * Returns the digest of the given file, computing it with the loader when the file
+     * is not cached yet or has changed since it was cached.
+     *
+     * @param file the normalized path of the asset file
+     * @param loader computes the digest on a miss
+     * @return the digest returned by the loader
+     * @throws IOException if the file attributes cannot be read or the loader fails
+     */
+    public String get(Path file, DigestLoader loader) throws IOException {
+        Digests digests = getDigests(file, loader);
+        return digests != null ? digests.getVersion() : null;
+    }
+
+    /**
+     * Returns all digests of the given file, computing them with the loader when the file
+     * is not cached yet or has changed since it was cached. The cached digests of a file found
+     * deleted are dropped and reported to {@link DigestLoader#deleted}.
+     *
+     * @param file the normalized path of the asset file
+     * @param loader computes the digests on a miss
+     * @return the digests returned by the loader
+     * @throws IOException if the file attributes cannot be read or the loader fails
+     */
+    public Digests getDigests(Path file, DigestLoader loader) throws IOException {
+        if (!validateOnRead) {
+            Entry entry = entries.get(file);
+            if (entry != null) {
+                hits.increment();
+                return entry.digests;
+            }
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            Entry stale = entries.get(file);
+            if (stale != null && entries.remove(file, stale)) {
+                generation.incrementAndGet();
+                loader.deleted(file);
+            }
+            throw e;
+        }
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(file);
+        if (entry != null && entry.matches(attributes) && !isExpired(entry, now)) {
+            hits.increment();
+            return entry.digests;
+        }
+
+        misses.increment();
+        Digests digests = loader.loadDigests(file);
+        if (digests != null) {
+            // Expired or touched files usually hash the same, and those reloads publish nothing
+            if (changes(put(new Entry(file, attributes, digests, now)), digests)) {
+                generation.incrementAndGet();
+            }
+            evictIfNecessary();
+        }
+        return digests;
+    }
+
+    /**
+     * Recomputes the cached digests of the given files, and of cached files below the given
+     * directories, in the calling thread. The new digests are published together once all of
+     * them are computed; entries whose file is gone or can no longer be hashed are removed.
+     *
+     * @return the number of entries refreshed or removed
+     */
+    public int refresh(Collection<Path> changed, DigestLoader loader) {
+        List<Path> affected = new ArrayList<>();
+        for (Path cached : entries.keySet()) {
+            for (Path path : changed) {
+                if (cached.startsWith(path)) {
+                    affected.add(cached);
+                    break;
+                }
+            }
+        }
+        return recompute(affected, loader);
+    }
+
+    /**
+     * Recomputes all cached digests in the calling thread, e.g. after file events were lost.
+     *
+     * @return the number of entries refreshed or removed
+     */
+    public int refreshAll(DigestLoader loader) {
+        return recompute(new ArrayList<>(entries.keySet()), loader);
+    }
+
+    private int recompute(List<Path> files, DigestLoader loader) {
+        if (files.isEmpty()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        Map<Path, Entry> updated = new HashMap<>();
+        List<Path> removed = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                Digests digests = loader.loadDigests(file);
+                if (digests != null) {
+                    updated.put(file, new Entry(file, attributes, digests, now));
+                } else {
+                    removed.add(file);
+                }
+            } catch (NoSuchFileException e) {
+                removed.add(file);
+                loader.deleted(file);
+            } catch (IOException | SecurityException e) {
+                removed.add(file);
+            }
+        }
+        boolean changed = false;
+        for (Entry entry : updated.values()) {
+            changed |= changes(put(entry), entry.digests);
+        }
+        for (Path file : removed) {
+            changed |= entries.remove(file) != null;
+        }
+        if (changed) {
+            generation.incrementAndGet();
+        }
+        return files.size();
+    }
+
+    /**
+     * Returns whether replacing the given entry with the given digests changes what was published.
+     */
+    private static boolean changes(Entry previous, Digests digests) {
+        return previous != null && !previous.digests.equals(digests);
+    }
+
+    /**
+     * Removes the cached digest of a single file.
+     */
+    public void invalidate(Path file) {
+        entries.remove(file);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Removes all cached digests.
+     */
+    public void invalidateAll() {
+        // Queue first: an entry put concurrently is then either cleared or queued
+        writeOrder.clear();
+        queued.set(0);
+        entries.clear();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Enables or disables revalidation of entries against file metadata on every lookup.
+     * Disable it only while something else refreshes changed entries; expiry is not applied
+     * to entries read without validation.
+     */
+    public void setValidateOnRead(boolean validateOnRead) {
+        this.validateOnRead = validateOnRead;
+    }
+
+    public boolean isValidateOnRead() {
+        return validateOnRead;
+    }
+
+    /**
+     * Returns a counter incremented whenever cached digests change or are invalidated.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expireAfterWriteNanos > 0 && now - entry.writtenAt >= expireAfterWriteNanos;
+    }
+
+    private Entry put(Entry entry) {
+        Entry previous = entries.put(entry.file, entry);
+        writeOrder.add(entry);
+        if (queued.incrementAndGet() > 2 * maxSize) {
+            // Drop entries that were replaced or removed, amortized over maxSize writes
+            writeOrder.removeIf(queuedEntry -> entries.get(queuedEntry.file) != queuedEntry);
+            queued.set(writeOrder.size());
+        }
+        return previous;
+    }
+
+    /**
+     * Evicts the oldest entries in write order, in constant time per evicted entry.
+     */
+    private void evictIfNecessary() {
+        while (entries.size() > maxSize) {
+            Entry oldest = writeOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            entries.remove(oldest.file, oldest);
+        }
+    }
+
+    private static final class Entry {
+        private final Path file;
+        private final long size;
+        private final long lastModified;
+        private final Object fileKey;
+        private final Digests digests;
+        private final long writtenAt;
+
+        private Entry(Path file, BasicFileAttributes attributes, Digests digests, long writtenAt) {
+            this.file = file;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.fileKey = attributes.fileKey();
+            this.digests = digests;
+            this.writtenAt = writtenAt;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size()
+                    && lastModified == attributes.lastModifiedTime().toMillis()
+                    && Objects.equals(fileKey, attributes.fileKey());
+        }
+    }
+}
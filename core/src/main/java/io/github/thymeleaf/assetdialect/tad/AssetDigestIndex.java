@@ -0,0 +1,370 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persistent index of asset digests that survives restarts ({@code tad.caching.index-location}).
+ *
+ * <p>The index file records the path, size, last-modified time and digests of every hashed asset
+ * in a compact binary format. It is memory-mapped and read once when opened; a digest is reused
+ * as long as the size and last-modified time of its file still match, so after a restart only new
+ * or changed files are hashed again. The file key (inode) is deliberately not recorded, as it
+ * changes whenever a deployment unpacks the same files again.</p>
+ *
+ * <p>{@link #flush()} writes the index to a temporary file next to it and atomically renames it
+ * over the previous one, then syncs the directory, so a crash leaves either the old or the new
+ * index, never a partial one. Flushing doesn't check whether indexed files still exist: entries are
+ * dropped when the watcher or the digest cache sees their file {@linkplain #forget deleted}, and
+ * entries of files deleted while the application was down after pre-warming
+ * ({@link #forgetUnconfirmed()}).
+ * Files are verified with a trailing CRC-32; an index that is corrupt, of another format, or was
+ * written for other digest algorithms ({@linkplain #scheme the scheme}) is ignored and rewritten.</p>
+ *
+ * <pre>
+ * int    magic "TADI", short format version, string scheme, int entry count
+ * entry: string path, long size, long last-modified millis, string version, string integrity
+ * long   CRC-32 of all preceding bytes
+ * </pre>
+ * Strings are stored as a signed short byte length ({@code -1} for {@code null}) and UTF-8 bytes;
+ * paths are relative to the asset base path with {@code /} separators.
+ */
+public final class AssetDigestIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AssetDigestIndex.class);
+
+    static final int MAGIC = 0x54414449;
+    static final short FORMAT_VERSION = 1;
+
+    private static final int CHECKSUM_LENGTH = Long.BYTES;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Path root;
+    private final String scheme;
+    // Entries read from the index file, and entries computed or confirmed since it was opened
+    private final Map<String, Entry> loaded;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private volatile boolean dirty;
+
+    private AssetDigestIndex(Path file, Path root, String scheme, Map<String, Entry> loaded) {
+        this.file = file;
+        this.root = root;
+        this.scheme = scheme;
+        this.loaded = loaded;
+    }
+
+    /**
+     * Opens the index stored in the given file, or an empty index if the file doesn't exist or
+     * can't be used.
+     *
+     * @param file the index file
+     * @param root the asset base path the indexed files lie below
+     * @param scheme identifies the digest algorithms, see {@link #scheme}
+     */
+    public static AssetDigestIndex open(Path file, Path root, String scheme) {
+        Path indexFile = file.toAbsolutePath().normalize();
+        long start = System.nanoTime();
+        Map<String, Entry> entries = read(indexFile, scheme);
+        if (!entries.isEmpty()) {
+            logger.info("Loaded {} asset digest(s) from {} in {} ms", entries.size(), indexFile,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return new AssetDigestIndex(indexFile, root, scheme, entries);
+    }
+
+    /**
+     * Returns the scheme of digests computed with the given algorithms. Digests are only reused
+     * from an index written with the same scheme.
+     *
+     * @param strategy the content version strategy, or {@code null}
+     * @param integrity the integrity algorithm, or {@code null}
+     */
+    public static String scheme(ContentVersionStrategy strategy, AssetIntegrity integrity) {
+        return (strategy != null ? strategy.getName() : "-") + "/" + (integrity != null ? integrity.getName() : "-");
+    }
+
+    /**
+     * Returns the digests recorded for a file if its size and last-modified time still match.
+     *
+     * @param file a normalized file below the root
+     * @param attributes the current attributes of the file
+     * @return the recorded digests, or {@code null} if the file must be hashed
+     */
+    public AssetDigestCache.Digests lookup(Path file, BasicFileAttributes attributes) {
+        String key = key(file);
+        if (key == null) {
+            return null;
+        }
+        Entry entry = current.get(key);
+        if (entry == null) {
+            entry = loaded.get(key);
+            if (entry == null || !entry.matches(attributes)) {
+                return null;
+            }
+            current.putIfAbsent(key, entry);
+        } else if (!entry.matches(attributes)) {
+            return null;
+        }
+        hits.increment();
+        return entry.digests();
+    }
+
+    /**
+     * Records the digests computed for a file; they are persisted on the next {@link #flush()}.
+     *
+     * @param attributes the attributes of the file read before it was hashed
+     */
+    public void record(Path file, BasicFileAttributes attributes, AssetDigestCache.Digests digests) {
+        String key = key(file);
+        if (key == null || digests == null || !fits(key) || !fits(digests.getVersion())
+                || !fits(digests.getIntegrity())) {
+            return;
+        }
+        current.put(key, new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), digests));
+        dirty = true;
+    }
+
+    /**
+     * Drops the digests of a deleted file, or of every file below a deleted directory.
+     */
+    public void forget(Path path) {
+        String key = key(path);
+        if (key == null) {
+            return;
+        }
+        boolean removed = current.remove(key) != null | loaded.remove(key) != null;
+        if (!removed) {
+            // Not a recorded file, so possibly a directory
+            String prefix = key.isEmpty() ? "" : key + "/";
+            removed = current.keySet().removeIf(recorded -> recorded.startsWith(prefix))
+                    | loaded.keySet().removeIf(recorded -> recorded.startsWith(prefix));
+        }
+        if (removed) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Drops the digests read from the index file that weren't looked up or recorded since it was
+     * opened. Call it once every existing asset was looked up, e.g. after pre-warming, to drop the
+     * entries of files deleted while the application was down.
+     */
+    public void forgetUnconfirmed() {
+        if (loaded.keySet().removeIf(key -> !current.containsKey(key))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the index if digests were recorded or forgotten since it was last written.
+     *
+     * @return {@code true} if the index file was written
+     */
+    public synchronized boolean flush() {
+        if (!dirty) {
+            return false;
+        }
+        dirty = false;
+        Map<String, Entry> entries = new TreeMap<>(loaded);
+        entries.putAll(current);
+
+        try {
+            write(entries);
+        } catch (IOException | RuntimeException e) {
+            dirty = true;
+            logger.warn("Failed to write asset digest index {}", file, e);
+            return false;
+        }
+        logger.debug("Wrote {} asset digest(s) to {}", entries.size(), file);
+        return true;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Returns the number of digests reused instead of hashing a file.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of files the index currently knows digests for.
+     */
+    public int size() {
+        int size = current.size();
+        for (String key : loaded.keySet()) {
+            if (!current.containsKey(key)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private String key(Path file) {
+        if (!file.startsWith(root)) {
+            return null;
+        }
+        String key = root.relativize(file).toString();
+        String separator = file.getFileSystem().getSeparator();
+        return separator.equals("/") ? key : key.replace(separator, "/");
+    }
+
+    private void write(Map<String, Entry> entries) throws IOException {
+        Path directory = file.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                CRC32 checksum = new CRC32();
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(channel), checksum), WRITE_BUFFER_SIZE));
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                writeString(out, scheme);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    Entry value = entry.getValue();
+                    writeString(out, entry.getKey());
+                    out.writeLong(value.size());
+                    out.writeLong(value.lastModified());
+                    writeString(out, value.digests().getVersion());
+                    writeString(out, value.digests().getIntegrity());
+                }
+                out.flush();
+                out.writeLong(checksum.getValue());
+                out.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory(directory);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Makes the rename durable. Not every platform can open a directory, e.g. Windows can't, and
+     * there the rename is left to the file system.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Unable to sync directory {}", directory, e);
+        }
+    }
+
+    private static Map<String, Entry> read(Path file, String scheme) {
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return entries;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < Integer.BYTES + CHECKSUM_LENGTH || length > Integer.MAX_VALUE) {
+                logger.warn("Ignoring asset digest index {} of invalid length {}", file, length);
+                return entries;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            int contentLength = (int) length - CHECKSUM_LENGTH;
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.slice(0, contentLength));
+            if (buffer.getInt(0) != MAGIC || checksum.getValue() != buffer.getLong(contentLength)) {
+                logger.warn("Ignoring corrupt asset digest index {}, assets will be hashed again", file);
+                return entries;
+            }
+
+            ByteBuffer content = buffer.slice(0, contentLength);
+            content.getInt();
+            short formatVersion = content.getShort();
+            String indexScheme = readString(content);
+            if (formatVersion != FORMAT_VERSION || !scheme.equals(indexScheme)) {
+                logger.info("Ignoring asset digest index {} written for {}, assets will be hashed again",
+                        file, indexScheme);
+                return entries;
+            }
+            int count = content.getInt();
+            for (int i = 0; i < count; i++) {
+                String path = readString(content);
+                long size = content.getLong();
+                long lastModified = content.getLong();
+                String version = readString(content);
+                String integrity = readString(content);
+                entries.put(path, new Entry(size, lastModified, new AssetDigestCache.Digests(version, integrity)));
+            }
+            return entries;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable asset digest index {}, assets will be hashed again", file, e);
+            return new ConcurrentHashMap<>();
+        }
+    }
+
+    private static boolean fits(String value) {
+        return value == null || value.length() * 3 <= Short.MAX_VALUE;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Entry(long size, long lastModified, AssetDigestCache.Digests digests) {
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+}
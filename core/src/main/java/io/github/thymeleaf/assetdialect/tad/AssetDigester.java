@@ -0,0 +1,147 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+
+/**
+ * Streaming digest engine for asset files.
+ * Files smaller than the mapping threshold are read through pooled direct buffers,
+ * larger files are memory-mapped, so heap allocation while hashing stays constant
+ * regardless of the file size.
+ */
+public class AssetDigester {
+
+    public static final DataSize DEFAULT_BUFFER_SIZE = DataSize.ofKilobytes(64);
+    public static final DataSize DEFAULT_MAPPING_THRESHOLD = DataSize.ofMegabytes(8);
+
+    private static final long MAX_MAPPED_REGION = 256L * 1024 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    private final int bufferSize;
+    private final long mappingThreshold;
+    private final Queue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+    private volatile LongConsumer readListener;
+    // Bytes read by each thread, so callers can attribute reads to the work that caused them
+    private final ThreadLocal<long[]> threadBytesRead = ThreadLocal.withInitial(() -> new long[1]);
+
+    public AssetDigester() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAPPING_THRESHOLD);
+    }
+
+    /**
+     * @param bufferSize size of the direct buffers used to read small files
+     * @param mappingThreshold files of at least this size are memory-mapped instead of read
+     */
+    public AssetDigester(DataSize bufferSize, DataSize mappingThreshold) {
+        if (bufferSize.toBytes() <= 0 || bufferSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid hashing buffer size: " + bufferSize);
+        }
+        this.bufferSize = (int) bufferSize.toBytes();
+        this.mappingThreshold = mappingThreshold.toBytes();
+    }
+
+    public static AssetDigester from(AssetProperties.Hashing hashing) {
+        return new AssetDigester(hashing.getBufferSize(), hashing.getMappingThreshold());
+    }
+
+    /**
+     * Returns the MD5 digest of the file as a lowercase hex string.
+     */
+    public String md5Hex(Path file) throws IOException {
+        return VersionStrategies.MD5.getVersion(file, this);
+    }
+
+    /**
+     * Feeds the whole file content into the given fingerprints in a single read pass.
+     *
+     * @return the number of bytes read
+     */
+    public long update(Path file, Fingerprint... fingerprints) throws IOException {
+        long read;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            read = size >= mappingThreshold
+                    ? updateMapped(channel, size, fingerprints)
+                    : updateBuffered(channel, fingerprints);
+        }
+        threadBytesRead.get()[0] += read;
+        LongConsumer listener = readListener;
+        if (listener != null) {
+            listener.accept(read);
+        }
+        return read;
+    }
+
+    /**
+     * Returns the total number of bytes hashed by the current thread. The difference between two
+     * calls is what the thread read in between, regardless of reads on other threads.
+     */
+    long getThreadBytesRead() {
+        return threadBytesRead.get()[0];
+    }
+
+    /**
+     * Sets the listener notified with the number of bytes read for every hashed file,
+     * or {@code null} to remove it.
+     */
+    void setReadListener(LongConsumer readListener) {
+        this.readListener = readListener;
+    }
+
+    private long updateMapped(FileChannel channel, long size, Fingerprint... fingerprints) throws IOException {
+        long position = 0;
+        while (position < size) {
+            long length = Math.min(MAX_MAPPED_REGION, size - position);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            feed(region, fingerprints);
+            position += length;
+        }
+        return size;
+    }
+
+    private long updateBuffered(FileChannel channel, Fingerprint... fingerprints) throws IOException {
+        ByteBuffer buffer = acquireBuffer();
+        try {
+            long total = 0;
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                buffer.flip();
+                feed(buffer, fingerprints);
+                buffer.clear();
+                total += read;
+            }
+            return total;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    private static void feed(ByteBuffer data, Fingerprint... fingerprints) {
+        int start = data.position();
+        for (Fingerprint fingerprint : fingerprints) {
+            data.position(start);
+            fingerprint.update(data);
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        if (bufferPool.size() < MAX_POOLED_BUFFERS) {
+            bufferPool.offer(buffer);
+        }
+    }
+}
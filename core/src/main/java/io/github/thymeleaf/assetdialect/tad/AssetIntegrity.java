@@ -0,0 +1,65 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Hash algorithms for Subresource Integrity metadata, rendered as
+ * {@code <algorithm>-<base64 digest>} (e.g. {@code sha384-oqVuAfXRKap7fdgcCY5uykM6+R9GqQ8K/uxy9rx7HNQlGYl1kPzQho1wx4JwY8wC}).
+ *
+ * <p>Integrity digests are computed from the same read pass as content versions, see
+ * {@link AssetDigester#update(java.nio.file.Path, Fingerprint...)}.</p>
+ */
+public enum AssetIntegrity {
+    SHA256("sha256", "SHA-256"),
+    SHA384("sha384", "SHA-384"),
+    SHA512("sha512", "SHA-512");
+
+    private final String name;
+    private final String jcaName;
+
+    AssetIntegrity(String name, String jcaName) {
+        this.name = name;
+        this.jcaName = jcaName;
+    }
+
+    /**
+     * Returns the algorithm with the given SRI name (e.g. {@code sha384}), ignoring case.
+     *
+     * @throws IllegalArgumentException if the algorithm is not supported by Subresource Integrity
+     */
+    public static AssetIntegrity of(String name) {
+        for (AssetIntegrity algorithm : values()) {
+            if (algorithm.name.equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported integrity algorithm: " + name);
+    }
+
+    /**
+     * Returns the SRI name of the algorithm, e.g. {@code sha384}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates a fingerprint for one file.
+     */
+    public Fingerprint newFingerprint() {
+        try {
+            return Fingerprint.of(MessageDigest.getInstance(jcaName));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(jcaName + " algorithm not available", e);
+        }
+    }
+
+    /**
+     * Renders digest bytes as integrity metadata.
+     */
+    public String format(byte[] digest) {
+        return name + "-" + Base64.getEncoder().encodeToString(digest);
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Processor for the tad:integrity attribute.
+ * Adds Subresource Integrity metadata to the element, plus {@code crossorigin="anonymous"} when
+ * the element's URL points to a configured CDN.
+ *
+ * <p>Next to {@code tad:src} the attribute needs no value: {@link AssetProcessor} uses the
+ * {@code tad:src} path. Otherwise its value is the asset path and the URL is taken from the
+ * element's {@code src} or {@code href} attribute, e.g.
+ * {@code <link rel="stylesheet" th:href="..." tad:integrity="/css/site.css">}.</p>
+ *
+ * <p>The metadata comes from {@link AssetResolver#resolveIntegrity(String)}, which serves it
+ * from the same cache entry as the content version.</p>
+ */
+public class AssetIntegrityProcessor extends AbstractAttributeTagProcessor {
+    // After AssetProcessor and the standard link attributes, so the final URL is in place
+    private static final int PRECEDENCE = 1100;
+
+    private final AssetResolver resolver;
+
+    public AssetIntegrityProcessor(String dialectPrefix, AssetResolver resolver) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "integrity", true, PRECEDENCE, true);
+        this.resolver = resolver;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+                             AttributeName attributeName, String attributeValue,
+                             IElementTagStructureHandler handler) {
+        if (AssetPathValidator.isBlank(attributeValue)) {
+            return;
+        }
+        String url = tag.getAttributeValue("src");
+        addIntegrity(resolver, tag, handler, attributeValue, url != null ? url : tag.getAttributeValue("href"));
+    }
+
+    /**
+     * Sets the integrity metadata of the asset on the element, and {@code crossorigin} for CDN URLs
+     * unless the element already has one.
+     *
+     * @param path the asset path
+     * @param url the URL the element loads the asset from
+     */
+    static void addIntegrity(AssetResolver resolver, IProcessableElementTag tag, IElementTagStructureHandler handler,
+                             String path, String url) {
+        String integrity = resolver.resolveIntegrity(path);
+        if (integrity == null) {
+            return;
+        }
+        handler.setAttribute("integrity", integrity);
+        if (!tag.hasAttribute("crossorigin") && resolver.isCdnUrl(url)) {
+            handler.setAttribute("crossorigin", "anonymous");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable mapping of logical asset paths to their versioned paths, digests and sizes.
+ * Logical paths are relative to the asset base directory and use forward slashes
+ * without a leading slash (e.g. {@code css/styles.css}).
+ *
+ * <p>The JSON form is written at build time by {@link AssetManifestGenerator}:</p>
+ * <pre>
+ * {
+ *   "assets": {
+ *     "css/styles.css": { "path": "css/styles.0d1f...css", "digest": "0d1f...", "size": 1234,
+ *                         "integrity": "sha384-..." }
+ *   }
+ * }
+ * </pre>
+ * The {@code integrity} field is optional.
+ */
+public final class AssetManifest {
+
+    /**
+     * Default file name of the manifest.
+     */
+    public static final String DEFAULT_FILE_NAME = "asset-manifest.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, Entry> entries;
+
+    public AssetManifest(Map<String, Entry> entries) {
+        this.entries = Collections.unmodifiableMap(new HashMap<>(entries));
+    }
+
+    /**
+     * Returns the entry for a logical asset path, or {@code null} if the asset is not in the manifest.
+     */
+    public Entry get(String logicalPath) {
+        return entries.get(logicalPath);
+    }
+
+    public Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads a manifest from the given resource.
+     */
+    public static AssetManifest load(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a manifest from its JSON form.
+     */
+    public static AssetManifest read(InputStream in) throws IOException {
+        JsonNode assets = MAPPER.readTree(in).path("assets");
+        Map<String, Entry> entries = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = assets.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode node = field.getValue();
+            entries.put(field.getKey(), new Entry(
+                    node.path("path").asText(),
+                    node.path("digest").asText(),
+                    node.path("size").asLong(),
+                    node.hasNonNull("integrity") ? node.get("integrity").asText() : null));
+        }
+        return new AssetManifest(entries);
+    }
+
+    /**
+     * Writes the manifest as JSON, with entries sorted by logical path so the output is reproducible.
+     */
+    public void write(OutputStream out) throws IOException {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode assets = root.putObject("assets");
+        for (Map.Entry<String, Entry> e : new TreeMap<>(entries).entrySet()) {
+            ObjectNode node = assets.putObject(e.getKey());
+            node.put("path", e.getValue().getVersionedPath());
+            node.put("digest", e.getValue().getDigest());
+            node.put("size", e.getValue().getSize());
+            if (e.getValue().getIntegrity() != null) {
+                node.put("integrity", e.getValue().getIntegrity());
+            }
+        }
+        MAPPER.writeValue(out, root);
+    }
+
+    /**
+     * A single manifest entry.
+     */
+    public static final class Entry {
+        private final String versionedPath;
+        private final String digest;
+        private final long size;
+        private final String integrity;
+
+        public Entry(String versionedPath, String digest, long size) {
+            this(versionedPath, digest, size, null);
+        }
+
+        /**
+         * @param integrity the Subresource Integrity metadata, or {@code null} if not computed
+         */
+        public Entry(String versionedPath, String digest, long size, String integrity) {
+            this.versionedPath = versionedPath;
+            this.digest = digest;
+            this.size = size;
+            this.integrity = integrity;
+        }
+
+        public String getVersionedPath() {
+            return versionedPath;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the Subresource Integrity metadata (e.g. {@code sha384-...}), or {@code null}.
+         */
+        public String getIntegrity() {
+            return integrity;
+        }
+    }
+}
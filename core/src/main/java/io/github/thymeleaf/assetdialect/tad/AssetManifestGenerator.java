@@ -0,0 +1,123 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Build-time generator of {@link AssetManifest} files.
+ * Walks the static asset directory, versions every asset with the same rules as
+ * {@link DefaultAssetResolver} (path validation, content version inserted before the
+ * extension) and writes the result as {@code asset-manifest.json}.
+ *
+ * <p>Intended to be run from a build task:</p>
+ * <pre>
+ * java io.github.thymeleaf.assetdialect.tad.AssetManifestGenerator &lt;assetBasePath&gt; &lt;outputFile&gt; [versionStrategy]
+ * </pre>
+ * The optional version strategy must be content based and defaults to {@code hash}.
+ * Every entry also records its {@code sha384} integrity metadata, computed in the same read
+ * pass as the version.
+ */
+public class AssetManifestGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(AssetManifestGenerator.class);
+
+    private final Path basePath;
+    private final AssetDigester digester;
+    private final ContentVersionStrategy versionStrategy;
+    private final AssetIntegrity integrity;
+
+    public AssetManifestGenerator(Path basePath) {
+        this(basePath, new AssetDigester(), VersionStrategies.HASH);
+    }
+
+    public AssetManifestGenerator(Path basePath, AssetDigester digester, ContentVersionStrategy versionStrategy) {
+        this(basePath, digester, versionStrategy, AssetIntegrity.SHA384);
+    }
+
+    /**
+     * @param integrity the algorithm of the recorded integrity metadata, or {@code null} to record none
+     */
+    public AssetManifestGenerator(Path basePath, AssetDigester digester, ContentVersionStrategy versionStrategy,
+                                  AssetIntegrity integrity) {
+        this.basePath = basePath.normalize();
+        this.digester = digester;
+        this.versionStrategy = versionStrategy;
+        this.integrity = integrity;
+    }
+
+    /**
+     * Builds the manifest for all valid assets below the base path.
+     */
+    public AssetManifest generate() throws IOException {
+        Map<String, AssetManifest.Entry> entries = new HashMap<>();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(basePath)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+
+        for (Path file : files) {
+            String logicalPath = toLogicalPath(file);
+            AssetPathValidator.Violation violation = AssetPathValidator.validate(logicalPath);
+            if (violation != null) {
+                logger.warn("Skipping asset that does not pass path validation ({}) - {}",
+                        violation.getDescription(), logicalPath);
+                continue;
+            }
+            Fingerprint versionFingerprint = versionStrategy.newFingerprint();
+            Fingerprint integrityFingerprint = integrity != null ? integrity.newFingerprint() : null;
+            long size = integrityFingerprint != null
+                    ? digester.update(file, versionFingerprint, integrityFingerprint)
+                    : digester.update(file, versionFingerprint);
+            String digest = versionStrategy.format(versionFingerprint.digest());
+            entries.put(logicalPath, new AssetManifest.Entry(
+                    DefaultAssetResolver.insertVersion(logicalPath, digest), digest, size,
+                    integrityFingerprint != null ? integrity.format(integrityFingerprint.digest()) : null));
+        }
+        return new AssetManifest(entries);
+    }
+
+    /**
+     * Generates the manifest and writes it to the given file, creating parent directories as needed.
+     */
+    public AssetManifest writeTo(Path output) throws IOException {
+        AssetManifest manifest = generate();
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            manifest.write(out);
+        }
+        return manifest;
+    }
+
+    private String toLogicalPath(Path file) {
+        return basePath.relativize(file.normalize()).toString().replace('\\', '/');
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: AssetManifestGenerator <assetBasePath> <outputFile> [versionStrategy]");
+            System.exit(2);
+        }
+        String strategyName = args.length == 3 ? args[2] : VersionStrategies.HASH.getName();
+        if (!(VersionStrategies.discover().get(strategyName) instanceof ContentVersionStrategy strategy)) {
+            System.err.println("Not a content version strategy: " + strategyName);
+            System.exit(2);
+            return;
+        }
+        Path output = Paths.get(args[1]);
+        AssetManifest manifest = new AssetManifestGenerator(Paths.get(args[0]), new AssetDigester(), strategy)
+                .writeTo(output);
+        logger.info("Wrote {} asset(s) to {}", manifest.size(), output);
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of a {@link DefaultAssetResolver}:
+ * <ul>
+ *     <li>{@code tad.resolve} - timer per resolution, tagged with {@code mode} ({@code cdn},
+ *     {@code local} or {@code passthrough}) and {@code cdn} (the CDN name, {@code default} or
+ *     {@code none} when no CDN was used)</li>
+ *     <li>{@code tad.digest.cache.gets} - digest cache lookups, tagged with {@code result}
+ *     ({@code hit} or {@code miss})</li>
+ *     <li>{@code tad.hash.read} - bytes read per hashed file</li>
+ *     <li>{@code tad.security.rejections} - rejected asset paths, tagged with {@code reason}
+ *     ({@code empty}, {@code traversal}, {@code invalid-character}, {@code extension} or
+ *     {@code absolute-path})</li>
+ * </ul>
+ *
+ * <p>The resolver is only instrumented once {@link #bindTo(MeterRegistry)} is called, which Spring
+ * Boot does for {@link MeterBinder} beans when a {@link MeterRegistry} is present; until then
+ * resolution runs without any metrics overhead. Behind a {@link CachingAssetResolver} only cache
+ * misses reach the resolver and are timed, while rejections replayed from its cache are still
+ * counted, as are paths rejected by {@link DefaultAssetResolver#getVersion(String)} and
+ * {@link FingerprintedAssetHandler}.</p>
+ *
+ * <p>Requires {@code micrometer-core} on the classpath.</p>
+ */
+public class AssetMetrics implements MeterBinder {
+
+    private static final String NO_CDN = "none";
+    private static final String DEFAULT_CDN = "default";
+
+    private final DefaultAssetResolver resolver;
+
+    public AssetMetrics(DefaultAssetResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        AssetDigestCache cache = resolver.getDigestCache();
+        if (cache != null) {
+            FunctionCounter.builder("tad.digest.cache.gets", cache, AssetDigestCache::getHitCount)
+                    .description("Asset digest cache lookups")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("tad.digest.cache.gets", cache, AssetDigestCache::getMissCount)
+                    .description("Asset digest cache lookups")
+                    .tag("result", "miss")
+                    .register(registry);
+        }
+        DistributionSummary bytesRead = DistributionSummary.builder("tad.hash.read")
+                .description("Bytes read per hashed asset file")
+                .baseUnit("bytes")
+                .register(registry);
+        resolver.getDigester().setReadListener(bytesRead::record);
+        resolver.setObserver(new MeterObserver(registry));
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Records resolutions and rejections, looking up timers without allocating once every
+     * mode and CDN combination has been seen.
+     */
+    private static final class MeterObserver implements ResolutionObserver {
+        private final MeterRegistry registry;
+        private final Map<Mode, Map<String, Timer>> timers = new EnumMap<>(Mode.class);
+        private final Map<AssetPathValidator.Violation, Counter> rejections =
+                new EnumMap<>(AssetPathValidator.Violation.class);
+
+        private MeterObserver(MeterRegistry registry) {
+            this.registry = registry;
+            for (Mode mode : Mode.values()) {
+                timers.put(mode, new ConcurrentHashMap<>());
+            }
+            for (AssetPathValidator.Violation violation : AssetPathValidator.Violation.values()) {
+                rejections.put(violation, Counter.builder("tad.security.rejections")
+                        .description("Asset paths rejected by validation")
+                        .tag("reason", tagValue(violation))
+                        .register(registry));
+            }
+        }
+
+        @Override
+        public void resolved(Mode mode, String cdn, long durationNanos) {
+            String cdnTag = mode != Mode.CDN ? NO_CDN : StringUtils.hasText(cdn) ? cdn : DEFAULT_CDN;
+            Map<String, Timer> byCdn = timers.get(mode);
+            Timer timer = byCdn.get(cdnTag);
+            if (timer == null) {
+                timer = byCdn.computeIfAbsent(cdnTag, tag -> Timer.builder("tad.resolve")
+                        .description("Asset URL resolution")
+                        .tag("mode", tagValue(mode))
+                        .tag("cdn", tag)
+                        .register(registry));
+            }
+            timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void rejected(AssetPathValidator.Violation violation) {
+            rejections.get(violation).increment();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Security validation of asset paths shared by the resolvers and the build-time tooling.
+ *
+ * <p>Validation is a single pass over the path backed by precomputed lookup tables, so validating
+ * a path never allocates.</p>
+ */
+final class AssetPathValidator {
+    private static final Logger logger = LoggerFactory.getLogger(AssetPathValidator.class);
+
+    /**
+     * Reason a path was rejected, in the order the checks take precedence.
+     */
+    enum Violation {
+        EMPTY("Empty asset path"),
+        TRAVERSAL("Path traversal sequence detected in path"),
+        INVALID_CHARACTER("Invalid characters detected in path"),
+        EXTENSION("Invalid file extension detected in path"),
+        ABSOLUTE_PATH("Common Unix system path detected");
+
+        private final String description;
+
+        Violation(String description) {
+            this.description = description;
+        }
+
+        String getDescription() {
+            return description;
+        }
+    }
+
+    // Valid ASCII path characters: alphanumeric, dash, underscore, dot, slash and space
+    private static final boolean[] VALID_ASCII = new boolean[128];
+
+    // Whitelist of approved file extensions for web assets, indexed by their first character
+    private static final String[][] EXTENSIONS_BY_FIRST_CHAR = new String[128][];
+
+    private static final String[] SYSTEM_DIRECTORIES = {"/etc", "/bin", "/usr", "/root"};
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            VALID_ASCII[c] = true;
+            VALID_ASCII[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            VALID_ASCII[c] = true;
+        }
+        for (char c : new char[] {'/', '-', '_', '.', ' '}) {
+            VALID_ASCII[c] = true;
+        }
+
+        String[] allowedExtensions = {
+            // Images
+            "jpg", "jpeg", "png", "gif", "svg", "webp", "ico", "bmp", "tiff",
+            // Stylesheets
+            "css", "scss", "sass", "less",
+            // Scripts
+            "js", "ts", "jsx", "tsx", "mjs",
+            // Fonts
+            "woff", "woff2", "ttf", "otf", "eot",
+            // Documents
+            "pdf", "txt", "md", "json", "xml",
+            // Audio/Video
+            "mp3", "mp4", "wav", "ogg", "webm", "avi", "mov",
+            // Archives (for bundled assets)
+            "zip", "gz", "tar"
+        };
+        for (String extension : allowedExtensions) {
+            char first = extension.charAt(0);
+            String[] bucket = EXTENSIONS_BY_FIRST_CHAR[first];
+            String[] extended = bucket == null ? new String[1] : Arrays.copyOf(bucket, bucket.length + 1);
+            extended[extended.length - 1] = extension;
+            EXTENSIONS_BY_FIRST_CHAR[first] = extended;
+        }
+    }
+
+    private AssetPathValidator() {
+    }
+
+    /**
+     * Validates that an asset path is safe and doesn't contain path traversal sequences,
+     * logging a warning when it is rejected.
+     *
+     * @param path The asset path to validate
+     * @return true if the path is valid, false otherwise
+     */
+    static boolean isValid(String path) {
+        return check(path) == null;
+    }
+
+    /**
+     * Validates an asset path like {@link #validate(String)}, logging a warning when it is rejected.
+     *
+     * @return the first violation found, or {@code null} if the path is valid
+     */
+    static Violation check(String path) {
+        Violation violation = validate(path);
+        if (violation != null && violation != Violation.EMPTY) {
+            logger.warn("Security violation: {} - {}", violation.getDescription(), path);
+        }
+        return violation;
+    }
+
+    /**
+     * Validates an asset path without logging.
+     *
+     * @param path The asset path to validate
+     * @return the reason the path is rejected, or {@code null} if it is valid
+     */
+    static Violation validate(String path) {
+        if (isBlank(path)) {
+            return Violation.EMPTY;
+        }
+
+        // One pass: traversal sequences take precedence over invalid characters, and the
+        // last dot and slash locate the file extension
+        int length = path.length();
+        boolean invalidCharacter = false;
+        int lastDot = -1;
+        int lastSlash = -1;
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                if (i + 1 < length && path.charAt(i + 1) == '.') {
+                    return Violation.TRAVERSAL;
+                }
+                lastDot = i;
+            } else if (c == '/') {
+                lastSlash = i;
+            } else if (c == '%' && path.regionMatches(true, i, "%2e%2e", 0, 6)) {
+                return Violation.TRAVERSAL;
+            }
+            if (!invalidCharacter && !isValidPathCharacter(c)) {
+                invalidCharacter = true;
+            }
+        }
+        if (invalidCharacter) {
+            return Violation.INVALID_CHARACTER;
+        }
+
+        // Files without extensions (e.g., favicon) are allowed
+        if (lastDot >= 0 && lastSlash < lastDot && !isAllowedExtension(path, lastDot + 1)) {
+            return Violation.EXTENSION;
+        }
+
+        // Reject common Unix system paths
+        if (path.charAt(0) == '/' && isSystemPath(path)) {
+            return Violation.ABSOLUTE_PATH;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if the value is {@code null} or consists of whitespace and control
+     * characters only, the same rule as {@code value.trim().isEmpty()}.
+     */
+    static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidPathCharacter(char c) {
+        return c < 128 ? VALID_ASCII[c] : Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isAllowedExtension(String path, int start) {
+        int length = path.length() - start;
+        if (length == 0) {
+            return false;
+        }
+        char first = toLowerAscii(path.charAt(start));
+        String[] candidates = first < 128 ? EXTENSIONS_BY_FIRST_CHAR[first] : null;
+        if (candidates == null) {
+            return false;
+        }
+        for (String candidate : candidates) {
+            if (candidate.length() == length && equalsLowerAscii(path, start, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equalsLowerAscii(String path, int start, String lowerCase) {
+        for (int i = 0; i < lowerCase.length(); i++) {
+            if (toLowerAscii(path.charAt(start + i)) != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isSystemPath(String path) {
+        for (String directory : SYSTEM_DIRECTORIES) {
+            if (path.startsWith(directory)
+                    && (path.length() == directory.length() || path.charAt(directory.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
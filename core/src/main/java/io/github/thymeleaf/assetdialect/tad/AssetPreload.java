@@ -0,0 +1,88 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A resolved asset URL to preload, rendered as a {@code Link} header value such as
+ * {@code </css/site.1a2b.css>; rel=preload; as=style}.
+ */
+public final class AssetPreload {
+
+    /** Destination of stylesheets. */
+    public static final String STYLE = "style";
+    /** Destination of scripts. */
+    public static final String SCRIPT = "script";
+    /** Destination of fonts, which are always fetched in CORS mode. */
+    public static final String FONT = "font";
+    /** Destination of images. */
+    public static final String IMAGE = "image";
+
+    private final String url;
+    private final String destination;
+    private final String linkValue;
+
+    public AssetPreload(String url, String destination) {
+        this.url = Objects.requireNonNull(url, "url");
+        this.destination = Objects.requireNonNull(destination, "destination");
+        String value = "<" + url + ">; rel=preload; as=" + destination;
+        // Fonts are requested anonymously, a preload without crossorigin would be fetched twice
+        this.linkValue = FONT.equals(destination) ? value + "; crossorigin" : value;
+    }
+
+    /**
+     * Returns the preload destination ({@code as} value) for an asset path by its extension,
+     * or {@code null} if the asset type isn't preloadable.
+     */
+    public static String destinationOf(String path) {
+        int end = path.length();
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        int dot = path.lastIndexOf('.', end - 1);
+        if (dot < 0 || path.lastIndexOf('/', end - 1) > dot) {
+            return null;
+        }
+        return switch (path.substring(dot + 1, end).toLowerCase(Locale.ROOT)) {
+            case "css" -> STYLE;
+            case "js", "mjs" -> SCRIPT;
+            case "woff", "woff2", "ttf", "otf", "eot" -> FONT;
+            case "jpg", "jpeg", "png", "gif", "svg", "webp", "avif", "ico", "bmp" -> IMAGE;
+            default -> null;
+        };
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * Returns the value of the {@code Link} header preloading this asset.
+     */
+    public String toLinkValue() {
+        return linkValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AssetPreload other && url.equals(other.url) && destination.equals(other.destination);
+    }
+
+    @Override
+    public int hashCode() {
+        return url.hashCode() * 31 + destination.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return linkValue;
+    }
+}
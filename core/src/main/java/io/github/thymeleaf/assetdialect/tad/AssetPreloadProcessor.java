@@ -0,0 +1,58 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Processor for the tad:preload attribute.
+ * Declares comma separated asset paths the page needs but doesn't reference through tad:src,
+ * e.g. fonts and images referenced from stylesheets, so they are preloaded as well:
+ * <pre>
+ * &lt;html tad:preload="/fonts/inter.woff2, /images/hero.jpg"&gt;
+ * </pre>
+ * The attribute is removed from the output; the paths are resolved like tad:src and recorded
+ * in the request's {@link PreloadCollector}.
+ */
+public class AssetPreloadProcessor extends AbstractAttributeTagProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(AssetPreloadProcessor.class);
+
+    private final AssetResolver resolver;
+    private final AssetRouter router;
+
+    public AssetPreloadProcessor(String dialectPrefix, AssetResolver resolver) {
+        this(dialectPrefix, resolver, null);
+    }
+
+    /**
+     * @param router selects the CDN the paths resolve against per request, or {@code null}
+     */
+    public AssetPreloadProcessor(String dialectPrefix, AssetResolver resolver, AssetRouter router) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "preload", true, 1000, true);
+        this.resolver = resolver;
+        this.router = router;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+                             AttributeName attributeName, String attributeValue,
+                             IElementTagStructureHandler handler) {
+        handler.removeAttribute(attributeName);
+        PreloadCollector collector = PreloadCollector.from(context);
+        if (collector == null || AssetPathValidator.isBlank(attributeValue)) {
+            return;
+        }
+        String cdn = router != null ? router.route(context) : null;
+        for (String path : attributeValue.split(",")) {
+            String trimmed = path.trim();
+            if (!trimmed.isEmpty() && !collector.add(trimmed, resolver.resolve(trimmed, cdn, false))) {
+                logger.debug("Asset type is not preloadable - {}", trimmed);
+            }
+        }
+    }
+}
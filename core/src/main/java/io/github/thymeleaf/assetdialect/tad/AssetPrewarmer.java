@@ -0,0 +1,166 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Hashes every whitelisted asset under the asset base path in parallel when the application
+ * is ready, so the first requests a node serves don't all pay cold hashing costs.
+ *
+ * <p>Files are hashed on virtual threads or a dedicated fork-join pool, with the number of
+ * concurrent file reads bounded by {@code tad.prewarm.max-concurrent-io}. With
+ * {@code tad.prewarm.block-readiness=true} pre-warming runs inside the
+ * {@link ApplicationReadyEvent} listener, which delays the readiness state switching to
+ * {@code ACCEPTING_TRAFFIC} until all files are hashed; otherwise it runs in the background.</p>
+ *
+ * <p>With a persistent digest index ({@code tad.caching.index-location}) only files changed since
+ * the index was written are hashed, and the index is written once pre-warming completes.</p>
+ */
+public class AssetPrewarmer implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(AssetPrewarmer.class);
+
+    private final DefaultAssetResolver resolver;
+    private final AssetProperties.Prewarm settings;
+
+    public AssetPrewarmer(DefaultAssetResolver resolver, AssetProperties.Prewarm settings) {
+        this.resolver = resolver;
+        this.settings = settings;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (settings.isBlockReadiness()) {
+            prewarm();
+        } else {
+            Thread.ofPlatform().daemon().name("tad-asset-prewarm").start(this::prewarm);
+        }
+    }
+
+    /**
+     * Hashes all whitelisted assets and waits for completion.
+     *
+     * @return statistics about the run
+     */
+    public Result prewarm() {
+        long start = System.nanoTime();
+        Path basePath = resolver.getAssetBasePath();
+        if (basePath == null) {
+            logger.info("Asset pre-warming skipped, no asset base path directory to walk");
+            return new Result(0, 0, Duration.ZERO);
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(basePath)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(file -> AssetPathValidator.validate(toLogicalPath(basePath, file)) == null)
+                    .toList();
+        } catch (IOException e) {
+            logger.warn("Asset pre-warming skipped, unable to list {}", basePath, e);
+            return new Result(0, 0, Duration.ZERO);
+        }
+
+        AtomicInteger hashed = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        Semaphore ioPermits = new Semaphore(Math.max(1, settings.getMaxConcurrentIo()));
+        ExecutorService executor = createExecutor();
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(files.size());
+            for (Path file : files) {
+                tasks.add(CompletableFuture.runAsync(() -> warm(file, ioPermits, hashed, bytes), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        Result result = new Result(hashed.get(), bytes.get(), Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Pre-warmed {} asset version(s), {} bytes hashed in {} ms",
+                result.getFiles(), result.getBytes(), result.getDuration().toMillis());
+        AssetDigestIndex index = resolver.getDigestIndex();
+        if (index != null) {
+            logger.info("Reused {} asset digest(s) from the digest index {}", index.getHitCount(), index.getFile());
+            // Every asset was looked up, so the remaining entries are of files deleted since the index was written
+            index.forgetUnconfirmed();
+            resolver.flushDigestIndex();
+        }
+        AssetDigestCache cache = resolver.getDigestCache();
+        if (cache != null && cache.size() < result.getFiles()) {
+            logger.warn("Asset digest cache holds {} of {} pre-warmed assets, consider raising tad.caching.max-size",
+                    cache.size(), result.getFiles());
+        }
+        return result;
+    }
+
+    private void warm(Path file, Semaphore ioPermits, AtomicInteger hashed, AtomicLong bytes) {
+        try {
+            ioPermits.acquire();
+            try {
+                long read = resolver.warmVersion(file);
+                if (read >= 0) {
+                    hashed.incrementAndGet();
+                    bytes.addAndGet(read);
+                }
+            } finally {
+                ioPermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Failed to pre-warm asset version for {}", file, e);
+        }
+    }
+
+    private ExecutorService createExecutor() {
+        if (settings.getExecutor() == AssetProperties.Prewarm.Executor.FORK_JOIN) {
+            return new ForkJoinPool(Math.max(1, settings.getParallelism()));
+        }
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    private static String toLogicalPath(Path basePath, Path file) {
+        return basePath.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * Statistics of a pre-warming run.
+     */
+    public static final class Result {
+        private final int files;
+        private final long bytes;
+        private final Duration duration;
+
+        Result(int files, long bytes, Duration duration) {
+            this.files = files;
+            this.bytes = bytes;
+            this.duration = duration;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.thymeleaf.assetdialect.tad;
 
 import org.thymeleaf.context.ITemplateContext;
 import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.engine.AttributeNames;
 import org.thymeleaf.model.IProcessableElementTag;
 import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
 import org.thymeleaf.processor.element.IElementTagStructureHandler;
@@ -14,30 +15,49 @@ import org.thymeleaf.templatemode.TemplateMode;
  */
 public class AssetProcessor extends AbstractAttributeTagProcessor {
     private final AssetResolver resolver;
+    private final AssetRouter router;
+    private final AttributeName cdnAttributeName;
+    private final AttributeName localAttributeName;
+    private final AttributeName integrityAttributeName;
 
     public AssetProcessor(String dialectPrefix, AssetResolver resolver) {
+        this(dialectPrefix, resolver, null);
+    }
+
+    /**
+     * @param router selects the CDN of elements without {@code tad:cdn} per request, or {@code null}
+     */
+    public AssetProcessor(String dialectPrefix, AssetResolver resolver, AssetRouter router) {
         super(TemplateMode.HTML, dialectPrefix, null, false, "src", true, 1000, true);
         this.resolver = resolver;
+        this.router = router;
+        // Looked up once instead of concatenating the attribute names on every element
+        this.cdnAttributeName = AttributeNames.forHTMLName(dialectPrefix, "cdn");
+        this.localAttributeName = AttributeNames.forHTMLName(dialectPrefix, "local");
+        this.integrityAttributeName = AttributeNames.forHTMLName(dialectPrefix, "integrity");
     }
 
     @Override
     protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
                              AttributeName attributeName, String attributeValue,
                              IElementTagStructureHandler handler) {
-        if (attributeValue == null || attributeValue.trim().isEmpty()) {
+        if (AssetPathValidator.isBlank(attributeValue)) {
             return;
         }
 
         // Get CDN attribute if present
         String cdn = null;
-        var cdnAttr = tag.getAttribute(getDialectPrefix() + ":cdn");
+        var cdnAttr = tag.getAttribute(cdnAttributeName);
         if (cdnAttr != null) {
             cdn = cdnAttr.getValue();
         }
+        if (router != null) {
+            cdn = router.cdnFor(context, cdn);
+        }
 
         // Get local attribute if present
         boolean forceLocal = false;
-        var localAttr = tag.getAttribute(getDialectPrefix() + ":local");
+        var localAttr = tag.getAttribute(localAttributeName);
         if (localAttr != null) {
             forceLocal = Boolean.parseBoolean(localAttr.getValue());
         }
@@ -46,5 +66,18 @@ public class AssetProcessor extends AbstractAttributeTagProcessor {
         String resolvedUrl = resolver.resolve(attributeValue, cdn, forceLocal);
         handler.setAttribute("src", resolvedUrl);
         handler.removeAttribute(attributeName);
+
+        // A valueless tad:integrity refers to this asset
+        var integrityAttr = tag.getAttribute(integrityAttributeName);
+        if (integrityAttr != null && AssetPathValidator.isBlank(integrityAttr.getValue())) {
+            AssetIntegrityProcessor.addIntegrity(resolver, tag, handler, attributeValue, resolvedUrl);
+            handler.removeAttribute(integrityAttributeName);
+        }
+
+        // Record render-blocking assets for preload hints of later requests
+        PreloadCollector collector = PreloadCollector.from(context);
+        if (collector != null) {
+            collector.addIfCritical(attributeValue, resolvedUrl);
+        }
     }
 }
@@ -1,7 +1,9 @@
 package io.github.thymeleaf.assetdialect.tad;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -12,13 +14,28 @@ import java.util.Map;
 public class AssetProperties implements AssetDialectConfiguration {
 
     private boolean enabled = true;
-    private String defaultCdn;
+    private String defaultCdn; // one base URL, or several comma-separated ones to shard assets across, see CdnHosts
     private Map<String, String> cdns = new HashMap<>();
     private String localPath = "";
     private boolean useLocalInDev = true;
     private boolean versionAssets = true;
-    private String versionStrategy = "hash"; // or "timestamp"
+    private String versionStrategy = "hash"; // see VersionStrategies for built-in names
+    private int versionLength; // leading characters kept from per-file versions, 0 keeps them whole
     private String assetBasePath = "src/main/resources/static"; // Base path for asset resolution
+    private String manifestLocation; // e.g. classpath:asset-manifest.json, resolves versions from a build-time manifest
+    // Bake literal tad:src values into cached templates, see AssetTemplateResolver. Without tad.watch.enabled
+    // or a manifest, enable AssetTemplateResolver.setRevalidateBakedUrls, or changed assets keep their old URLs
+    private boolean resolveAtParseTime;
+    private String imageVariantsLocation; // e.g. classpath:image-variants.json, lets tad:srcset expand generated image variants
+    private String bundlesLocation; // e.g. classpath:asset-bundles.json, the bundles tad:bundle refers to
+    private final Caching caching = new Caching();
+    private final Hashing hashing = new Hashing();
+    private final Watch watch = new Watch();
+    private final Prewarm prewarm = new Prewarm();
+    private final ResolutionCache resolutionCache = new ResolutionCache();
+    private final Preload preload = new Preload();
+    private final Integrity integrity = new Integrity();
+    private final Routing routing = new Routing();
 
     // Getters and setters
     public boolean isEnabled() {
@@ -77,6 +94,14 @@ public class AssetProperties implements AssetDialectConfiguration {
         this.versionStrategy = versionStrategy;
     }
 
+    public int getVersionLength() {
+        return versionLength;
+    }
+
+    public void setVersionLength(int versionLength) {
+        this.versionLength = versionLength;
+    }
+
     public String getAssetBasePath() {
         return assetBasePath;
     }
@@ -84,4 +109,359 @@ public class AssetProperties implements AssetDialectConfiguration {
     public void setAssetBasePath(String assetBasePath) {
         this.assetBasePath = assetBasePath;
     }
+
+    public String getManifestLocation() {
+        return manifestLocation;
+    }
+
+    public void setManifestLocation(String manifestLocation) {
+        this.manifestLocation = manifestLocation;
+    }
+
+    public boolean isResolveAtParseTime() {
+        return resolveAtParseTime;
+    }
+
+    public void setResolveAtParseTime(boolean resolveAtParseTime) {
+        this.resolveAtParseTime = resolveAtParseTime;
+    }
+
+    public String getImageVariantsLocation() {
+        return imageVariantsLocation;
+    }
+
+    public void setImageVariantsLocation(String imageVariantsLocation) {
+        this.imageVariantsLocation = imageVariantsLocation;
+    }
+
+    public String getBundlesLocation() {
+        return bundlesLocation;
+    }
+
+    public void setBundlesLocation(String bundlesLocation) {
+        this.bundlesLocation = bundlesLocation;
+    }
+
+    public Caching getCaching() {
+        return caching;
+    }
+
+    public Hashing getHashing() {
+        return hashing;
+    }
+
+    public Watch getWatch() {
+        return watch;
+    }
+
+    public Prewarm getPrewarm() {
+        return prewarm;
+    }
+
+    public ResolutionCache getResolutionCache() {
+        return resolutionCache;
+    }
+
+    public Preload getPreload() {
+        return preload;
+    }
+
+    public Integrity getIntegrity() {
+        return integrity;
+    }
+
+    public Routing getRouting() {
+        return routing;
+    }
+
+    /**
+     * Settings for the asset digest cache ({@code tad.caching.*}).
+     */
+    public static class Caching {
+
+        private boolean enabled = true;
+        private int maxSize = 1000;
+        private Duration expireAfterWrite = Duration.ofHours(1);
+        private String indexLocation; // e.g. /var/cache/app/asset-digests.idx, persists digests across restarts
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public String getIndexLocation() {
+            return indexLocation;
+        }
+
+        public void setIndexLocation(String indexLocation) {
+            this.indexLocation = indexLocation;
+        }
+    }
+
+    /**
+     * Settings for streaming file hashing ({@code tad.hashing.*}).
+     */
+    public static class Hashing {
+
+        private DataSize bufferSize = AssetDigester.DEFAULT_BUFFER_SIZE;
+        private DataSize mappingThreshold = AssetDigester.DEFAULT_MAPPING_THRESHOLD;
+
+        public DataSize getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(DataSize bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public DataSize getMappingThreshold() {
+            return mappingThreshold;
+        }
+
+        public void setMappingThreshold(DataSize mappingThreshold) {
+            this.mappingThreshold = mappingThreshold;
+        }
+    }
+
+    /**
+     * Settings for background refresh of asset versions on file changes ({@code tad.watch.*}).
+     */
+    public static class Watch {
+
+        private boolean enabled = false;
+        private Duration debounce = Duration.ofMillis(200);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getDebounce() {
+            return debounce;
+        }
+
+        public void setDebounce(Duration debounce) {
+            this.debounce = debounce;
+        }
+    }
+
+    /**
+     * Settings for hashing all assets at startup ({@code tad.prewarm.*}).
+     */
+    public static class Prewarm {
+
+        /**
+         * Thread model used to hash files in parallel.
+         */
+        public enum Executor {
+            VIRTUAL_THREADS, FORK_JOIN
+        }
+
+        private boolean enabled = false;
+        private boolean blockReadiness = false;
+        private Executor executor = Executor.VIRTUAL_THREADS;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int maxConcurrentIo = 16;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isBlockReadiness() {
+            return blockReadiness;
+        }
+
+        public void setBlockReadiness(boolean blockReadiness) {
+            this.blockReadiness = blockReadiness;
+        }
+
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        public void setExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxConcurrentIo() {
+            return maxConcurrentIo;
+        }
+
+        public void setMaxConcurrentIo(int maxConcurrentIo) {
+            this.maxConcurrentIo = maxConcurrentIo;
+        }
+    }
+
+    /**
+     * Settings for memoizing resolved URLs ({@code tad.resolution-cache.*}), see {@link CachingAssetResolver}.
+     */
+    public static class ResolutionCache {
+
+        private boolean enabled = false;
+        private int maxSize = 10_000;
+        // resolutions are revalidated after this long; zero keeps them until the generation changes,
+        // safe only while an AssetWatcher or a manifest keeps versions current
+        private Duration expireAfterWrite = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+
+    /**
+     * Settings for preload hints ({@code tad.preload.*}), see {@link PreloadInterceptor}.
+     */
+    public static class Preload {
+
+        private boolean enabled = false;
+        private boolean earlyHints = false;
+        private int maxTemplates = 1_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isEarlyHints() {
+            return earlyHints;
+        }
+
+        public void setEarlyHints(boolean earlyHints) {
+            this.earlyHints = earlyHints;
+        }
+
+        public int getMaxTemplates() {
+            return maxTemplates;
+        }
+
+        public void setMaxTemplates(int maxTemplates) {
+            this.maxTemplates = maxTemplates;
+        }
+    }
+
+    /**
+     * Settings for Subresource Integrity metadata ({@code tad.integrity.*}), see {@link AssetIntegrity}.
+     */
+    public static class Integrity {
+
+        private boolean enabled = false;
+        private String algorithm = AssetIntegrity.SHA384.getName();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+    }
+
+    /**
+     * Settings for per-request CDN routing ({@code tad.routing.*}), see {@link AssetRouter}, and
+     * for path rules, see {@link CdnRules}.
+     */
+    public static class Routing {
+
+        private String attribute; // request attribute holding the route key, checked before the header
+        private String header; // e.g. X-Region
+        private Map<String, String> routes = new HashMap<>(); // route key -> CDN name, keys ignore case
+        private Map<String, String> rules = new HashMap<>(); // CDN name -> comma-separated directories or extensions, see CdnRules
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public void setAttribute(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+
+        public Map<String, String> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(Map<String, String> routes) {
+            this.routes = routes;
+        }
+
+        public Map<String, String> getRules() {
+            return rules;
+        }
+
+        public void setRules(Map<String, String> rules) {
+            this.rules = rules;
+        }
+    }
 }
@@ -24,4 +24,51 @@ public interface AssetResolver {
         return resolve(path, null, false);
     }
 
+    /**
+     * Resolves an asset path like {@link #resolve(String, String, boolean)} but without adding a
+     * version, so resolution never reads asset files. Used where a URL is needed without blocking,
+     * e.g. on a reactive event loop before the version is known. Resolvers that don't version or
+     * never block return the regular resolution.
+     */
+    default String resolveUnversioned(String path, String cdn, boolean forceLocal) {
+        return resolve(path, cdn, forceLocal);
+    }
+
+    /**
+     * Returns a counter that changes whenever previously resolved URLs may have become stale,
+     * e.g. because asset versions were refreshed. Callers that keep resolved URLs compare it
+     * with the value seen when they resolved them. Resolvers whose results never change
+     * return a constant.
+     */
+    default long getGeneration() {
+        return 0L;
+    }
+
+    /**
+     * Returns the Subresource Integrity metadata of an asset (e.g. {@code sha384-...}) for the
+     * {@code integrity} attribute of the element referencing it.
+     *
+     * @param path The original asset path
+     * @return the integrity metadata, or {@code null} if it is not available for the asset
+     */
+    default String resolveIntegrity(String path) {
+        return null;
+    }
+
+    /**
+     * Returns whether a resolved URL points to one of the configured CDNs, so that elements
+     * carrying integrity metadata need a {@code crossorigin} attribute.
+     */
+    default boolean isCdnUrl(String url) {
+        return false;
+    }
+
+    /**
+     * Returns whether assets currently resolve to local paths unless a CDN is requested,
+     * e.g. during development.
+     */
+    default boolean isUseLocal() {
+        return false;
+    }
+
 }
@@ -0,0 +1,103 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Refreshes a {@link DefaultAssetResolver} when Spring Cloud reports changed {@code tad.*}
+ * properties or active profiles, e.g. after a {@code /actuator/refresh} or a config server push.
+ *
+ * <p>The properties are bound into a new {@link AssetProperties} instance and compiled into a
+ * new resolver configuration, which is swapped in atomically, so renders in progress never see
+ * a partially updated configuration.</p>
+ *
+ * <p>Only the settings compiled into a {@link ResolverSnapshot} are refreshable:
+ * {@code tad.enabled}, {@code default-cdn}, {@code cdns.*}, {@code local-path},
+ * {@code use-local-in-dev}, {@code version-assets}, {@code version-strategy},
+ * {@code version-length}, {@code asset-base-path}, {@code integrity.*} and
+ * {@code routing.rules.*}. All other keys, e.g. {@code routing.header}, {@code routing.routes.*},
+ * {@code preload.*}, {@code resolution-cache.*}, {@code caching.*}, {@code hashing.*},
+ * {@code watch.*}, {@code prewarm.*}, {@code resolve-at-parse-time} and the manifest, image
+ * variant and bundle locations, configure beans built at startup and keep their values until
+ * restart; changing them logs a warning.</p>
+ *
+ * <p>Requires {@code spring-cloud-context} on the classpath; register it as a bean only when
+ * it is present.</p>
+ */
+public class AssetResolverRefresher implements ApplicationListener<EnvironmentChangeEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(AssetResolverRefresher.class);
+
+    private static final String PREFIX = "tad";
+    private static final List<String> REFRESHABLE = List.of("enabled", "defaultcdn", "cdns", "localpath",
+            "uselocalindev", "versionassets", "versionstrategy", "versionlength", "assetbasepath", "integrity",
+            "routing.rules");
+
+    private final DefaultAssetResolver resolver;
+    private final Environment environment;
+
+    public AssetResolverRefresher(DefaultAssetResolver resolver, Environment environment) {
+        this.resolver = resolver;
+        this.environment = environment;
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (isRelevant(event.getKeys())) {
+            refresh();
+            Set<String> ignored = startupOnlyKeys(event.getKeys());
+            if (!ignored.isEmpty()) {
+                logger.warn("Changed properties {} are read at startup and only take effect after a restart", ignored);
+            }
+        }
+    }
+
+    /**
+     * Binds the current {@code tad.*} properties and swaps them into the resolver.
+     */
+    public void refresh() {
+        AssetProperties properties = Binder.get(environment).bindOrCreate(PREFIX, AssetProperties.class);
+        resolver.refresh(properties);
+        logger.info("Asset resolver configuration refreshed from environment");
+    }
+
+    static boolean isRelevant(Set<String> keys) {
+        for (String key : keys) {
+            if (key.startsWith(PREFIX + ".") || key.startsWith("spring.profiles.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the changed {@code tad.*} keys a refresh does not apply, given in kebab or camel case.
+     */
+    static Set<String> startupOnlyKeys(Set<String> keys) {
+        Set<String> startupOnly = new TreeSet<>();
+        for (String key : keys) {
+            String name = key.toLowerCase(Locale.ROOT).replace("-", "");
+            if (name.startsWith(PREFIX + ".") && !isRefreshable(name.substring(PREFIX.length() + 1))) {
+                startupOnly.add(key);
+            }
+        }
+        return startupOnly;
+    }
+
+    private static boolean isRefreshable(String name) {
+        for (String refreshable : REFRESHABLE) {
+            if (name.equals(refreshable) || name.startsWith(refreshable + ".") || name.startsWith(refreshable + "[")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.web.IWebExchange;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Selects the CDN assets of a request resolve against from a request attribute or header, e.g. a
+ * region, A/B cohort or client type ({@code tad.routing.*}).
+ *
+ * <pre>
+ * tad.cdns.eu=https://eu.cdn.example.com
+ * tad.routing.header=X-Region
+ * tad.routing.routes.eu-west=eu
+ * tad.routing.routes.eu-central=eu
+ * </pre>
+ *
+ * <p>The routing table is compiled once from the settings. The route of a request is looked up the
+ * first time an element needs it and kept as a request attribute, so every further element costs a
+ * single attribute read. Requests without a matching route, and elements with an explicit
+ * {@code tad:cdn}, resolve as before. Resolved URLs are memoized per CDN and path, so a routed
+ * element costs one hash lookup like any other: {@link AssetDialect} wraps its resolver in a
+ * {@link CachingAssetResolver} while routing is configured, whether or not
+ * {@code tad.resolution-cache.enabled} is set.</p>
+ *
+ * <p>URLs that differ per request must not be baked into cached templates, so
+ * {@link AssetTemplateResolver} leaves elements without {@code tad:cdn} to render time while a
+ * router is set, and {@link PreloadInterceptor} learns preloads per view and CDN.</p>
+ */
+public final class AssetRouter {
+
+    /**
+     * Name of the request attribute caching the CDN a request is routed to.
+     */
+    public static final String ATTRIBUTE = AssetRouter.class.getName() + ".CDN";
+
+    // Cached for requests without a route, as an absent attribute means "not looked up yet"
+    private static final String NO_ROUTE = "";
+
+    private final String attribute;
+    private final String header;
+    private final Map<String, String> routes;
+
+    /**
+     * @param attribute the request attribute holding the route key, or {@code null}
+     * @param header the request header holding the route key if the attribute is absent, or {@code null}
+     * @param routes the CDN name per route key; keys are matched ignoring case and surrounding whitespace
+     */
+    public AssetRouter(String attribute, String header, Map<String, String> routes) {
+        this.attribute = StringUtils.hasText(attribute) ? attribute : null;
+        this.header = StringUtils.hasText(header) ? header : null;
+        Map<String, String> compiled = new HashMap<>();
+        routes.forEach((key, cdn) -> {
+            if (key != null && StringUtils.hasText(cdn)) {
+                compiled.put(normalize(key), cdn.trim());
+            }
+        });
+        this.routes = Map.copyOf(compiled);
+    }
+
+    /**
+     * Creates the router configured by {@code tad.routing.*}.
+     *
+     * @return the router, or {@code null} if no routes or no route source are configured
+     */
+    public static AssetRouter from(AssetProperties.Routing routing) {
+        if (routing == null || routing.getRoutes() == null || routing.getRoutes().isEmpty()
+                || (!StringUtils.hasText(routing.getAttribute()) && !StringUtils.hasText(routing.getHeader()))) {
+            return null;
+        }
+        return new AssetRouter(routing.getAttribute(), routing.getHeader(), routing.getRoutes());
+    }
+
+    /**
+     * Returns the CDN an element resolves against: its explicit {@code tad:cdn} if given, otherwise
+     * the CDN the request is routed to, if any.
+     */
+    public String cdnFor(IContext context, String cdn) {
+        return StringUtils.hasText(cdn) ? cdn : route(context);
+    }
+
+    /**
+     * Returns the CDN the request being rendered is routed to, or {@code null} outside a web
+     * request or if no route matches.
+     */
+    public String route(IContext context) {
+        if (!(context instanceof IWebContext webContext)) {
+            return null;
+        }
+        IWebExchange exchange = webContext.getExchange();
+        if (exchange.getAttributeValue(ATTRIBUTE) instanceof String cached) {
+            return cached.isEmpty() ? null : cached;
+        }
+        Object key = attribute != null ? exchange.getAttributeValue(attribute) : null;
+        if (key == null && header != null) {
+            key = exchange.getRequest().getHeaderValue(header);
+        }
+        String cdn = lookup(key);
+        exchange.setAttributeValue(ATTRIBUTE, cdn != null ? cdn : NO_ROUTE);
+        return cdn;
+    }
+
+    /**
+     * Returns the CDN the request is routed to, or {@code null} if no route matches.
+     */
+    public String route(HttpServletRequest request) {
+        if (request.getAttribute(ATTRIBUTE) instanceof String cached) {
+            return cached.isEmpty() ? null : cached;
+        }
+        Object key = attribute != null ? request.getAttribute(attribute) : null;
+        if (key == null && header != null) {
+            key = request.getHeader(header);
+        }
+        String cdn = lookup(key);
+        request.setAttribute(ATTRIBUTE, cdn != null ? cdn : NO_ROUTE);
+        return cdn;
+    }
+
+    /**
+     * Returns the CDN name of a route key, or {@code null} if no route matches.
+     */
+    public String lookup(Object key) {
+        return key != null ? routes.get(normalize(key.toString())) : null;
+    }
+
+    public Map<String, String> getRoutes() {
+        return routes;
+    }
+
+    private static String normalize(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+}
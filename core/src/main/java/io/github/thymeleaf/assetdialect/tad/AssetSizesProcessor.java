@@ -0,0 +1,31 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Processor for the tad:sizes attribute.
+ * Renders it as {@code sizes}, so responsive images can be declared entirely with
+ * tad attributes next to tad:srcset.
+ */
+public class AssetSizesProcessor extends AbstractAttributeTagProcessor {
+
+    public AssetSizesProcessor(String dialectPrefix) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "sizes", true, 1000, true);
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+                             AttributeName attributeName, String attributeValue,
+                             IElementTagStructureHandler handler) {
+        if (AssetPathValidator.isBlank(attributeValue)) {
+            return;
+        }
+        handler.setAttribute("sizes", attributeValue.trim());
+        handler.removeAttribute(attributeName);
+    }
+}
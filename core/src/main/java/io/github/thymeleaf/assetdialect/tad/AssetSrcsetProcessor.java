@@ -0,0 +1,155 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.engine.AttributeNames;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Processor for the tad:srcset attribute.
+ * Resolves every image candidate in a single pass with the same CDN, local path and versioning
+ * rules as tad:src, keeping the width and density descriptors. A single source path without
+ * descriptors is expanded into all variants recorded for it in {@link ImageVariants}, followed by
+ * the original at its full width:
+ * <pre>
+ * &lt;img tad:src="/images/hero.jpg" tad:srcset="/images/hero.jpg" tad:sizes="100vw"&gt;
+ * </pre>
+ * renders
+ * <pre>
+ * srcset="https://cdn.example.com/images/hero-320w.jpg 320w, ..., https://cdn.example.com/images/hero.jpg 1500w"
+ * </pre>
+ */
+public class AssetSrcsetProcessor extends AbstractAttributeTagProcessor {
+    private final AssetResolver resolver;
+    private final ImageVariants imageVariants;
+    private final AssetRouter router;
+    private final AttributeName cdnAttributeName;
+    private final AttributeName localAttributeName;
+
+    public AssetSrcsetProcessor(String dialectPrefix, AssetResolver resolver, ImageVariants imageVariants) {
+        this(dialectPrefix, resolver, imageVariants, null);
+    }
+
+    /**
+     * @param router selects the CDN of elements without {@code tad:cdn} per request, or {@code null}
+     */
+    public AssetSrcsetProcessor(String dialectPrefix, AssetResolver resolver, ImageVariants imageVariants,
+                                AssetRouter router) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "srcset", true, 1000, true);
+        this.resolver = resolver;
+        this.imageVariants = imageVariants != null ? imageVariants : ImageVariants.empty();
+        this.router = router;
+        this.cdnAttributeName = AttributeNames.forHTMLName(dialectPrefix, "cdn");
+        this.localAttributeName = AttributeNames.forHTMLName(dialectPrefix, "local");
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+                             AttributeName attributeName, String attributeValue,
+                             IElementTagStructureHandler handler) {
+        if (AssetPathValidator.isBlank(attributeValue)) {
+            return;
+        }
+
+        String cdn = null;
+        var cdnAttr = tag.getAttribute(cdnAttributeName);
+        if (cdnAttr != null) {
+            cdn = cdnAttr.getValue();
+        }
+        if (router != null) {
+            cdn = router.cdnFor(context, cdn);
+        }
+
+        boolean forceLocal = false;
+        var localAttr = tag.getAttribute(localAttributeName);
+        if (localAttr != null) {
+            forceLocal = Boolean.parseBoolean(localAttr.getValue());
+        }
+
+        handler.setAttribute("srcset", resolveSrcset(attributeValue, cdn, forceLocal));
+        handler.removeAttribute(attributeName);
+    }
+
+    /**
+     * Resolves all candidates of a srcset value, expanding a lone source path into its variants.
+     */
+    String resolveSrcset(String srcset, String cdn, boolean forceLocal) {
+        StringBuilder resolved = new StringBuilder(srcset.length() * 2);
+        int length = srcset.length();
+        int i = 0;
+        int candidates = 0;
+        while (true) {
+            // Candidates are separated by commas and optional whitespace
+            while (i < length && (srcset.charAt(i) == ',' || Character.isWhitespace(srcset.charAt(i)))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+
+            int urlStart = i;
+            while (i < length && !Character.isWhitespace(srcset.charAt(i))) {
+                i++;
+            }
+            int urlEnd = i;
+            String descriptor = null;
+            if (srcset.charAt(urlEnd - 1) == ',') {
+                // A URL directly followed by a comma has no descriptor
+                while (urlEnd > urlStart && srcset.charAt(urlEnd - 1) == ',') {
+                    urlEnd--;
+                }
+            } else {
+                int descriptorStart = i;
+                while (i < length && srcset.charAt(i) != ',') {
+                    i++;
+                }
+                descriptor = srcset.substring(descriptorStart, i).trim();
+            }
+            if (urlEnd == urlStart) {
+                continue;
+            }
+
+            String url = srcset.substring(urlStart, urlEnd);
+            boolean hasDescriptor = descriptor != null && !descriptor.isEmpty();
+            if (candidates == 0 && !hasDescriptor && isLast(srcset, i)) {
+                ImageVariants.Image image = imageVariants.get(url.startsWith("/") ? url.substring(1) : url);
+                if (image != null) {
+                    return appendVariants(resolved, url, image, cdn, forceLocal).toString();
+                }
+            }
+
+            if (candidates++ > 0) {
+                resolved.append(", ");
+            }
+            resolved.append(resolver.resolve(url, cdn, forceLocal));
+            if (hasDescriptor) {
+                resolved.append(' ').append(descriptor);
+            }
+        }
+        return resolved.toString();
+    }
+
+    private StringBuilder appendVariants(StringBuilder resolved, String source, ImageVariants.Image image,
+                                         String cdn, boolean forceLocal) {
+        String prefix = source.startsWith("/") ? "/" : "";
+        for (ImageVariants.Variant variant : image.getVariants()) {
+            resolved.append(resolver.resolve(prefix + variant.getPath(), cdn, forceLocal))
+                    .append(' ').append(variant.getWidth()).append("w, ");
+        }
+        return resolved.append(resolver.resolve(source, cdn, forceLocal))
+                .append(' ').append(image.getWidth()).append('w');
+    }
+
+    private static boolean isLast(String srcset, int from) {
+        for (int i = from; i < srcset.length(); i++) {
+            char c = srcset.charAt(i);
+            if (c != ',' && !Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
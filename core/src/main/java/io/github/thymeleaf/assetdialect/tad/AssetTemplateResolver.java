@@ -0,0 +1,501 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.cache.ICacheEntryValidity;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+import org.thymeleaf.templateresolver.TemplateResolution;
+import org.thymeleaf.templateresource.ITemplateResource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Template resolver decorator that resolves literal {@code tad:src} values once, when a template
+ * is parsed, instead of on every render.
+ *
+ * <p>HTML templates are rewritten before Thymeleaf parses them: every start tag with a literal
+ * {@code tad:src} gets a plain {@code src} attribute holding the resolved URL, and its
+ * {@code tad:src}, {@code tad:cdn} and {@code tad:local} attributes are removed, so the cached
+ * template model no longer contains anything for {@link AssetProcessor} to do. A valueless
+ * {@code tad:integrity} on such a tag is baked into {@code integrity} (and {@code crossorigin})
+ * attributes the same way. Values that look
+ * like expressions or contain character references, and paths the resolver rejects, are left in
+ * place and handled by {@link AssetProcessor} at render time as before.</p>
+ *
+ * <p>The cache validity of each resolution is tied to {@link AssetResolver#getGeneration()}, so
+ * cached templates are parsed again once asset versions are refreshed. Baked paths are no longer
+ * resolved while rendering, so without an {@link AssetWatcher} or manifest nothing notices changed
+ * asset files and moves the generation. Enable {@linkplain #setRevalidateBakedUrls(boolean)
+ * revalidation} then: every validity check resolves the baked paths again, which a
+ * {@link CachingAssetResolver} answers from memory until its entries expire, and parses the
+ * template again once one of them resolves to a different URL.</p>
+ *
+ * <p>With an {@linkplain #setRouter(AssetRouter) asset router} URLs depend on the request, so only
+ * tags with an explicit {@code tad:cdn} are baked; all others are resolved at render time.</p>
+ *
+ * <p>With {@linkplain #setRecordPreloads(boolean) preload recording} enabled, baked stylesheets,
+ * scripts and fonts keep a {@code tad:baked-preload} attribute holding their asset path, which
+ * {@link AssetBakedPreloadProcessor} records in the request's {@link PreloadCollector} and removes.</p>
+ */
+public class AssetTemplateResolver implements ITemplateResolver {
+    private static final Logger logger = LoggerFactory.getLogger(AssetTemplateResolver.class);
+
+    // Offsets stored per parsed attribute, START includes the leading whitespace
+    private static final int START = 0;
+    private static final int NAME_START = 1;
+    private static final int NAME_END = 2;
+    private static final int VALUE_START = 3;
+    private static final int VALUE_END = 4;
+    private static final int END = 5;
+    private static final String[] EXPRESSION_MARKERS = {"${", "*{", "#{", "@{", "~{", "[[", "[(", "&"};
+    // Elements whose content is text, not markup, as for the HTML parser Thymeleaf uses
+    private static final String[] RAW_TEXT_ELEMENTS = {"script", "style", "textarea", "title"};
+
+    private final ITemplateResolver delegate;
+    private final AssetResolver resolver;
+    private final String srcAttribute;
+    private final String cdnAttribute;
+    private final String localAttribute;
+    private final String integrityAttribute;
+    private final String bakedPreloadAttribute;
+    private volatile AssetRouter router;
+    private volatile boolean recordPreloads;
+    private volatile boolean revalidateBakedUrls;
+
+    public AssetTemplateResolver(ITemplateResolver delegate, AssetResolver resolver) {
+        this(delegate, resolver, "tad");
+    }
+
+    /**
+     * @param dialectPrefix the prefix the {@link AssetDialect} is registered with
+     */
+    public AssetTemplateResolver(ITemplateResolver delegate, AssetResolver resolver, String dialectPrefix) {
+        this.delegate = delegate;
+        this.resolver = resolver;
+        this.srcAttribute = dialectPrefix + ":src";
+        this.cdnAttribute = dialectPrefix + ":cdn";
+        this.localAttribute = dialectPrefix + ":local";
+        this.integrityAttribute = dialectPrefix + ":integrity";
+        this.bakedPreloadAttribute = dialectPrefix + ":baked-preload";
+    }
+
+    /**
+     * Sets the router selecting the CDN per request, or {@code null} if requests aren't routed.
+     * Tags without {@code tad:cdn} are then left to be resolved at render time.
+     */
+    public void setRouter(AssetRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * Sets whether baked stylesheets, scripts and fonts are marked for {@link PreloadCollector}, so
+     * a {@link PreloadInterceptor} learns them although {@link AssetProcessor} doesn't run for them.
+     * Enable it together with {@code tad.preload.enabled}.
+     */
+    public void setRecordPreloads(boolean recordPreloads) {
+        this.recordPreloads = recordPreloads;
+    }
+
+    /**
+     * Sets whether cached templates resolve their baked paths again whenever they are checked for
+     * validity, and are parsed again once a baked URL changed. Enable it unless an
+     * {@link AssetWatcher} or a manifest moves the resolver's generation when asset files change.
+     */
+    public void setRevalidateBakedUrls(boolean revalidateBakedUrls) {
+        this.revalidateBakedUrls = revalidateBakedUrls;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Integer getOrder() {
+        return delegate.getOrder();
+    }
+
+    @Override
+    public TemplateResolution resolveTemplate(IEngineConfiguration configuration, String ownerTemplate,
+                                              String template, Map<String, Object> templateResolutionAttributes) {
+        TemplateResolution resolution =
+                delegate.resolveTemplate(configuration, ownerTemplate, template, templateResolutionAttributes);
+        if (resolution == null || resolution.getTemplateMode() != TemplateMode.HTML) {
+            return resolution;
+        }
+        // Read the generation before resolving anything, so a concurrent refresh invalidates the entry
+        long generation = resolver.getGeneration();
+        // Filled when the template is parsed, before its cache entry is first checked
+        List<BakedUrl> bakedUrls = revalidateBakedUrls ? new CopyOnWriteArrayList<>() : null;
+        return new TemplateResolution(
+                new ResolvedAssetsTemplateResource(resolution.getTemplateResource(), bakedUrls),
+                resolution.isTemplateResourceExistenceVerified(),
+                resolution.getTemplateMode(),
+                resolution.getUseDecoupledLogic(),
+                new GenerationValidity(resolution.getValidity(), generation, bakedUrls));
+    }
+
+    /**
+     * Resolves the literal {@code tad:src} attributes of all start tags in the given markup.
+     * Comments, CDATA sections and the content of raw text elements such as {@code <script>} are
+     * skipped the way the HTML parser skips them, so markup inside them is never rewritten.
+     */
+    String resolveLiterals(String markup) {
+        return resolveLiterals(markup, null);
+    }
+
+    /**
+     * @param bakedUrls receives every baked URL, or {@code null} if they aren't revalidated
+     */
+    private String resolveLiterals(String markup, List<BakedUrl> bakedUrls) {
+        if (!markup.contains(srcAttribute)) {
+            return markup;
+        }
+        StringBuilder result = null;
+        int last = 0;
+        int position = markup.indexOf('<');
+        while (position >= 0) {
+            int next;
+            if (markup.startsWith("<!--", position)) {
+                int commentEnd = markup.indexOf("-->", position + 4);
+                next = commentEnd < 0 ? markup.length() : commentEnd + 3;
+            } else if (markup.startsWith("<![CDATA[", position)) {
+                int cdataEnd = markup.indexOf("]]>", position + 9);
+                next = cdataEnd < 0 ? markup.length() : cdataEnd + 3;
+            } else {
+                StartTag tag = StartTag.parse(markup, position);
+                if (tag == null) {
+                    next = position + 1;
+                } else {
+                    next = rawTextEnd(markup, tag);
+                    String rewritten = rewrite(markup, tag, bakedUrls);
+                    if (rewritten != null) {
+                        if (result == null) {
+                            result = new StringBuilder(markup.length());
+                        }
+                        result.append(markup, last, tag.start).append(rewritten);
+                        last = tag.end;
+                    }
+                }
+            }
+            position = next < markup.length() ? markup.indexOf('<', next) : -1;
+        }
+        if (result == null) {
+            return markup;
+        }
+        return result.append(markup, last, markup.length()).toString();
+    }
+
+    /**
+     * Returns the position after a start tag from which to look for markup again: the closing tag
+     * of a raw text element, or the end of the tag itself.
+     */
+    private static int rawTextEnd(String markup, StartTag tag) {
+        if (markup.charAt(tag.end - 2) == '/') {
+            return tag.end;
+        }
+        int nameLength = tag.nameEnd - tag.start - 1;
+        for (String element : RAW_TEXT_ELEMENTS) {
+            if (element.length() == nameLength && markup.regionMatches(true, tag.start + 1, element, 0, nameLength)) {
+                for (int i = markup.indexOf("</", tag.end); i >= 0; i = markup.indexOf("</", i + 2)) {
+                    int nameEnd = i + 2 + nameLength;
+                    if (markup.regionMatches(true, i + 2, element, 0, nameLength)
+                            && (nameEnd == markup.length() || StartTag.isTagNameEnd(markup.charAt(nameEnd)))) {
+                        return i;
+                    }
+                }
+                return markup.length();
+            }
+        }
+        return tag.end;
+    }
+
+    private String rewrite(String markup, StartTag tag, List<BakedUrl> bakedUrls) {
+        String src = null;
+        String cdn = null;
+        boolean forceLocal = false;
+        boolean bakeIntegrity = false;
+        boolean hasCrossorigin = false;
+        for (int[] attribute : tag.attributes) {
+            if (hasName(markup, attribute, srcAttribute)) {
+                src = valueOf(markup, attribute);
+            } else if (hasName(markup, attribute, cdnAttribute)) {
+                cdn = valueOf(markup, attribute);
+            } else if (hasName(markup, attribute, localAttribute)) {
+                forceLocal = Boolean.parseBoolean(valueOf(markup, attribute));
+            } else if (hasName(markup, attribute, integrityAttribute)) {
+                bakeIntegrity = AssetPathValidator.isBlank(valueOf(markup, attribute));
+            } else if (hasName(markup, attribute, "crossorigin")) {
+                hasCrossorigin = true;
+            }
+        }
+        if (!isLiteral(src) || (cdn != null && !isLiteral(cdn))) {
+            return null;
+        }
+        if (router != null && AssetPathValidator.isBlank(cdn)) {
+            // Routed per request, a baked URL would serve every request the CDN of the first one
+            return null;
+        }
+
+        String resolvedUrl;
+        try {
+            resolvedUrl = resolver.resolve(src, cdn, forceLocal);
+        } catch (RuntimeException e) {
+            // Leave the tag to AssetProcessor so rendering fails exactly as it does without baking
+            logger.debug("Leaving {}=\"{}\" to be resolved at render time", srcAttribute, src, e);
+            return null;
+        }
+        String integrity = bakeIntegrity ? resolver.resolveIntegrity(src) : null;
+        if (bakedUrls != null) {
+            bakedUrls.add(new BakedUrl(src, cdn, forceLocal, resolvedUrl));
+        }
+
+        StringBuilder rewritten = new StringBuilder(tag.end - tag.start + 32)
+                .append(markup, tag.start, tag.nameEnd);
+        for (int[] attribute : tag.attributes) {
+            if (hasName(markup, attribute, srcAttribute)) {
+                rewritten.append(" src=\"").append(escape(resolvedUrl)).append('"');
+                if (recordPreloads && isCritical(src)) {
+                    rewritten.append(' ').append(bakedPreloadAttribute).append("=\"").append(escape(src)).append('"');
+                }
+            } else if (bakeIntegrity && hasName(markup, attribute, integrityAttribute)) {
+                if (integrity != null) {
+                    rewritten.append(" integrity=\"").append(integrity).append('"');
+                    if (!hasCrossorigin && resolver.isCdnUrl(resolvedUrl)) {
+                        rewritten.append(" crossorigin=\"anonymous\"");
+                    }
+                }
+            } else if (!hasName(markup, attribute, "src")
+                    && !hasName(markup, attribute, cdnAttribute)
+                    && !hasName(markup, attribute, localAttribute)) {
+                rewritten.append(markup, attribute[START], attribute[END]);
+            }
+        }
+        return rewritten.append(markup, tag.attributesEnd, tag.end).toString();
+    }
+
+    private static boolean hasName(String markup, int[] attribute, String name) {
+        return attribute[NAME_END] - attribute[NAME_START] == name.length()
+                && markup.regionMatches(true, attribute[NAME_START], name, 0, name.length());
+    }
+
+    private static String valueOf(String markup, int[] attribute) {
+        return attribute[VALUE_START] < 0 ? "" : markup.substring(attribute[VALUE_START], attribute[VALUE_END]);
+    }
+
+    /**
+     * Returns whether {@link PreloadCollector#addIfCritical} records the asset.
+     */
+    private static boolean isCritical(String path) {
+        String destination = AssetPreload.destinationOf(path);
+        return destination != null && !AssetPreload.IMAGE.equals(destination);
+    }
+
+    private static boolean isLiteral(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return false;
+        }
+        for (String marker : EXPRESSION_MARKERS) {
+            if (value.contains(marker)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Offsets of a start tag and its attributes within the markup.
+     */
+    private static final class StartTag {
+        private final int start;
+        private final int nameEnd;
+        private final List<int[]> attributes = new ArrayList<>();
+        private int attributesEnd;
+        private int end;
+
+        private StartTag(int start, int nameEnd) {
+            this.start = start;
+            this.nameEnd = nameEnd;
+        }
+
+        /**
+         * Parses the start tag beginning at {@code start}, or returns {@code null} if there is none.
+         */
+        private static StartTag parse(String markup, int start) {
+            int length = markup.length();
+            int i = start + 1;
+            if (i >= length || !Character.isLetter(markup.charAt(i))) {
+                return null;
+            }
+            while (i < length && !isTagNameEnd(markup.charAt(i))) {
+                i++;
+            }
+            StartTag tag = new StartTag(start, i);
+            while (i < length) {
+                int attributeStart = i;
+                while (i < length && Character.isWhitespace(markup.charAt(i))) {
+                    i++;
+                }
+                if (i >= length) {
+                    return null;
+                }
+                char c = markup.charAt(i);
+                if (c == '>' || (c == '/' && i + 1 < length && markup.charAt(i + 1) == '>')) {
+                    tag.attributesEnd = attributeStart;
+                    tag.end = c == '>' ? i + 1 : i + 2;
+                    return tag;
+                }
+                if (i == attributeStart || c == '<' || c == '=' || c == '"' || c == '\'') {
+                    return null;
+                }
+
+                int nameStart = i;
+                while (i < length && !isAttributeNameEnd(markup.charAt(i))) {
+                    i++;
+                }
+                int nameEnd = i;
+                int valueStart = -1;
+                int valueEnd = -1;
+                int j = i;
+                while (j < length && Character.isWhitespace(markup.charAt(j))) {
+                    j++;
+                }
+                if (j < length && markup.charAt(j) == '=') {
+                    j++;
+                    while (j < length && Character.isWhitespace(markup.charAt(j))) {
+                        j++;
+                    }
+                    if (j >= length) {
+                        return null;
+                    }
+                    char quote = markup.charAt(j);
+                    if (quote == '"' || quote == '\'') {
+                        valueStart = j + 1;
+                        valueEnd = markup.indexOf(quote, valueStart);
+                        if (valueEnd < 0) {
+                            return null;
+                        }
+                        i = valueEnd + 1;
+                    } else {
+                        valueStart = j;
+                        while (j < length && !Character.isWhitespace(markup.charAt(j)) && markup.charAt(j) != '>') {
+                            j++;
+                        }
+                        valueEnd = j;
+                        i = j;
+                    }
+                }
+                tag.attributes.add(new int[] {attributeStart, nameStart, nameEnd, valueStart, valueEnd, i});
+            }
+            return null;
+        }
+
+        private static boolean isTagNameEnd(char c) {
+            return Character.isWhitespace(c) || c == '/' || c == '>' || c == '<';
+        }
+
+        private static boolean isAttributeNameEnd(char c) {
+            return Character.isWhitespace(c) || c == '=' || c == '/' || c == '>' || c == '<' || c == '"' || c == '\'';
+        }
+    }
+
+    /**
+     * A URL baked into a template, with the arguments it was resolved from.
+     */
+    private record BakedUrl(String path, String cdn, boolean forceLocal, String url) {
+    }
+
+    private final class ResolvedAssetsTemplateResource implements ITemplateResource {
+        private final ITemplateResource resource;
+        private final List<BakedUrl> bakedUrls;
+
+        private ResolvedAssetsTemplateResource(ITemplateResource resource, List<BakedUrl> bakedUrls) {
+            this.resource = resource;
+            this.bakedUrls = bakedUrls;
+        }
+
+        @Override
+        public String getDescription() {
+            return resource.getDescription();
+        }
+
+        @Override
+        public String getBaseName() {
+            return resource.getBaseName();
+        }
+
+        @Override
+        public boolean exists() {
+            return resource.exists();
+        }
+
+        @Override
+        public Reader reader() throws IOException {
+            StringBuilder markup = new StringBuilder();
+            try (Reader reader = resource.reader()) {
+                char[] buffer = new char[8192];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    markup.append(buffer, 0, read);
+                }
+            }
+            return new StringReader(resolveLiterals(markup.toString(), bakedUrls));
+        }
+
+        @Override
+        public ITemplateResource relative(String relativeLocation) {
+            return resource.relative(relativeLocation);
+        }
+    }
+
+    private final class GenerationValidity implements ICacheEntryValidity {
+        private final ICacheEntryValidity validity;
+        private final long generation;
+        private final List<BakedUrl> bakedUrls;
+
+        private GenerationValidity(ICacheEntryValidity validity, long generation, List<BakedUrl> bakedUrls) {
+            this.validity = validity;
+            this.generation = generation;
+            this.bakedUrls = bakedUrls;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return validity.isCacheable();
+        }
+
+        @Override
+        public boolean isCacheStillValid() {
+            return validity.isCacheStillValid() && resolver.getGeneration() == generation && bakedUrlsUnchanged();
+        }
+
+        private boolean bakedUrlsUnchanged() {
+            if (bakedUrls == null) {
+                return true;
+            }
+            for (BakedUrl baked : bakedUrls) {
+                try {
+                    if (!baked.url().equals(resolver.resolve(baked.path(), baked.cdn(), baked.forceLocal()))) {
+                        return false;
+                    }
+                } catch (RuntimeException e) {
+                    // Parse again, leaving the tag to AssetProcessor
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
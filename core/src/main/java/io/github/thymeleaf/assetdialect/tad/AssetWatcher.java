@@ -0,0 +1,223 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the asset base path and keeps the cached versions of a {@link DefaultAssetResolver}
+ * up to date in the background.
+ *
+ * <p>Directories are watched recursively with {@link WatchService}. Events are collected until
+ * no further event arrives for the debounce interval, but for at most ten intervals after the
+ * first event, so a bundler that writes continuously still gets published. Then only the affected
+ * cached versions are recomputed and published together. While the watcher runs the digest cache
+ * skips per-request revalidation, so rendering reads versions from memory and never hashes changed
+ * files itself; should the watcher fail, revalidation is switched back on.</p>
+ *
+ * <p>Register it as a bean to have it started and stopped with the application context.</p>
+ */
+public class AssetWatcher implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(AssetWatcher.class);
+
+    private static final int MAX_DEBOUNCE_INTERVALS = 10;
+
+    private final DefaultAssetResolver resolver;
+    private final Duration debounce;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+    private volatile WatchService watchService;
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    public AssetWatcher(DefaultAssetResolver resolver, Duration debounce) {
+        this.resolver = resolver;
+        this.debounce = debounce;
+    }
+
+    public static AssetWatcher from(DefaultAssetResolver resolver, AssetProperties.Watch watch) {
+        return new AssetWatcher(resolver, watch.getDebounce());
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        Path basePath = resolver.getAssetBasePath();
+        if (basePath == null) {
+            logger.info("No asset base path directory to watch, asset watcher not started");
+            return;
+        }
+        try {
+            watchService = basePath.getFileSystem().newWatchService();
+            registerRecursively(basePath, watchService);
+        } catch (IOException e) {
+            logger.warn("Unable to watch asset base path {}, versions will be revalidated on every request",
+                    basePath, e);
+            closeWatchService();
+            return;
+        }
+
+        AssetDigestCache cache = resolver.getDigestCache();
+        if (cache != null) {
+            cache.setValidateOnRead(false);
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("tad-asset-watcher").start(this::watch);
+        logger.info("Watching {} director(ies) under {} for asset changes", directories.size(), basePath);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeWatchService();
+        Thread watcherThread = thread;
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            try {
+                watcherThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+        directories.clear();
+
+        AssetDigestCache cache = resolver.getDigestCache();
+        if (cache != null) {
+            cache.setValidateOnRead(true);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch() {
+        WatchService service = watchService;
+        try {
+            while (running) {
+                Set<Path> changed = new HashSet<>();
+                Set<Path> deleted = new HashSet<>();
+                boolean overflow = collect(service.take(), service, changed, deleted);
+
+                // Debounce event storms, e.g. a bundler writing many files at once
+                long deadline = System.nanoTime() + MAX_DEBOUNCE_INTERVALS * debounce.toNanos();
+                WatchKey next;
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0
+                        && (next = service.poll(Math.min(debounce.toNanos(), remaining), TimeUnit.NANOSECONDS)) != null) {
+                    overflow |= collect(next, service, changed, deleted);
+                }
+
+                publish(changed, deleted, overflow);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped
+        } catch (RuntimeException e) {
+            logger.error("Asset watcher stopped unexpectedly, versions will be revalidated on every request", e);
+            AssetDigestCache cache = resolver.getDigestCache();
+            if (cache != null) {
+                cache.setValidateOnRead(true);
+            }
+        }
+    }
+
+    private boolean collect(WatchKey key, WatchService service, Set<Path> changed, Set<Path> deleted) {
+        Path directory = directories.get(key);
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context()).normalize();
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                try {
+                    registerRecursively(child, service);
+                } catch (IOException e) {
+                    logger.warn("Unable to watch new asset directory {}", child, e);
+                }
+            }
+            changed.add(child);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                deleted.add(child);
+            } else {
+                deleted.remove(child);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return overflow;
+    }
+
+    private void publish(Set<Path> changed, Set<Path> deleted, boolean overflow) {
+        try {
+            resolver.forgetDeleted(deleted);
+            int refreshed = overflow ? resolver.refreshAllVersions() : resolver.refreshVersions(changed);
+            if (refreshed > 0) {
+                logger.debug("Refreshed {} asset version(s) after {} file event(s)", refreshed, changed.size());
+            }
+            if (refreshed > 0 || !deleted.isEmpty()) {
+                resolver.flushDigestIndex();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh asset versions for {}", changed, e);
+        }
+    }
+
+    private void registerRecursively(Path root, WatchService service) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(service,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, dir.normalize());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void closeWatchService() {
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close asset watch service", e);
+            }
+        }
+    }
+}
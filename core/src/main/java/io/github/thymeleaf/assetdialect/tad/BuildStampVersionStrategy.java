@@ -0,0 +1,107 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Properties;
+
+/**
+ * {@link VersionStrategy} versioning every asset with one stamp of the release.
+ * The stamp never changes while the application runs, so URLs stay cacheable, and every node
+ * of a release renders the same URLs as long as the stamp comes from the build.
+ *
+ * <p>The built-in {@code build} and {@code timestamp} strategies use the {@code build.time} of
+ * {@value #BUILD_INFO_LOCATION} (written by Spring Boot's {@code buildInfo()} build task) in
+ * milliseconds, and fall back to the time the stamp was first needed when the file is missing.
+ * A stamp from elsewhere, e.g. a deployment id, can be registered as a custom strategy:</p>
+ * <pre>
+ * resolver.registerVersionStrategy(new BuildStampVersionStrategy("deploy", System.getenv("DEPLOY_ID")));
+ * </pre>
+ */
+public final class BuildStampVersionStrategy implements VersionStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(BuildStampVersionStrategy.class);
+
+    /**
+     * Classpath location of the build information the default stamp is read from.
+     */
+    public static final String BUILD_INFO_LOCATION = "META-INF/build-info.properties";
+
+    private final String name;
+    private final String stamp;
+
+    /**
+     * @param name the strategy name
+     * @param stamp the version of all assets, or {@code null} to use the build stamp
+     */
+    public BuildStampVersionStrategy(String name, String stamp) {
+        this.name = name;
+        this.stamp = stamp;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getVersion(Path file, AssetDigester digester) {
+        return getStamp();
+    }
+
+    /**
+     * Returns {@code false}: the stamp is the same for every asset.
+     */
+    @Override
+    public boolean isPerFile() {
+        return false;
+    }
+
+    /**
+     * Returns the version of all assets.
+     */
+    public String getStamp() {
+        return stamp != null ? stamp : BuildStamp.VALUE;
+    }
+
+    /**
+     * Reads the build time stamp from the build information on the given class loader.
+     *
+     * @return the build time in milliseconds, or {@code null} if there is no build information
+     */
+    static String readBuildStamp(ClassLoader classLoader) {
+        try (InputStream in = classLoader.getResourceAsStream(BUILD_INFO_LOCATION)) {
+            if (in == null) {
+                return null;
+            }
+            Properties buildInfo = new Properties();
+            buildInfo.load(in);
+            String time = buildInfo.getProperty("build.time");
+            return time != null ? String.valueOf(Instant.parse(time.trim()).toEpochMilli()) : null;
+        } catch (IOException | DateTimeParseException e) {
+            logger.warn("Failed to read build time from {}", BUILD_INFO_LOCATION, e);
+            return null;
+        }
+    }
+
+    /**
+     * Holds the build stamp, read once on first use.
+     */
+    private static final class BuildStamp {
+        static final String VALUE = initialize();
+
+        private static String initialize() {
+            String stamp = readBuildStamp(BuildStampVersionStrategy.class.getClassLoader());
+            if (stamp != null) {
+                return stamp;
+            }
+            logger.info("No build time in {}, versioning assets with the startup time; "
+                    + "URLs will differ between nodes", BUILD_INFO_LOCATION);
+            return String.valueOf(System.currentTimeMillis());
+        }
+    }
+}
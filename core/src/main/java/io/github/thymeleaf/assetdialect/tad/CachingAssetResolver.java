@@ -0,0 +1,270 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AssetResolver decorator that memoizes resolved URLs by path, CDN name and local flag.
+ *
+ * <p>Repeated resolutions return the final URL string directly, skipping validation, profile
+ * checks, CDN lookup and string building. Rejected paths are cached too: the
+ * {@link IllegalArgumentException} thrown for them the first time is rethrown as is, so repeated
+ * invalid paths neither log again nor construct new exceptions. A {@link DefaultAssetResolver}
+ * delegate is still told about each replayed rejection, so its observer counts it.</p>
+ *
+ * <p>The cache holds at most {@code maxSize} entries, evicting the oldest first, and is cleared
+ * whenever the delegate's {@linkplain AssetResolver#getGeneration() generation} changes, e.g.
+ * after asset versions were refreshed. Each entry records the generation it was resolved against
+ * and is only served for that generation.</p>
+ *
+ * <p>Cache hits don't reach the delegate, so the delegate can't notice changed asset files on
+ * its own. Without an {@link AssetWatcher} or a manifest, entries therefore expire
+ * {@code expireAfterWrite} after they were resolved ({@code tad.resolution-cache.expire-after-write}),
+ * and the next resolution revalidates the asset through the delegate's digest cache. A changed
+ * file then moves the generation and clears the whole cache.</p>
+ */
+public class CachingAssetResolver implements AssetResolver {
+
+    private final AssetResolver delegate;
+    private final int maxSize;
+    private final long expireAfterWriteNanos;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // Entries in write order; replaced and removed entries stay queued until evicted or purged
+    private final ConcurrentLinkedQueue<Entry> writeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile long generation;
+
+    /**
+     * @param delegate the resolver computing URLs on a miss
+     * @param maxSize maximum number of cached resolutions
+     */
+    public CachingAssetResolver(AssetResolver delegate, int maxSize) {
+        this(delegate, maxSize, null);
+    }
+
+    /**
+     * @param delegate the resolver computing URLs on a miss
+     * @param maxSize maximum number of cached resolutions
+     * @param expireAfterWrite how long a resolution is served before it is resolved again,
+     *                         or {@code null}/zero to keep it until the generation changes
+     */
+    public CachingAssetResolver(AssetResolver delegate, int maxSize, Duration expireAfterWrite) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache max size must be positive: " + maxSize);
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.expireAfterWriteNanos = expireAfterWrite != null && !expireAfterWrite.isNegative()
+                ? expireAfterWrite.toNanos() : 0L;
+        this.generation = delegate.getGeneration();
+    }
+
+    public static CachingAssetResolver from(AssetResolver delegate, AssetProperties.ResolutionCache settings) {
+        return new CachingAssetResolver(delegate, settings.getMaxSize(), settings.getExpireAfterWrite());
+    }
+
+    @Override
+    public String resolve(String path, String cdn, boolean forceLocal) {
+        long currentGeneration = checkGeneration();
+        Key key = new Key(path, cdn, forceLocal);
+        Entry entry = validEntry(key, currentGeneration);
+        if (entry == null) {
+            misses.increment();
+            entry = compute(key, currentGeneration);
+            // Only publish entries computed for the generation they were computed against
+            if (delegate.getGeneration() == currentGeneration) {
+                put(entry);
+                evictIfNecessary();
+            }
+            if (entry.rejection != null) {
+                throw entry.rejection;
+            }
+            return entry.url;
+        }
+
+        hits.increment();
+        if (entry.rejection != null) {
+            throw rejectedAgain(entry);
+        }
+        return entry.url;
+    }
+
+    /**
+     * Returns the cached resolution without resolving on a miss, so the call never reads asset files.
+     *
+     * @return the resolved URL, or {@code null} if it isn't cached
+     * @throws IllegalArgumentException if the path was rejected when it was resolved
+     */
+    public String getIfPresent(String path, String cdn, boolean forceLocal) {
+        Entry entry = validEntry(new Key(path, cdn, forceLocal), checkGeneration());
+        if (entry == null) {
+            return null;
+        }
+        hits.increment();
+        if (entry.rejection != null) {
+            throw rejectedAgain(entry);
+        }
+        return entry.url;
+    }
+
+    @Override
+    public String resolveUnversioned(String path, String cdn, boolean forceLocal) {
+        return delegate.resolveUnversioned(path, cdn, forceLocal);
+    }
+
+    @Override
+    public long getGeneration() {
+        return delegate.getGeneration();
+    }
+
+    /**
+     * Delegates without memoizing: the delegate already serves integrity metadata from its digest cache.
+     */
+    @Override
+    public String resolveIntegrity(String path) {
+        return delegate.resolveIntegrity(path);
+    }
+
+    @Override
+    public boolean isCdnUrl(String url) {
+        return delegate.isCdnUrl(url);
+    }
+
+    @Override
+    public boolean isUseLocal() {
+        return delegate.isUseLocal();
+    }
+
+    public AssetResolver getDelegate() {
+        return delegate;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Removes all cached resolutions.
+     */
+    public void invalidateAll() {
+        // Queue first: an entry put concurrently is then either cleared or queued
+        writeOrder.clear();
+        queued.set(0);
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private Entry compute(Key key, long currentGeneration) {
+        long now = System.nanoTime();
+        try {
+            return new Entry(key, delegate.resolve(key.path(), key.cdn(), key.forceLocal()), null,
+                    currentGeneration, now);
+        } catch (IllegalArgumentException e) {
+            return new Entry(key, null, e, currentGeneration, now);
+        }
+    }
+
+    /**
+     * Returns the cached rejection to rethrow, reporting it to a {@link DefaultAssetResolver}
+     * delegate so rejection metrics count replays like fresh rejections.
+     */
+    private IllegalArgumentException rejectedAgain(Entry entry) {
+        if (delegate instanceof DefaultAssetResolver resolver) {
+            resolver.rejectedAgain(entry.key.path());
+        }
+        return entry.rejection;
+    }
+
+    /**
+     * Returns the entry of the key if it was resolved against the current generation and hasn't
+     * expired, otherwise {@code null}.
+     */
+    private Entry validEntry(Key key, long currentGeneration) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.generation != currentGeneration
+                || (expireAfterWriteNanos > 0 && System.nanoTime() - entry.writtenAt >= expireAfterWriteNanos)) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Clears the cache if the delegate's generation changed.
+     *
+     * @return the current generation
+     */
+    private long checkGeneration() {
+        long currentGeneration = delegate.getGeneration();
+        if (currentGeneration != generation) {
+            invalidateAll(currentGeneration);
+        }
+        return currentGeneration;
+    }
+
+    private synchronized void invalidateAll(long currentGeneration) {
+        if (generation != currentGeneration) {
+            invalidateAll();
+            generation = currentGeneration;
+        }
+    }
+
+    private void put(Entry entry) {
+        entries.put(entry.key, entry);
+        writeOrder.add(entry);
+        if (queued.incrementAndGet() > 2 * maxSize) {
+            // Drop entries that were replaced or removed, amortized over maxSize writes
+            writeOrder.removeIf(queuedEntry -> entries.get(queuedEntry.key) != queuedEntry);
+            queued.set(writeOrder.size());
+        }
+    }
+
+    /**
+     * Evicts the oldest entries in write order, in constant time per evicted entry.
+     */
+    private void evictIfNecessary() {
+        while (entries.size() > maxSize) {
+            Entry oldest = writeOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            entries.remove(oldest.key, oldest);
+        }
+    }
+
+    private record Key(String path, String cdn, boolean forceLocal) {
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final String url;
+        private final IllegalArgumentException rejection;
+        private final long generation;
+        private final long writtenAt;
+
+        private Entry(Key key, String url, IllegalArgumentException rejection, long generation, long writtenAt) {
+            this.key = key;
+            this.url = url;
+            this.rejection = rejection;
+            this.generation = generation;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The base URLs of one CDN, normalized without a trailing slash.
+ *
+ * <p>A CDN may list several comma-separated hostnames, e.g.
+ * {@code tad.cdns.static=https://s1.example.com,https://s2.example.com}, to spread requests of
+ * HTTP/1.1 clients and origin pulls across hosts. Each asset path is then assigned one host by
+ * rendezvous (highest random weight) hashing: every host scores the path with a stable 64-bit hash
+ * and the highest score wins. The same asset always maps to the same host, so its URL stays
+ * cacheable, and removing a host only remaps the assets that were assigned to it. Scores don't
+ * depend on the order in which hosts are listed.</p>
+ */
+public final class CdnHosts {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final String[] baseUrls;
+    private final long[] seeds;
+
+    private CdnHosts(String[] baseUrls) {
+        this.baseUrls = baseUrls;
+        this.seeds = new long[baseUrls.length];
+        for (int i = 0; i < baseUrls.length; i++) {
+            seeds[i] = mix(hash(baseUrls[i], 0));
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of base URLs, ignoring blank and duplicate entries.
+     *
+     * @return the hosts, or {@code null} if the value lists no base URL
+     */
+    public static CdnHosts parse(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        Set<String> baseUrls = new LinkedHashSet<>();
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(value)) {
+            String baseUrl = candidate.trim();
+            if (baseUrl.endsWith("/")) {
+                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+            }
+            if (!baseUrl.isEmpty()) {
+                baseUrls.add(baseUrl);
+            }
+        }
+        return baseUrls.isEmpty() ? null : new CdnHosts(baseUrls.toArray(String[]::new));
+    }
+
+    /**
+     * Returns the base URL the asset path is assigned to. A leading slash of the path is ignored.
+     */
+    public String select(String path) {
+        if (baseUrls.length == 1) {
+            return baseUrls[0];
+        }
+        long key = hash(path, path.startsWith("/") ? 1 : 0);
+        int selected = 0;
+        long selectedScore = mix(key ^ seeds[0]);
+        for (int i = 1; i < baseUrls.length; i++) {
+            long score = mix(key ^ seeds[i]);
+            if (score > selectedScore || (score == selectedScore && baseUrls[i].compareTo(baseUrls[selected]) < 0)) {
+                selected = i;
+                selectedScore = score;
+            }
+        }
+        return baseUrls[selected];
+    }
+
+    /**
+     * Returns the first listed base URL.
+     */
+    public String getPrimary() {
+        return baseUrls[0];
+    }
+
+    public List<String> getBaseUrls() {
+        return List.of(baseUrls);
+    }
+
+    public boolean isSharded() {
+        return baseUrls.length > 1;
+    }
+
+    /**
+     * Returns whether the URL starts with one of the base URLs.
+     */
+    public boolean contains(String url) {
+        for (String baseUrl : baseUrls) {
+            if (url.startsWith(baseUrl)
+                    && (url.length() == baseUrl.length() || url.charAt(baseUrl.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units of the value, stable across JVMs and restarts.
+     */
+    private static long hash(String value, int from) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 finalizer, spreading the combined path and host hash over all 64 bits.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB93FE53A87EBL;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", baseUrls);
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Path rules assigning assets without an explicit {@code tad:cdn} to a named CDN
+ * ({@code tad.routing.rules.*}), e.g.
+ *
+ * <pre>
+ * tad.routing.rules.images=/img/**,/media/**
+ * tad.routing.rules.fonts=woff2,woff
+ * </pre>
+ *
+ * <p>A pattern containing a slash matches the assets below that directory, any other pattern is a
+ * file extension (a leading {@code *.} is allowed). The rules are compiled once per snapshot into a
+ * prefix trie and an extension table, so {@link #match(String)} walks the path once and evaluates
+ * no patterns. The longest matching directory wins; extension rules apply to paths no directory rule
+ * matches. Rules naming an unknown CDN or using other wildcards are ignored with a warning.</p>
+ */
+public final class CdnRules {
+
+    private static final Logger logger = LoggerFactory.getLogger(CdnRules.class);
+
+    private final Node root;
+    private final Map<String, String> extensions;
+    private final int size;
+
+    private CdnRules(Node root, Map<String, String> extensions, int size) {
+        this.root = root;
+        this.extensions = extensions;
+        this.size = size;
+    }
+
+    /**
+     * Compiles the rules of {@code tad.routing.rules}.
+     *
+     * @param rules comma-separated patterns per CDN name
+     * @param cdns the names of the configured CDNs
+     * @return the compiled rules, or {@code null} if no valid rule is configured
+     */
+    public static CdnRules compile(Map<String, String> rules, Set<String> cdns) {
+        if (rules == null || rules.isEmpty()) {
+            return null;
+        }
+        Node root = new Node();
+        Map<String, String> extensions = new HashMap<>();
+        int size = 0;
+        for (Map.Entry<String, String> rule : rules.entrySet()) {
+            String cdn = rule.getKey();
+            if (cdn == null || !cdns.contains(cdn)) {
+                logger.warn("Ignoring routing rules for unknown CDN '{}'", cdn);
+                continue;
+            }
+            if (rule.getValue() == null) {
+                continue;
+            }
+            for (String candidate : StringUtils.commaDelimitedListToStringArray(rule.getValue())) {
+                String pattern = candidate.trim();
+                if (pattern.isEmpty()) {
+                    continue;
+                }
+                String previous;
+                if (pattern.indexOf('/') >= 0) {
+                    String prefix = directoryPrefix(pattern);
+                    if (prefix == null) {
+                        logger.warn("Ignoring unsupported routing rule '{}' for CDN '{}'", pattern, cdn);
+                        continue;
+                    }
+                    previous = root.insert(prefix, cdn);
+                } else {
+                    String extension = pattern.startsWith("*.") ? pattern.substring(2)
+                            : pattern.startsWith(".") ? pattern.substring(1) : pattern;
+                    if (extension.isEmpty() || extension.indexOf('*') >= 0 || extension.indexOf('.') >= 0) {
+                        logger.warn("Ignoring unsupported routing rule '{}' for CDN '{}'", pattern, cdn);
+                        continue;
+                    }
+                    previous = extensions.put(extension.toLowerCase(Locale.ROOT), cdn);
+                }
+                if (previous != null && !previous.equals(cdn)) {
+                    logger.warn("Routing rule '{}' of CDN '{}' overrides CDN '{}'", pattern, cdn, previous);
+                }
+                size++;
+            }
+        }
+        return size > 0 ? new CdnRules(root, Map.copyOf(extensions), size) : null;
+    }
+
+    /**
+     * Returns the trie key of a directory pattern, e.g. {@code img/} for {@code /img/**}, or
+     * {@code null} if the pattern uses other wildcards.
+     */
+    private static String directoryPrefix(String pattern) {
+        String prefix = pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 2) : pattern;
+        if (prefix.indexOf('*') >= 0) {
+            return null;
+        }
+        int start = prefix.startsWith("/") ? 1 : 0;
+        prefix = prefix.substring(start);
+        return prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + '/';
+    }
+
+    /**
+     * Returns the CDN name the asset path is assigned to, or {@code null} if no rule matches. A
+     * leading slash of the path is ignored.
+     */
+    public String match(String path) {
+        int length = path.length();
+        int i = path.startsWith("/") ? 1 : 0;
+        String matched = root.cdn;
+        Node node = root;
+        int lastSlash = i - 1;
+        int dot = -1;
+        for (; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '?' || c == '#') {
+                break;
+            }
+            if (c == '/') {
+                lastSlash = i;
+                dot = -1;
+            } else if (c == '.') {
+                dot = i;
+            }
+            if (node != null) {
+                node = node.child(c);
+                if (node != null && node.cdn != null) {
+                    matched = node.cdn;
+                }
+            }
+        }
+        if (matched != null || dot <= lastSlash + 1 || extensions.isEmpty()) {
+            return matched;
+        }
+        return extensions.get(path.substring(dot + 1, i).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the number of compiled patterns.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Trie node with its children in a sorted array, looked up by binary search without boxing.
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private String cdn; // set if a directory rule ends here
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        /**
+         * Adds a directory rule below this node and returns the CDN it replaced, if any.
+         */
+        private String insert(String prefix, String cdn) {
+            Node node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                int index = Arrays.binarySearch(node.keys, c);
+                if (index < 0) {
+                    index = -index - 1;
+                    node.keys = insertAt(node.keys, index, c);
+                    node.children = insertAt(node.children, index, new Node());
+                }
+                node = node.children[index];
+            }
+            String previous = node.cdn;
+            node.cdn = cdn;
+            return previous;
+        }
+
+        private static char[] insertAt(char[] array, int index, char value) {
+            char[] copy = Arrays.copyOf(array, array.length + 1);
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+            copy[index] = value;
+            return copy;
+        }
+
+        private static Node[] insertAt(Node[] array, int index, Node value) {
+            Node[] copy = Arrays.copyOf(array, array.length + 1);
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+            copy[index] = value;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Assets of a {@code classpath:} asset base path (e.g. {@code tad.asset-base-path=classpath:static}),
+ * located once when the resolver configuration is compiled.
+ *
+ * <p>On an exploded classpath the location is a {@linkplain #getDirectory() directory}, and assets
+ * are versioned by hashing files like any other asset base path. Inside a JAR, including a Spring
+ * Boot fat JAR, the version of every asset comes from the CRC-32 and size its entry records in the
+ * ZIP central directory: the scan reads the central directory only, never the content of an entry,
+ * and nothing is decompressed. Entries of JARs nested in {@code BOOT-INF/lib} are not indexed.</p>
+ */
+public final class ClasspathAssets {
+    private static final Logger logger = LoggerFactory.getLogger(ClasspathAssets.class);
+
+    /**
+     * Prefix of asset base paths located on the classpath.
+     */
+    public static final String PREFIX = "classpath:";
+
+    private static final ClasspathAssets NONE = new ClasspathAssets(null, Map.of());
+
+    private final Path directory;
+    private final Map<String, String> entryVersions;
+
+    private ClasspathAssets(Path directory, Map<String, String> entryVersions) {
+        this.directory = directory;
+        this.entryVersions = entryVersions;
+    }
+
+    /**
+     * Returns whether the asset base path is a classpath location.
+     */
+    public static boolean isClasspathLocation(String location) {
+        return location != null && location.startsWith(PREFIX);
+    }
+
+    /**
+     * Locates a classpath location and, if it lies inside a JAR, indexes the versions of its entries.
+     * Failures are logged and leave the assets unversioned.
+     *
+     * @param location the location, e.g. {@code classpath:static}
+     */
+    public static ClasspathAssets scan(String location, ClassLoader classLoader) {
+        String name = location.substring(PREFIX.length());
+        name = name.startsWith("/") ? name.substring(1) : name;
+        name = name.isEmpty() || name.endsWith("/") ? name : name + "/";
+        URL url = classLoader.getResource(name);
+        if (url == null) {
+            logger.warn("Asset base path {} not found on the classpath, assets are left unversioned", location);
+            return NONE;
+        }
+
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return new ClasspathAssets(Paths.get(url.toURI()).normalize(), Map.of());
+            }
+            if ("jar".equals(url.getProtocol())) {
+                return scanJar(url.toString().substring("jar:".length()), location);
+            }
+            logger.warn("Unsupported classpath location {} for asset base path {}, assets are left unversioned",
+                    url, location);
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            logger.warn("Failed to index asset base path {}, assets are left unversioned", location, e);
+        }
+        return NONE;
+    }
+
+    /**
+     * Indexes the entries below a JAR location, either {@code file:/app.jar!/static/} or a Spring
+     * Boot fat JAR location such as {@code nested:/app.jar/!BOOT-INF/classes/!/static/}.
+     */
+    private static ClasspathAssets scanJar(String jarLocation, String location) throws IOException, URISyntaxException {
+        Path jarFile;
+        String entryPath;
+        if (jarLocation.startsWith("nested:")) {
+            int separator = jarLocation.indexOf("/!");
+            jarFile = Paths.get(new URI("file:" + jarLocation.substring("nested:".length(), separator)));
+            entryPath = jarLocation.substring(separator + 2);
+        } else {
+            int separator = jarLocation.indexOf("!/");
+            jarFile = Paths.get(new URI(jarLocation.substring(0, separator)));
+            entryPath = jarLocation.substring(separator + 2);
+        }
+        if (entryPath.contains(".jar!")) {
+            logger.warn("Asset base path {} lies in a nested JAR, assets are left unversioned", location);
+            return NONE;
+        }
+        // BOOT-INF/classes!/static/ and BOOT-INF/classes/!/static/ both name BOOT-INF/classes/static/
+        String prefix = entryPath.replace("!/", "/").replace("//", "/");
+
+        Map<String, String> versions = new HashMap<>();
+        try (ZipFile zip = new ZipFile(jarFile.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().startsWith(prefix) || entry.getCrc() < 0) {
+                    continue;
+                }
+                String logicalPath = entry.getName().substring(prefix.length());
+                if (AssetPathValidator.validate(logicalPath) == null) {
+                    versions.put(logicalPath, version(entry.getCrc(), entry.getSize()));
+                }
+            }
+        }
+        logger.debug("Indexed {} asset(s) of {} from the central directory of {}", versions.size(), location, jarFile);
+        return new ClasspathAssets(null, Collections.unmodifiableMap(versions));
+    }
+
+    /**
+     * Combines the CRC-32 and size of an entry into a 16 hex character version, CRC first so
+     * truncated versions keep the checksum.
+     */
+    static String version(long crc, long size) {
+        return String.format("%08x%08x", crc & 0xffffffffL, size & 0xffffffffL);
+    }
+
+    /**
+     * Returns the directory of an exploded classpath location, or {@code null} if the assets lie
+     * inside a JAR or weren't found.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the version of a JAR entry below the location, or {@code null} if there is none.
+     *
+     * @param logicalPath the path relative to the location, without a leading slash
+     */
+    public String getVersion(String logicalPath) {
+        return entryVersions.get(logicalPath);
+    }
+
+    /**
+     * Returns the number of indexed JAR entries.
+     */
+    public int size() {
+        return entryVersions.size();
+    }
+}
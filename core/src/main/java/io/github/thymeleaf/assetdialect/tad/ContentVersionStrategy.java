@@ -0,0 +1,61 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Version strategy deriving the version from the file content.
+ * The content is streamed through the {@link AssetDigester} into a {@link Fingerprint}
+ * and rendered as lowercase hex, truncated to the strategy's default length.
+ * Versions of content strategies are cached by {@link DefaultAssetResolver} per file.
+ */
+public class ContentVersionStrategy implements VersionStrategy {
+
+    private final String name;
+    private final int defaultLength;
+    private final Supplier<Fingerprint> fingerprints;
+
+    /**
+     * @param name the strategy name
+     * @param defaultLength the number of hex characters used when no version length is configured
+     * @param fingerprints creates a fresh fingerprint for each file
+     */
+    public ContentVersionStrategy(String name, int defaultLength, Supplier<Fingerprint> fingerprints) {
+        this.name = name;
+        this.defaultLength = defaultLength;
+        this.fingerprints = fingerprints;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public int getDefaultLength() {
+        return defaultLength;
+    }
+
+    /**
+     * Creates a fingerprint for one file.
+     */
+    public Fingerprint newFingerprint() {
+        return fingerprints.get();
+    }
+
+    @Override
+    public String getVersion(Path file, AssetDigester digester) throws IOException {
+        Fingerprint fingerprint = newFingerprint();
+        digester.update(file, fingerprint);
+        return format(fingerprint.digest());
+    }
+
+    /**
+     * Renders fingerprint bytes as the version string.
+     */
+    public String format(byte[] digest) {
+        String hex = HexFormat.of().formatHex(digest);
+        return defaultLength > 0 && hex.length() > defaultLength ? hex.substring(0, defaultLength) : hex;
+    }
+}
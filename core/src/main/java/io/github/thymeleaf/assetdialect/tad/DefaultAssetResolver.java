@@ -3,14 +3,18 @@ package io.github.thymeleaf.assetdialect.tad;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
-import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Default implementation of AssetResolver.
@@ -19,330 +23,648 @@ import java.util.Map;
  */
 public class DefaultAssetResolver implements AssetResolver {
     private static final Logger logger = LoggerFactory.getLogger(DefaultAssetResolver.class);
+    private static final int MAX_ASSET_FILES = 10_000;
     
-    private final AssetProperties properties;
     private final Environment environment;
+    private final AssetDigestCache digestCache;
+    private final AssetDigester digester;
+    private final Path digestIndexFile;
+    private final Map<String, VersionStrategy> versionStrategies = new ConcurrentHashMap<>(VersionStrategies.discover());
+    private final AtomicLong configGeneration = new AtomicLong();
+    private volatile AssetProperties properties;
+    private volatile ResolverSnapshot snapshot;
+    private volatile ResolutionObserver observer;
+    private volatile AssetBundles bundles = AssetBundles.empty();
+    private volatile AssetDigestIndex digestIndex;
+    private volatile AssetFiles assetFiles = new AssetFiles(null);
 
     public DefaultAssetResolver(AssetProperties properties, Environment environment) {
         this.properties = properties;
         this.environment = environment;
+        AssetProperties.Caching caching = properties.getCaching();
+        this.digestCache = caching != null && caching.isEnabled() ? AssetDigestCache.from(caching) : null;
+        this.digestIndexFile = digestCache != null && StringUtils.hasText(caching.getIndexLocation())
+                ? Paths.get(caching.getIndexLocation()) : null;
+        AssetProperties.Hashing hashing = properties.getHashing();
+        this.digester = hashing != null ? AssetDigester.from(hashing) : new AssetDigester();
+    }
+
+    /**
+     * Returns the digest cache used for hash versioning, or {@code null} when caching is disabled.
+     */
+    public AssetDigestCache getDigestCache() {
+        return digestCache;
+    }
+
+    AssetDigester getDigester() {
+        return digester;
+    }
+
+    /**
+     * Sets the observer notified of every resolution, or {@code null} to remove it.
+     */
+    void setObserver(ResolutionObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Sets the built asset bundles. Bundle files are versioned with the digest recorded when
+     * they were built instead of being hashed or looked up like other assets.
+     */
+    public void setBundles(AssetBundles bundles) {
+        this.bundles = bundles != null ? bundles : AssetBundles.empty();
+        configGeneration.incrementAndGet();
+    }
+
+    /**
+     * Registers a custom version strategy, selectable through {@code tad.version-strategy}.
+     * A strategy with the same name as an existing one replaces it.
+     */
+    public void registerVersionStrategy(VersionStrategy strategy) {
+        versionStrategies.put(strategy.getName(), strategy);
+        refresh();
+    }
+
+    /**
+     * Returns the configuration resolutions currently run against, compiling it on first use.
+     */
+    public ResolverSnapshot getSnapshot() {
+        ResolverSnapshot current = snapshot;
+        return current != null ? current : compileSnapshot();
+    }
+
+    private synchronized ResolverSnapshot compileSnapshot() {
+        if (snapshot == null) {
+            snapshot = compile(properties);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Recompiles the configuration from the current properties and active profiles, e.g. after
+     * they were rebound, and swaps it in atomically. Resolutions in progress finish against the
+     * previous configuration.
+     */
+    public void refresh() {
+        refresh(properties);
+    }
+
+    /**
+     * Compiles the given properties and swaps them in atomically, replacing the properties
+     * this resolver was created with.
+     */
+    public synchronized void refresh(AssetProperties source) {
+        ResolverSnapshot previous = snapshot;
+        ResolverSnapshot next = compile(source);
+        properties = source;
+        snapshot = next;
+        configGeneration.incrementAndGet();
+        if (digestCache != null && previous != null
+                && (previous.getVersionStrategy() != next.getVersionStrategy()
+                || previous.getIntegrity() != next.getIntegrity()
+                || !Objects.equals(previous.getAssetBasePath(), next.getAssetBasePath()))) {
+            // Cached digests were computed by other algorithms or for other files
+            digestCache.invalidateAll();
+        }
+        logger.debug("Asset resolver configuration refreshed");
+    }
+
+    private ResolverSnapshot compile(AssetProperties source) {
+        ResolverSnapshot compiled = ResolverSnapshot.compile(source, environment, versionStrategies, this::digestLoader);
+        if (compiled.isVersionAssets() && compiled.getVersionStrategy() == null) {
+            logger.warn("Unknown version strategy '{}', assets are left unversioned", compiled.getVersionStrategyName());
+        }
+        VersionStrategy strategy = compiled.getVersionStrategy();
+        if (compiled.getVersionLength() > 0 && strategy != null && strategy.isPerFile()
+                && !(strategy instanceof ContentVersionStrategy)) {
+            logger.warn("Version strategy '{}' is shortened to its first {} characters, which may not change with the file",
+                    strategy.getName(), compiled.getVersionLength());
+        }
+        AssetProperties.Integrity integrity = source.getIntegrity();
+        if (integrity != null && integrity.isEnabled() && compiled.getIntegrity() == null) {
+            logger.warn("Unsupported integrity algorithm '{}', integrity metadata is disabled", integrity.getAlgorithm());
+        }
+        return compiled;
+    }
+
+    /**
+     * Creates the loader computing the version and the integrity metadata of files below the base
+     * path. Content versions and integrity metadata come from a single read of the file; with a
+     * persistent digest index, files whose size and last-modified time are unchanged since they were
+     * indexed aren't read. Versions of other per-file strategies, e.g. {@code lastmodified}, are
+     * computed by the strategy after the same containment check.
+     */
+    private AssetDigestCache.DigestLoader digestLoader(VersionStrategy strategy, AssetIntegrity integrity,
+                                                       Path basePath) {
+        ContentVersionStrategy contentStrategy = strategy instanceof ContentVersionStrategy content ? content : null;
+        AssetDigestIndex index = contentStrategy != null || integrity != null
+                ? digestIndex(contentStrategy, integrity, basePath) : null;
+        return new AssetDigestCache.DigestLoader() {
+            @Override
+            public String load(Path file) throws IOException {
+                AssetDigestCache.Digests digests = loadDigests(file);
+                return digests != null ? digests.getVersion() : null;
+            }
+
+            @Override
+            public AssetDigestCache.Digests loadDigests(Path file) throws IOException {
+                checkContained(file.toString(), file, basePath);
+                AssetDigestCache.Digests digests = contentStrategy != null || integrity != null
+                        ? contentDigests(file, index, contentStrategy, integrity) : null;
+                if (strategy == null || contentStrategy != null) {
+                    return digests;
+                }
+                String version = strategy.getVersion(file, digester);
+                String fileIntegrity = digests != null ? digests.getIntegrity() : null;
+                return version != null || fileIntegrity != null
+                        ? new AssetDigestCache.Digests(version, fileIntegrity) : null;
+            }
+
+            @Override
+            public void deleted(Path file) {
+                if (index != null) {
+                    index.forget(file);
+                }
+            }
+        };
+    }
+
+    private AssetDigestCache.Digests contentDigests(Path file, AssetDigestIndex index, ContentVersionStrategy strategy,
+                                                    AssetIntegrity integrity) throws IOException {
+        if (index == null) {
+            return digestFile(file, strategy, integrity);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        AssetDigestCache.Digests digests = index.lookup(file, attributes);
+        if (digests == null) {
+            digests = digestFile(file, strategy, integrity);
+            index.record(file, attributes, digests);
+        }
+        return digests;
+    }
+
+    /**
+     * Returns the persistent digest index for the given algorithms and base path, reopening it
+     * when they changed, or {@code null} if no index is configured.
+     */
+    private AssetDigestIndex digestIndex(ContentVersionStrategy strategy, AssetIntegrity integrity, Path basePath) {
+        if (digestIndexFile == null) {
+            return null;
+        }
+        String scheme = AssetDigestIndex.scheme(strategy, integrity);
+        AssetDigestIndex index = digestIndex;
+        if (index == null || !index.getRoot().equals(basePath) || !index.getScheme().equals(scheme)) {
+            index = AssetDigestIndex.open(digestIndexFile, basePath, scheme);
+            digestIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Writes digests computed since the persistent digest index ({@code tad.caching.index-location})
+     * was last written, so the next start doesn't hash the same files again. Called after pre-warming,
+     * after watched files changed and on shutdown.
+     *
+     * @return {@code true} if the index file was written
+     */
+    public boolean flushDigestIndex() {
+        AssetDigestIndex index = digestIndex;
+        return index != null && index.flush();
+    }
+
+    /**
+     * Returns the persistent digest index, or {@code null} if none is configured or no digests
+     * were loaded yet.
+     */
+    public AssetDigestIndex getDigestIndex() {
+        return digestIndex;
+    }
+
+    /**
+     * Changes whenever the configuration is refreshed, version strategies are registered or
+     * cached asset versions are refreshed or invalidated.
+     */
+    @Override
+    public long getGeneration() {
+        return configGeneration.get() + (digestCache != null ? digestCache.getGeneration() : 0L);
+    }
+
+    /**
+     * Recomputes the cached content versions affected by changes to the given files or directories
+     * and publishes them together. Runs in the calling thread.
+     *
+     * @return the number of cached versions refreshed or removed
+     */
+    int refreshVersions(Collection<Path> changed) {
+        return refreshCachedVersions(changed);
+    }
+
+    /**
+     * Drops the deleted files or directories from the persistent digest index, so flushing it
+     * never has to check which indexed files still exist.
+     */
+    void forgetDeleted(Collection<Path> deleted) {
+        AssetDigestIndex index = digestIndex;
+        if (index != null) {
+            deleted.forEach(index::forget);
+        }
+    }
+
+    /**
+     * Recomputes all cached content versions. Runs in the calling thread.
+     *
+     * @return the number of cached versions refreshed or removed
+     */
+    int refreshAllVersions() {
+        return refreshCachedVersions(null);
+    }
+
+    private int refreshCachedVersions(Collection<Path> changed) {
+        AssetDigestCache.DigestLoader loader = cachedVersionLoader();
+        if (loader == null) {
+            return 0;
+        }
+        return changed != null ? digestCache.refresh(changed, loader) : digestCache.refreshAll(loader);
+    }
+
+    /**
+     * Computes and caches the content version of a file below the asset base path,
+     * e.g. to pre-warm the cache. Runs in the calling thread.
+     *
+     * @param file a file below {@link #getAssetBasePath()}
+     * @return the number of bytes hashed, zero if the version was cached or served from the digest
+     * index, or {@code -1} if versions are not cached
+     */
+    long warmVersion(Path file) throws IOException {
+        AssetDigestCache.DigestLoader loader = cachedVersionLoader();
+        if (loader == null) {
+            return -1;
+        }
+        long before = digester.getThreadBytesRead();
+        return digestCache.getDigests(file, loader) != null ? digester.getThreadBytesRead() - before : -1;
+    }
+
+    /**
+     * Returns the loader for cached content versions, or {@code null} when versions aren't cached.
+     */
+    private AssetDigestCache.DigestLoader cachedVersionLoader() {
+        return digestCache != null ? getSnapshot().getDigestLoader() : null;
+    }
+
+    /**
+     * Returns the normalized asset base path that cached versions are keyed under.
+     */
+    Path getAssetBasePath() {
+        return getSnapshot().getAssetBasePath();
     }
 
     @Override
     public String resolve(String path, String cdn, boolean forceLocal) {
-        if (!properties.isEnabled()) {
-            return path;
+        return resolve(path, cdn, forceLocal, true);
+    }
+
+    /**
+     * Resolves like {@link #resolve(String, String, boolean)} but never versions the URL, so no asset
+     * file is read.
+     */
+    @Override
+    public String resolveUnversioned(String path, String cdn, boolean forceLocal) {
+        return resolve(path, cdn, forceLocal, false);
+    }
+
+    private String resolve(String path, String cdn, boolean forceLocal, boolean versioned) {
+        ResolverSnapshot config = getSnapshot();
+        ResolutionObserver observer = this.observer;
+        long start = observer != null ? System.nanoTime() : 0L;
+        if (!config.isEnabled()) {
+            return observed(observer, ResolutionObserver.Mode.PASSTHROUGH, cdn, start, path);
         }
 
         // Validate input path for security
-        if (!isValidAssetPath(path)) {
+        AssetPathValidator.Violation violation = AssetPathValidator.check(path);
+        if (violation != null) {
             logger.warn("Security violation: Invalid asset path detected - {}", path);
+            if (observer != null) {
+                observer.rejected(violation);
+            }
             throw new IllegalArgumentException("Invalid asset path: " + path);
         }
 
-        
-
         // Check if we should use local path
-        if (shouldUseLocal(forceLocal)) {
-            return resolveLocal(path);
+        if (forceLocal || config.isUseLocal()) {
+            return observed(observer, ResolutionObserver.Mode.LOCAL, cdn, start, resolveLocal(config, path, versioned));
         }
 
-        // Resolve CDN URL
-        String cdnUrl = resolveCdnUrl(cdn);
-        if (!StringUtils.hasText(cdnUrl)) {
-            return path;
+        // Resolve CDN URL, applying path rules unless a CDN is given
+        cdn = config.getCdnName(cdn, path);
+        String cdnUrl = config.getCdnUrl(cdn, path);
+        if (cdnUrl == null) {
+            return observed(observer, ResolutionObserver.Mode.PASSTHROUGH, cdn, start, path);
         }
 
-        // Add version if enabled
-        String versionedPath = addVersionIfNeeded(path);
-
-        // Combine CDN URL with path
-        return combinePaths(cdnUrl, versionedPath);
+        // Combine CDN URL with the path, versioned if enabled, in a single allocation
+        String url = buildUrl(cdnUrl, path, versioned ? versionIfNeeded(config, path) : null);
+        return observed(observer, ResolutionObserver.Mode.CDN, cdn, start, url);
     }
 
-    private boolean shouldUseLocal(boolean forceLocal) {
-        if (forceLocal) {
-            return true;
+    private static String observed(ResolutionObserver observer, ResolutionObserver.Mode mode, String cdn,
+                                   long start, String resolved) {
+        if (observer != null) {
+            observer.resolved(mode, cdn, System.nanoTime() - start);
         }
+        return resolved;
+    }
 
-        return properties.isUseLocalInDev() && isDevelopmentEnvironment();
+    private String resolveLocal(ResolverSnapshot config, String path, boolean versioned) {
+        String localPath = config.getLocalPath();
+        String resolvedPath = localPath != null ? combinePaths(localPath, path) : path;
+        return versioned ? addVersionIfNeeded(config, resolvedPath) : resolvedPath;
     }
 
-    private boolean isDevelopmentEnvironment() {
-        for (String profile : environment.getActiveProfiles()) {
-            if (profile.equalsIgnoreCase("dev") || profile.equalsIgnoreCase("development")) {
-                return true;
-            }
+    private String addVersionIfNeeded(ResolverSnapshot config, String path) {
+        String version = versionIfNeeded(config, path);
+        return version != null ? insertVersion(path, version) : path;
+    }
+
+    /**
+     * Returns the version {@link #resolve(String, String, boolean)} currently embeds in URLs of the
+     * given asset path, e.g. to check the version of a requested fingerprinted URL.
+     *
+     * @param path an asset path relative to the asset base directory or the local path
+     * @return the version, or {@code null} if the asset is left unversioned or the path is invalid
+     */
+    public String getVersion(String path) {
+        ResolverSnapshot config = getSnapshot();
+        if (!config.isEnabled() || validate(path) != null) {
+            return null;
         }
-        return environment.getActiveProfiles().length == 0; // Consider default as dev
+        return versionIfNeeded(config, path);
     }
 
-    private String resolveLocal(String path) {
-        String localPath = properties.getLocalPath();
-        String resolvedPath = StringUtils.hasText(localPath) ? combinePaths(localPath, path) : path;
-        return addVersionIfNeeded(resolvedPath);
+    /**
+     * Validates an asset path without logging, reporting a rejection to the observer like
+     * {@link #resolve(String, String, boolean)} does.
+     *
+     * @return the reason the path is rejected, or {@code null} if it is valid
+     */
+    AssetPathValidator.Violation validate(String path) {
+        AssetPathValidator.Violation violation = AssetPathValidator.validate(path);
+        ResolutionObserver observer = this.observer;
+        if (violation != null && observer != null) {
+            observer.rejected(violation);
+        }
+        return violation;
     }
 
-    private String resolveCdnUrl(String cdnName) {
-        if (StringUtils.hasText(cdnName)) {
-            Map<String, String> cdns = properties.getCdns();
-            return cdns != null ? cdns.get(cdnName) : null;
+    /**
+     * Reports a rejection of the path that a cache replayed instead of resolving it again, without
+     * validating the path unless an observer is set.
+     */
+    void rejectedAgain(String path) {
+        if (observer != null) {
+            validate(path);
         }
-        return properties.getDefaultCdn();
     }
 
-    private String addVersionIfNeeded(String path) {
-        if (!properties.isVersionAssets()) {
-            return path;
+    private String versionIfNeeded(ResolverSnapshot config, String path) {
+        if (!config.isVersionAssets()) {
+            return null;
         }
 
         try {
-            String version;
-            if ("hash".equals(properties.getVersionStrategy())) {
-                version = calculateFileHash(path);
-            } else {
-                version = String.valueOf(System.currentTimeMillis());
-            }
-
-            if (version != null) {
-                String extension = StringUtils.getFilenameExtension(path);
-                String basePath = StringUtils.stripFilenameExtension(path);
-                return basePath + "." + version + (extension != null ? "." + extension : "");
+            AssetBundles currentBundles = bundles;
+            if (!currentBundles.isEmpty()) {
+                AssetBundles.Bundle bundle = currentBundles.getByPath(config.toRelativeAssetPath(path));
+                if (bundle != null && bundle.getDigest() != null) {
+                    return truncateVersion(config, bundle.getDigest());
+                }
             }
+            return resolveVersion(config, path);
         } catch (Exception e) {
             // If versioning fails, return original path
+            return null;
         }
+    }
 
-        return path;
+    /**
+     * Returns the version to embed in the given web-facing path, or {@code null} to leave it unversioned.
+     *
+     * @param config the configuration the current resolution runs against
+     */
+    protected String resolveVersion(ResolverSnapshot config, String path) {
+        VersionStrategy strategy = config.getVersionStrategy();
+        return strategy != null ? calculateVersion(config, path, strategy) : null;
     }
 
-    private String calculateFileHash(String path) {
-        try {
-            // The 'path' here is a web-facing path (e.g., "/assets/test.css" or "image.jpg").
-            // We need to convert it to a file system path relative to assetBasePath.
-
-            String configuredBasePath = properties.getAssetBasePath();
-            Path basePath = Paths.get(configuredBasePath).normalize();
-
-            // If the path starts with the localPath (e.g., "/assets"), remove it.
-            // Otherwise, assume it's directly relative to the assetBasePath.
-            String cleanPath = path;
-            String localPathPrefix = properties.getLocalPath();
-            if (StringUtils.hasText(localPathPrefix) && path.startsWith(localPathPrefix)) {
-                cleanPath = path.substring(localPathPrefix.length());
-            }
-            // Remove leading slash if present after localPathPrefix removal
-            if (cleanPath.startsWith("/")) {
-                cleanPath = cleanPath.substring(1);
-            }
+    /**
+     * Inserts a version before the file extension, e.g. {@code css/site.css} becomes {@code css/site.<version>.css}.
+     */
+    static String insertVersion(String path, String version) {
+        return appendVersioned(new StringBuilder(path.length() + version.length() + 1), path, version).toString();
+    }
 
-            Path relativeAssetPath = Paths.get(cleanPath).normalize();
+    private static StringBuilder appendVersioned(StringBuilder target, String path, String version) {
+        if (version == null) {
+            return target.append(path);
+        }
+        int extensionIndex = path.lastIndexOf('.');
+        if (extensionIndex < 0 || path.lastIndexOf('/') > extensionIndex) {
+            return target.append(path).append('.').append(version);
+        }
+        return target.append(path, 0, extensionIndex)
+                .append('.').append(version)
+                .append(path, extensionIndex, path.length());
+    }
 
-            // Ensure no path traversal in the relative asset path itself
-            if (relativeAssetPath.toString().contains("..")) {
-                logger.error("Security violation: Path traversal attempt detected in cleanPath - {}", cleanPath);
-                throw new SecurityException("Path traversal attempt detected: " + cleanPath);
+    private String calculateVersion(ResolverSnapshot config, String path, VersionStrategy strategy) {
+        try {
+            if (!strategy.isPerFile()) {
+                return strategy.getVersion(null, digester);
             }
-
-            Path filePath = basePath.resolve(relativeAssetPath).normalize();
-
-            // Ensure the resolved path stays within the base directory
-            if (!isPathContainedWithin(filePath, basePath)) {
-                logger.error("Security violation: Path traversal attempt detected - {} resolved to {}",
-                           path, filePath);
-                throw new SecurityException("Path traversal attempt detected: " + path);
+            Path basePath = config.getAssetBasePath();
+            if (basePath == null) {
+                if (!(strategy instanceof ContentVersionStrategy)) {
+                    return truncateVersion(config, strategy.getVersion(null, digester));
+                }
+                // Assets inside a JAR are versioned by the CRC-32 and size of their entries
+                ClasspathAssets classpathAssets = config.getClasspathAssets();
+                return classpathAssets != null
+                        ? truncateVersion(config, classpathAssets.getVersion(config.toRelativeAssetPath(path)))
+                        : null;
             }
 
+            Path filePath = assetFile(config, path);
+            if (digestCache != null) {
+                return truncateVersion(config, digestCache.get(filePath, config.getDigestLoader()));
+            }
             if (Files.exists(filePath)) {
-                byte[] content = Files.readAllBytes(filePath);
-                return DigestUtils.md5DigestAsHex(content);
+                return truncateVersion(config, versionContainedFile(path, filePath, basePath, strategy));
             }
         } catch (SecurityException e) {
             throw e;
         } catch (Exception e) {
-            logger.debug("Failed to calculate hash for asset path: {}", path, e);
+            logger.debug("Failed to calculate version for asset path: {}", path, e);
         }
         return null;
     }
-    
+
     /**
-     * Verifies that a resolved path stays within the allowed base directory.
+     * Returns the Subresource Integrity metadata of the asset, computed with the configured
+     * {@code tad.integrity.algorithm}. With content versioning the metadata is computed in the same
+     * read pass as the version and cached next to it, so it costs no extra I/O.
+     *
+     * @return the integrity metadata, or {@code null} if integrity is disabled, no asset base path
+     * is configured, or the path is invalid or doesn't denote a readable file
      */
-    private boolean isPathContainedWithin(Path resolvedPath, Path basePath) {
+    @Override
+    public String resolveIntegrity(String path) {
+        ResolverSnapshot config = getSnapshot();
+        AssetDigestCache.DigestLoader loader = config.getDigestLoader();
+        if (!config.isEnabled() || config.getIntegrity() == null || loader == null
+                || AssetPathValidator.check(path) != null) {
+            return null;
+        }
+
         try {
-            // Get the canonical paths to handle symlinks and normalize
-            Path canonicalResolved = resolvedPath.toRealPath();
-            Path canonicalBase = basePath.toRealPath();
-            
-            // Check if the resolved path starts with the base path
-            return canonicalResolved.startsWith(canonicalBase);
-        } catch (Exception e) {
-            // If we can't resolve the paths, assume it's not contained for safety
-            return false;
+            Path filePath = assetFile(config, path);
+            AssetDigestCache.Digests digests = digestCache != null
+                    ? digestCache.getDigests(filePath, loader)
+                    : Files.exists(filePath) ? loader.loadDigests(filePath) : null;
+            return digests != null ? digests.getIntegrity() : null;
+        } catch (SecurityException | IOException e) {
+            logger.debug("Failed to calculate integrity for asset path: {}", path, e);
+            return null;
         }
     }
 
-    /**
-     * Validates that an asset path is safe and doesn't contain path traversal sequences.
-     * 
-     * @param path The asset path to validate
-     * @return true if the path is valid, false otherwise
-     */
-    private boolean isValidAssetPath(String path) {
-        if (path == null || path.trim().isEmpty()) {
-            return false;
-        }
+    @Override
+    public boolean isCdnUrl(String url) {
+        return getSnapshot().isCdnUrl(url);
+    }
 
-        // Check for path traversal sequences
-        if (containsPathTraversalSequences(path)) {
-            logger.warn("Security violation: Path traversal sequence detected in path - {}", path);
-            return false;
-        }
+    @Override
+    public boolean isUseLocal() {
+        return getSnapshot().isUseLocal();
+    }
 
-        // Check for invalid characters
-        if (containsInvalidCharacters(path)) {
-            logger.warn("Security violation: Invalid characters detected in path - {}", path);
-            return false;
+    /**
+     * Maps a web-facing path (e.g. "/assets/test.css" or "image.jpg") to the file below the asset base path.
+     */
+    private Path assetFile(ResolverSnapshot config, String path) {
+        AssetFiles files = assetFiles;
+        if (files.snapshot != config) {
+            files = new AssetFiles(config);
+            assetFiles = files;
         }
+        Path filePath = files.paths.get(path);
+        if (filePath == null) {
+            String cleanPath = config.toRelativeAssetPath(path);
 
-        // Validate file extension against whitelist
-        if (!hasValidFileExtension(path)) {
-            logger.warn("Security violation: Invalid file extension detected in path - {}", path);
-            return false;
-        }
+            Path relativeAssetPath = Paths.get(cleanPath).normalize();
 
-        // Reject absolute system paths (Windows and Unix-like)
-        try {
-            Path p = Paths.get(path);
-            if (p.isAbsolute()) {
-                // If it's an absolute path, and it doesn't start with a forward slash,
-                // it's likely a Windows absolute path (e.g., C:\...). Reject it.
-                if (!path.startsWith("/")) {
-                    logger.warn("Security violation: Absolute system path detected (Windows-style) - {}", path);
-                    return false;
-                }
-                // If it starts with a forward slash, it's a Unix-like absolute path.
-                // Reject common Unix system paths.
-                if (path.equals("/etc") || path.startsWith("/etc/") ||
-                    path.equals("/bin") || path.startsWith("/bin/") ||
-                    path.equals("/usr") || path.startsWith("/usr/") ||
-                    path.equals("/root") || path.startsWith("/root/") ||
-                    path.equals("/etc/passwd")) {
-                    logger.warn("Security violation: Common Unix system path detected - {}", path);
-                    return false;
-                }
+            // Ensure no path traversal in the relative asset path itself
+            if (relativeAssetPath.toString().contains("..")) {
+                logger.error("Security violation: Path traversal attempt detected in cleanPath - {}", cleanPath);
+                throw new SecurityException("Path traversal attempt detected: " + cleanPath);
             }
-        } catch (InvalidPathException e) {
-            logger.warn("Security violation: Invalid path format detected - {}", path, e);
 
-            return false;
-        }
-        
-        return true;
-    }
-    
-    /**
-     * Checks if the path contains path traversal sequences.
-     */
-    private boolean containsPathTraversalSequences(String path) {
-        // Normalize the path to handle different encodings
-        String normalizedPath = path.toLowerCase();
-        
-        // Check for various path traversal patterns
-        String[] traversalPatterns = {
-            "../", "..\\", "..",
-            "%2e%2e/", "%2e%2e\\", "%2e%2e",
-            "..%2f", "..%5c",
-            "%2e%2e%2f", "%2e%2e%5c",
-            "....//", "....\\\\",
-            "..%252f", "..%255c"
-        };
-        
-        for (String pattern : traversalPatterns) {
-            if (normalizedPath.contains(pattern)) {
-                return true;
+            filePath = config.getAssetBasePath().resolve(relativeAssetPath).normalize();
+            // Once full, further paths are mapped on every call rather than evicting the hot ones
+            if (files.paths.size() < MAX_ASSET_FILES) {
+                files.paths.put(path, filePath);
             }
         }
-        
-        return false;
+        return filePath;
     }
-    
+
     /**
-     * Checks if the path contains invalid characters.
+     * Computes the version of a file after ensuring it stays within the base directory.
      */
-    private boolean containsInvalidCharacters(String path) {
-        // Check for null bytes and other control characters
-        if (path.contains("\0") || path.contains("\r") || path.contains("\n")) {
-            return true;
-        }
-        
-        // Check for other potentially dangerous characters
-        char[] invalidChars = {'<', '>', '"', '|', '?', '*'};
-        for (char c : invalidChars) {
-            if (path.indexOf(c) >= 0) {
-                return true;
-            }
+    private String versionContainedFile(String path, Path filePath, Path basePath,
+                                        VersionStrategy strategy) throws IOException {
+        checkContained(path, filePath, basePath);
+        return strategy.getVersion(filePath, digester);
+    }
+
+    private AssetDigestCache.Digests digestFile(Path filePath, ContentVersionStrategy strategy,
+                                                AssetIntegrity integrity) throws IOException {
+        if (integrity == null) {
+            return new AssetDigestCache.Digests(strategy.getVersion(filePath, digester), null);
         }
-        
-        // Check for valid characters only (alphanumeric, dash, underscore, dot, slash)
-        for (char c : path.toCharArray()) {
-            if (!isValidPathCharacter(c)) {
-                return true;
-            }
+        Fingerprint integrityFingerprint = integrity.newFingerprint();
+        if (strategy == null) {
+            digester.update(filePath, integrityFingerprint);
+            return new AssetDigestCache.Digests(null, integrity.format(integrityFingerprint.digest()));
         }
-        
-        return false;
+        Fingerprint versionFingerprint = strategy.newFingerprint();
+        digester.update(filePath, versionFingerprint, integrityFingerprint);
+        return new AssetDigestCache.Digests(strategy.format(versionFingerprint.digest()),
+                integrity.format(integrityFingerprint.digest()));
     }
-    
+
+    private void checkContained(String path, Path filePath, Path basePath) {
+        if (!isPathContainedWithin(filePath, basePath)) {
+            logger.error("Security violation: Path traversal attempt detected - {} resolved to {}",
+                       path, filePath);
+            throw new SecurityException("Path traversal attempt detected: " + path);
+        }
+    }
+
     /**
-     * Checks if a character is valid for asset paths.
+     * Shortens a per-file version to {@code tad.version-length} characters, if configured.
      */
-    private boolean isValidPathCharacter(char c) {
-        return Character.isLetterOrDigit(c) || 
-               c == '/' || c == '-' || c == '_' || c == '.' || c == ' ';
+    protected static String truncateVersion(ResolverSnapshot config, String version) {
+        int length = config.getVersionLength();
+        return version != null && length > 0 && version.length() > length ? version.substring(0, length) : version;
     }
-    
+
     /**
-     * Validates that the file has an approved extension for web assets.
+     * Verifies that a resolved path stays within the allowed base directory.
      */
-    private boolean hasValidFileExtension(String path) {
-        String extension = StringUtils.getFilenameExtension(path);
-        if (extension == null) {
-            // Allow files without extensions (e.g., favicon)
-            return true;
-        }
-        
-        // Whitelist of approved file extensions for web assets
-        String[] allowedExtensions = {
-            // Images
-            "jpg", "jpeg", "png", "gif", "svg", "webp", "ico", "bmp", "tiff",
-            // Stylesheets
-            "css", "scss", "sass", "less",
-            // Scripts
-            "js", "ts", "jsx", "tsx", "mjs",
-            // Fonts
-            "woff", "woff2", "ttf", "otf", "eot",
-            // Documents
-            "pdf", "txt", "md", "json", "xml",
-            // Audio/Video
-            "mp3", "mp4", "wav", "ogg", "webm", "avi", "mov",
-            // Archives (for bundled assets)
-            "zip", "gz", "tar"
-        };
-        
-        String lowerExtension = extension.toLowerCase();
-        for (String allowed : allowedExtensions) {
-            if (lowerExtension.equals(allowed)) {
-                return true;
-            }
+    private boolean isPathContainedWithin(Path resolvedPath, Path basePath) {
+        try {
+            // Get the canonical paths to handle symlinks and normalize
+            Path canonicalResolved = resolvedPath.toRealPath();
+            Path canonicalBase = basePath.toRealPath();
+            
+            // Check if the resolved path starts with the base path
+            return canonicalResolved.startsWith(canonicalBase);
+        } catch (Exception e) {
+            // If we can't resolve the paths, assume it's not contained for safety
+            return false;
         }
-        
-        return false;
     }
 
     private String combinePaths(String base, String path) {
-        String cleanBase = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
-        String cleanPath = path.startsWith("/") ? path : "/" + path;
-        return cleanBase + cleanPath;
+        return buildUrl(base, path, null);
+    }
+
+    /**
+     * Joins base and path with exactly one slash, inserting the version (if any) before the
+     * file extension, sized up front so only the result is allocated.
+     */
+    private static String buildUrl(String base, String path, String version) {
+        int baseLength = base.endsWith("/") ? base.length() - 1 : base.length();
+        boolean addSlash = !path.startsWith("/");
+        StringBuilder url = new StringBuilder(baseLength + (addSlash ? 1 : 0) + path.length()
+                + (version != null ? version.length() + 1 : 0));
+        url.append(base, 0, baseLength);
+        if (addSlash) {
+            url.append('/');
+        }
+        return appendVersioned(url, path, version).toString();
+    }
+
+    /**
+     * Web-facing paths mapped to asset files under the base path of one snapshot. Replaced as a
+     * whole when the snapshot changes, so the snapshot itself stays immutable.
+     */
+    private static final class AssetFiles {
+        private final ResolverSnapshot snapshot;
+        private final Map<String, Path> paths = new ConcurrentHashMap<>();
+
+        private AssetFiles(ResolverSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
     }
 }
@@ -0,0 +1,57 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.zip.Checksum;
+
+/**
+ * Accumulates the content of a single asset file into a fingerprint.
+ * Instances are not thread-safe and are used for exactly one file.
+ */
+public interface Fingerprint {
+
+    /**
+     * Consumes the remaining bytes of the buffer.
+     */
+    void update(ByteBuffer data);
+
+    /**
+     * Completes the computation and returns the fingerprint bytes.
+     */
+    byte[] digest();
+
+    /**
+     * Adapts a {@link MessageDigest}.
+     */
+    static Fingerprint of(MessageDigest messageDigest) {
+        return new Fingerprint() {
+            @Override
+            public void update(ByteBuffer data) {
+                messageDigest.update(data);
+            }
+
+            @Override
+            public byte[] digest() {
+                return messageDigest.digest();
+            }
+        };
+    }
+
+    /**
+     * Adapts a 32-bit {@link Checksum} such as CRC32 or CRC32C.
+     */
+    static Fingerprint of(Checksum checksum) {
+        return new Fingerprint() {
+            @Override
+            public void update(ByteBuffer data) {
+                checksum.update(data);
+            }
+
+            @Override
+            public byte[] digest() {
+                int value = (int) checksum.getValue();
+                return new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+            }
+        };
+    }
+}
@@ -0,0 +1,266 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Spring MVC handler serving the fingerprinted asset URLs rendered by {@link DefaultAssetResolver},
+ * e.g. {@code /static/css/styles.<version>.css} for {@code css/styles.css}.
+ * The version segment is stripped and checked against {@link DefaultAssetResolver#getVersion(String)},
+ * so only the current version of an asset is served, with
+ * {@code Cache-Control: }{@value #IMMUTABLE_CACHE_CONTROL} and a strong ETag derived from the version.
+ * Requests for a stale version are answered with 404.
+ *
+ * <p>Conditional requests are answered with 304 from the version alone, without opening the file,
+ * so with a {@link ManifestAssetResolver} revalidation is served entirely from the manifest.
+ * Assets requested without a version are served with {@code Cache-Control: no-cache} and the same
+ * ETag. Precompressed copies written by {@link AssetCompressor} are sent to clients accepting gzip,
+ * unless they are older than the asset.</p>
+ *
+ * <p>File system resources of at least {@value #ZERO_COPY_THRESHOLD} bytes are handed to the servlet
+ * container's sendfile support where available (Tomcat), which writes them without copying them
+ * through the heap. All other responses are copied through a stream buffer, as the servlet output
+ * stream only accepts byte arrays.</p>
+ *
+ * <p>Map the handler to the local asset path:</p>
+ * <pre>
+ * SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(
+ *         Map.of("/static/**", new FingerprintedAssetHandler(resolver, List.of(new ClassPathResource("static/")))), 0);
+ * </pre>
+ */
+public class FingerprintedAssetHandler implements HttpRequestHandler {
+
+    /**
+     * {@code Cache-Control} value of responses for fingerprinted URLs.
+     */
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /**
+     * Minimum size, in bytes, of responses handed to the container's sendfile support.
+     */
+    public static final long ZERO_COPY_THRESHOLD = 48 * 1024;
+
+    private static final String REVALIDATE_CACHE_CONTROL = "no-cache";
+    private static final String GZIP = "gzip";
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String GZIP_ETAG_SUFFIX = "-gz";
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private final DefaultAssetResolver resolver;
+    private final List<Resource> locations;
+
+    /**
+     * @param resolver the resolver rendering the fingerprinted URLs
+     * @param locations the directories assets are served from, searched in order
+     *                  (e.g. {@code new ClassPathResource("static/")})
+     */
+    public FingerprintedAssetHandler(DefaultAssetResolver resolver, List<Resource> locations) {
+        this.resolver = resolver;
+        this.locations = List.copyOf(locations);
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        boolean head = "HEAD".equals(request.getMethod());
+        if (!head && !"GET".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        String path = pathWithinMapping(request);
+        String logicalPath = path;
+        String version = null;
+        boolean fingerprinted = false;
+        // Rejections are reported to the resolver's observer; candidate logical paths are validated
+        // again by the resolver before they are versioned
+        if (resolver.validate(path) != null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        for (String[] candidate : versionCandidates(path)) {
+            String currentVersion = resolver.getVersion(candidate[0]);
+            if (currentVersion != null && currentVersion.equals(candidate[1])) {
+                logicalPath = candidate[0];
+                version = currentVersion;
+                fingerprinted = true;
+                break;
+            }
+        }
+        if (!fingerprinted) {
+            // Unversioned request, or a version that is no longer current
+            version = resolver.getVersion(path);
+        }
+
+        boolean compressible = AssetCompressor.isCompressible(logicalPath);
+        if (compressible) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (version != null) {
+            String matched = matchingETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), version);
+            if (matched != null) {
+                if (fingerprinted || findResource(logicalPath) != null) {
+                    response.setHeader(HttpHeaders.CACHE_CONTROL,
+                            fingerprinted ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+                    response.setHeader(HttpHeaders.ETAG, matched);
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return;
+                }
+            }
+        }
+
+        Resource resource = findResource(logicalPath);
+        if (resource == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Resource compressed = compressible && acceptsGzip(request) ? findCompressed(logicalPath, resource) : null;
+        if (compressed != null) {
+            resource = compressed;
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(logicalPath)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprinted ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+        if (version != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag(version, compressed != null));
+        }
+        long length = resource.contentLength();
+        response.setContentLengthLong(length);
+        if (!head) {
+            write(resource, length, request, response);
+        }
+    }
+
+    /**
+     * Returns the (logical path, version) pairs a request path may have been rendered from:
+     * {@code name.<version>.ext} and, for assets without an extension, {@code name.<version>}.
+     */
+    private static List<String[]> versionCandidates(String path) {
+        int slashIndex = path.lastIndexOf('/');
+        int lastDot = path.lastIndexOf('.');
+        if (lastDot <= slashIndex + 1 || lastDot == path.length() - 1) {
+            return List.of();
+        }
+        String[] withoutExtension = {path.substring(0, lastDot), path.substring(lastDot + 1)};
+        int versionDot = path.lastIndexOf('.', lastDot - 1);
+        if (versionDot <= slashIndex + 1 || versionDot == lastDot - 1) {
+            return List.<String[]>of(withoutExtension);
+        }
+        String[] withExtension = {path.substring(0, versionDot) + path.substring(lastDot),
+                path.substring(versionDot + 1, lastDot)};
+        return List.of(withExtension, withoutExtension);
+    }
+
+    /**
+     * Returns the entity tag of the If-None-Match header matching the version, or {@code null}.
+     * Either encoding's tag matches, as both representations belong to the same version.
+     */
+    private static String matchingETag(String ifNoneMatch, String version) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag(version, false))) {
+                return eTag(version, false);
+            }
+            if (candidate.equals(eTag(version, true))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static String eTag(String version, boolean compressed) {
+        return "\"" + version + (compressed ? GZIP_ETAG_SUFFIX : "") + "\"";
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private Resource findResource(String logicalPath) throws IOException {
+        for (Resource location : locations) {
+            Resource resource = location.createRelative(logicalPath);
+            if (resource.isReadable()) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the precompressed copy of an asset, or {@code null} if there is none or it is older
+     * than the asset, the same check {@link AssetCompressor} uses to decide whether to recompress.
+     */
+    private Resource findCompressed(String logicalPath, Resource resource) throws IOException {
+        Resource compressed = findResource(logicalPath + GZIP_EXTENSION);
+        if (compressed == null) {
+            return null;
+        }
+        try {
+            return compressed.lastModified() >= resource.lastModified() ? compressed : null;
+        } catch (IOException e) {
+            // Serve the asset itself when the age of either can't be determined
+            return null;
+        }
+    }
+
+    private static void write(Resource resource, long length, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        if (length >= ZERO_COPY_THRESHOLD && resource.isFile()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            // The container writes the file from its own thread once the handler returns
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, resource.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, length);
+            return;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            OutputStream out = response.getOutputStream();
+            in.transferTo(out);
+        }
+    }
+
+    private static String pathWithinMapping(HttpServletRequest request) {
+        // Set by Spring MVC handler mappings; fall back to the path info when registered as a servlet
+        Object path = request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String value = path != null ? path.toString() : request.getPathInfo();
+        if (value == null) {
+            return "";
+        }
+        return value.startsWith("/") ? value.substring(1) : value;
+    }
+}
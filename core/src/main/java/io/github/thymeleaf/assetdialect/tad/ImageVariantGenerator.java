@@ -0,0 +1,410 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Build-time generator of width-based image variants.
+ * Walks the static asset directory, writes scaled-down copies of every JPEG and PNG image that is
+ * wider than a requested width (e.g. {@code images/hero.jpg} becomes {@code images/hero-320w.jpg},
+ * {@code images/hero-640w.jpg}, ...) and records them as {@link ImageVariants}, so
+ * {@code tad:srcset} can emit a full {@code srcset} from the single source path.
+ *
+ * <p>Variants that are newer than their source are kept as they are, so repeated builds only
+ * scale changed images. Images are never scaled up. Images that cannot be decoded, e.g. CMYK
+ * JPEGs, are skipped with a warning.</p>
+ *
+ * <p>Browsers display JPEGs rotated or mirrored as their EXIF orientation tag says, but ImageIO
+ * decodes the stored pixels as they are. JPEG sources are therefore oriented before they are
+ * scaled, and widths refer to the oriented image, e.g. a portrait photo stored in landscape with
+ * orientation 6. Variants carry no EXIF metadata, so they display the way they were written.</p>
+ *
+ * <p>Intended to be run from a build task:</p>
+ * <pre>
+ * java io.github.thymeleaf.assetdialect.tad.ImageVariantGenerator &lt;assetBasePath&gt; &lt;outputDir&gt; &lt;variantsFile&gt; [widths]
+ * </pre>
+ * Variants are written below the output directory with the same relative paths as their sources,
+ * which may be the asset base path itself. Widths are comma separated and default to
+ * {@code 320,640,1280}.
+ */
+public class ImageVariantGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantGenerator.class);
+
+    public static final List<Integer> DEFAULT_WIDTHS = List.of(320, 640, 1280);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    // EXIF orientation tag, its default value and the markers of the segments read until it is found
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int NORMAL_ORIENTATION = 1;
+    private static final int APP1 = 0xE1;
+    private static final int START_OF_SCAN = 0xDA;
+    private static final int END_OF_IMAGE = 0xD9;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+
+    // Files written by this generator, skipped as sources when the output directory is the base path
+    private static final Pattern VARIANT_NAME = Pattern.compile(".*-\\d+w\\.(?i:jpe?g|png)$");
+
+    private final Path basePath;
+    private final Path outputDir;
+    private final int[] widths;
+
+    public ImageVariantGenerator(Path basePath, Path outputDir) {
+        this(basePath, outputDir, DEFAULT_WIDTHS);
+    }
+
+    /**
+     * @param basePath the static asset directory
+     * @param outputDir the directory variants are written to, mirroring the asset directory
+     * @param widths the variant widths in pixels
+     */
+    public ImageVariantGenerator(Path basePath, Path outputDir, List<Integer> widths) {
+        this.basePath = basePath.normalize();
+        this.outputDir = outputDir.normalize();
+        this.widths = widths.stream().mapToInt(Integer::intValue).filter(width -> width > 0).sorted().distinct().toArray();
+        if (this.widths.length == 0) {
+            throw new IllegalArgumentException("At least one positive variant width is required: " + widths);
+        }
+    }
+
+    /**
+     * Generates the variants of all valid images below the base path.
+     */
+    public ImageVariants generate() throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(basePath)) {
+            files = walk.filter(Files::isRegularFile).filter(this::isSourceImage).toList();
+        }
+
+        Map<String, ImageVariants.Image> images = new HashMap<>();
+        for (Path file : files) {
+            String logicalPath = toLogicalPath(file);
+            AssetPathValidator.Violation violation = AssetPathValidator.validate(logicalPath);
+            if (violation != null) {
+                logger.warn("Skipping image that does not pass path validation ({}) - {}",
+                        violation.getDescription(), logicalPath);
+                continue;
+            }
+            ImageVariants.Image image = generate(file, logicalPath);
+            if (image != null) {
+                images.put(logicalPath, image);
+            }
+        }
+        return new ImageVariants(images);
+    }
+
+    /**
+     * Generates the variants and writes the record to the given file, creating parent directories as needed.
+     */
+    public ImageVariants writeTo(Path variantsFile) throws IOException {
+        ImageVariants variants = generate();
+        Path parent = variantsFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = Files.newOutputStream(variantsFile)) {
+            variants.write(out);
+        }
+        return variants;
+    }
+
+    private ImageVariants.Image generate(Path file, String logicalPath) throws IOException {
+        BufferedImage source = null;
+        String format = formatOf(logicalPath);
+        int orientation = format.equals("jpeg") ? readOrientation(file, logicalPath) : NORMAL_ORIENTATION;
+        int sourceWidth = readWidth(file, logicalPath, isTransposed(orientation));
+        if (sourceWidth <= 0) {
+            logger.warn("Skipping unreadable image - {}", logicalPath);
+            return null;
+        }
+
+        List<ImageVariants.Variant> variants = new ArrayList<>();
+        for (int width : widths) {
+            if (width >= sourceWidth) {
+                break;
+            }
+            String variantPath = variantPath(logicalPath, width);
+            Path target = outputDir.resolve(variantPath);
+            if (!isUpToDate(target, file)) {
+                if (source == null) {
+                    source = read(file, logicalPath, orientation);
+                    if (source == null) {
+                        logger.warn("Skipping image that cannot be decoded - {}", logicalPath);
+                        return null;
+                    }
+                }
+                Files.createDirectories(target.getParent());
+                write(scale(source, width), format, target);
+            }
+            variants.add(new ImageVariants.Variant(variantPath, width));
+        }
+        return new ImageVariants.Image(sourceWidth, variants);
+    }
+
+    /**
+     * Returns the image width, or {@code -1} if no reader supports the file or its header is invalid.
+     *
+     * @param transposed whether the image is displayed rotated by 90 degrees, so its height is the width
+     */
+    private static int readWidth(Path file, String logicalPath, boolean transposed) {
+        try (var input = ImageIO.createImageInputStream(file.toFile())) {
+            var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return -1;
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(input);
+                return transposed ? reader.getHeight(0) : reader.getWidth(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to read the width of {}", logicalPath, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Decodes the image and applies its orientation, or returns {@code null} if it cannot be decoded.
+     */
+    private static BufferedImage read(Path file, String logicalPath, int orientation) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(file.toFile());
+        } catch (IOException e) {
+            logger.debug("Failed to decode {}", logicalPath, e);
+            return null;
+        }
+        return image == null ? null : orient(image, orientation);
+    }
+
+    /**
+     * Returns the EXIF orientation of a JPEG file, 1 if it has none or its EXIF data is malformed.
+     * Only the segments before the image data are read.
+     */
+    static int readOrientation(Path file, String logicalPath) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return NORMAL_ORIENTATION;
+            }
+            while (true) {
+                if (in.readUnsignedByte() != 0xFF) {
+                    return NORMAL_ORIENTATION;
+                }
+                int marker = in.readUnsignedByte();
+                while (marker == 0xFF) {
+                    // Fill bytes before the marker
+                    marker = in.readUnsignedByte();
+                }
+                if (marker == START_OF_SCAN || marker == END_OF_IMAGE) {
+                    return NORMAL_ORIENTATION;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return NORMAL_ORIENTATION;
+                }
+                if (marker != APP1) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+                byte[] segment = in.readNBytes(length);
+                if (segment.length < length) {
+                    return NORMAL_ORIENTATION;
+                }
+                if (length >= EXIF_HEADER.length
+                        && Arrays.equals(segment, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+                    return exifOrientation(ByteBuffer.wrap(segment, EXIF_HEADER.length,
+                            length - EXIF_HEADER.length).slice());
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to read the EXIF orientation of {}", logicalPath, e);
+            return NORMAL_ORIENTATION;
+        }
+    }
+
+    /**
+     * Reads the orientation tag from the first IFD of the given TIFF structure.
+     */
+    private static int exifOrientation(ByteBuffer tiff) {
+        try {
+            short byteOrder = tiff.getShort(0);
+            if (byteOrder == 0x4949) {
+                tiff.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (byteOrder != 0x4D4D) {
+                return NORMAL_ORIENTATION;
+            }
+            int ifd = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                // A SHORT value, stored in the first two bytes of the value field
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG && tiff.getShort(entry + 2) == 3) {
+                    int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                    return orientation >= 1 && orientation <= 8 ? orientation : NORMAL_ORIENTATION;
+                }
+            }
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            // Malformed EXIF data, browsers ignore it as well
+        }
+        return NORMAL_ORIENTATION;
+    }
+
+    /**
+     * Returns whether images with the given EXIF orientation are displayed rotated by 90 degrees.
+     */
+    private static boolean isTransposed(int orientation) {
+        return orientation >= 5;
+    }
+
+    /**
+     * Rotates and mirrors the decoded image as its EXIF orientation says it is displayed.
+     */
+    static BufferedImage orient(BufferedImage image, int orientation) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // Maps stored pixels to displayed ones, see the EXIF specification for the eight orientations
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage oriented = isTransposed(orientation)
+                ? new BufferedImage(height, width, type) : new BufferedImage(width, height, type);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    private static boolean isUpToDate(Path target, Path source) throws IOException {
+        return Files.exists(target)
+                && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) >= 0;
+    }
+
+    /**
+     * Scales the image to the given width, halving it first while it is more than twice as wide
+     * so bicubic interpolation doesn't skip source pixels.
+     */
+    static BufferedImage scale(BufferedImage source, int width) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        do {
+            int nextWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            int nextHeight = nextWidth == width ? height : Math.max(1, currentHeight / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        // File image streams don't truncate, so replace outdated variants
+        Files.deleteIfExists(target);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpeg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Returns the logical path of a variant, e.g. {@code images/hero-320w.jpg} for {@code images/hero.jpg}.
+     */
+    static String variantPath(String logicalPath, int width) {
+        int extensionIndex = logicalPath.lastIndexOf('.');
+        return logicalPath.substring(0, extensionIndex) + "-" + width + "w" + logicalPath.substring(extensionIndex);
+    }
+
+    private boolean isSourceImage(Path file) {
+        String name = file.getFileName().toString();
+        String lower = name.toLowerCase(Locale.ROOT);
+        return (lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png"))
+                && (!outputDir.equals(basePath) || !VARIANT_NAME.matcher(name).matches());
+    }
+
+    private static String formatOf(String logicalPath) {
+        return logicalPath.toLowerCase(Locale.ROOT).endsWith(".png") ? "png" : "jpeg";
+    }
+
+    private String toLogicalPath(Path file) {
+        return basePath.relativize(file.normalize()).toString().replace('\\', '/');
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: ImageVariantGenerator <assetBasePath> <outputDir> <variantsFile> [widths]");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+        List<Integer> widths = args.length == 4
+                ? Arrays.stream(args[3].split(",")).map(String::trim).map(Integer::valueOf).toList()
+                : DEFAULT_WIDTHS;
+        Path variantsFile = Paths.get(args[2]);
+        ImageVariants variants = new ImageVariantGenerator(Paths.get(args[0]), Paths.get(args[1]), widths)
+                .writeTo(variantsFile);
+        logger.info("Wrote variants of {} image(s) to {}", variants.size(), variantsFile);
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable mapping of logical image paths to their width-based variants, used by
+ * {@link AssetSrcsetProcessor} to expand a single source path into a full {@code srcset}.
+ * Logical paths are relative to the asset base directory and use forward slashes
+ * without a leading slash (e.g. {@code images/hero.jpg}).
+ *
+ * <p>The JSON form is written at build time by {@link ImageVariantGenerator}:</p>
+ * <pre>
+ * {
+ *   "images": {
+ *     "images/hero.jpg": {
+ *       "width": 2400,
+ *       "variants": [ { "path": "images/hero-320w.jpg", "width": 320 }, ... ]
+ *     }
+ *   }
+ * }
+ * </pre>
+ */
+public final class ImageVariants {
+
+    /**
+     * Default file name of the variants record.
+     */
+    public static final String DEFAULT_FILE_NAME = "image-variants.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final ImageVariants EMPTY = new ImageVariants(Map.of());
+
+    private final Map<String, Image> images;
+
+    public ImageVariants(Map<String, Image> images) {
+        this.images = Collections.unmodifiableMap(new HashMap<>(images));
+    }
+
+    /**
+     * Returns a record without any images.
+     */
+    public static ImageVariants empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the image for a logical path, or {@code null} if no variants were generated for it.
+     */
+    public Image get(String logicalPath) {
+        return images.get(logicalPath);
+    }
+
+    public Map<String, Image> getImages() {
+        return images;
+    }
+
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * Loads a variants record from the given resource.
+     */
+    public static ImageVariants load(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a variants record from its JSON form.
+     */
+    public static ImageVariants read(InputStream in) throws IOException {
+        JsonNode nodes = MAPPER.readTree(in).path("images");
+        Map<String, Image> images = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = nodes.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode node = field.getValue();
+            List<Variant> variants = new ArrayList<>();
+            for (JsonNode variant : node.path("variants")) {
+                variants.add(new Variant(variant.path("path").asText(), variant.path("width").asInt()));
+            }
+            images.put(field.getKey(), new Image(node.path("width").asInt(), variants));
+        }
+        return new ImageVariants(images);
+    }
+
+    /**
+     * Writes the record as JSON, with images sorted by logical path so the output is reproducible.
+     */
+    public void write(OutputStream out) throws IOException {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode nodes = root.putObject("images");
+        for (Map.Entry<String, Image> e : new TreeMap<>(images).entrySet()) {
+            ObjectNode node = nodes.putObject(e.getKey());
+            node.put("width", e.getValue().getWidth());
+            ArrayNode variants = node.putArray("variants");
+            for (Variant variant : e.getValue().getVariants()) {
+                variants.addObject().put("path", variant.getPath()).put("width", variant.getWidth());
+            }
+        }
+        MAPPER.writeValue(out, root);
+    }
+
+    /**
+     * An original image with its variants, ordered by ascending width.
+     */
+    public static final class Image {
+        private final int width;
+        private final List<Variant> variants;
+
+        public Image(int width, List<Variant> variants) {
+            this.width = width;
+            List<Variant> sorted = new ArrayList<>(variants);
+            sorted.sort(Comparator.comparingInt(Variant::getWidth));
+            this.variants = Collections.unmodifiableList(sorted);
+        }
+
+        /**
+         * Returns the width of the original image in pixels.
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        public List<Variant> getVariants() {
+            return variants;
+        }
+    }
+
+    /**
+     * A scaled-down copy of an image.
+     */
+    public static final class Variant {
+        private final String path;
+        private final int width;
+
+        public Variant(String path, int width) {
+            this.path = path;
+            this.width = width;
+        }
+
+        /**
+         * Returns the logical path of the variant.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+    }
+}
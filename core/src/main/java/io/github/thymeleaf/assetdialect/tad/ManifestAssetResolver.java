@@ -0,0 +1,49 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * AssetResolver backed by a build-time {@link AssetManifest}.
+ * Versions are looked up in the manifest loaded at startup instead of being computed
+ * from files under {@code assetBasePath}, so resolution never touches the filesystem.
+ * CDN, local path and security handling are the same as {@link DefaultAssetResolver}.
+ * Assets missing from the manifest are resolved without a version.
+ * Versions are shortened to {@code tad.version-length} like those of {@link DefaultAssetResolver},
+ * so switching resolvers keeps asset URLs stable.
+ * Integrity metadata recorded by the generator is served from the manifest as well.
+ */
+public class ManifestAssetResolver extends DefaultAssetResolver {
+
+    private final AssetManifest manifest;
+
+    public ManifestAssetResolver(AssetProperties properties, Environment environment, AssetManifest manifest) {
+        super(properties, environment);
+        this.manifest = manifest;
+    }
+
+    public AssetManifest getManifest() {
+        return manifest;
+    }
+
+    @Override
+    protected String resolveVersion(ResolverSnapshot config, String path) {
+        AssetManifest.Entry entry = manifest.get(config.toRelativeAssetPath(path));
+        return entry != null ? truncateVersion(config, entry.getDigest()) : null;
+    }
+
+    /**
+     * Returns the integrity metadata recorded in the manifest for the configured algorithm, or
+     * {@code null} if the manifest has none for the asset. Files are never hashed at render time.
+     */
+    @Override
+    public String resolveIntegrity(String path) {
+        ResolverSnapshot config = getSnapshot();
+        AssetIntegrity algorithm = config.getIntegrity();
+        if (!config.isEnabled() || algorithm == null || AssetPathValidator.validate(path) != null) {
+            return null;
+        }
+        AssetManifest.Entry entry = manifest.get(config.toRelativeAssetPath(path));
+        return entry != null && entry.getIntegrity() != null && entry.getIntegrity().startsWith(algorithm.getName())
+                ? entry.getIntegrity() : null;
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.IWebContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-request record of the asset URLs a page needs, collected while it renders.
+ *
+ * <p>{@link PreloadInterceptor} stores a collector as a request attribute before the view renders;
+ * {@link AssetProcessor} adds every resolved stylesheet, script and font to it, and tad:preload adds
+ * explicitly declared assets of any type. Outside a web request nothing is collected.</p>
+ */
+public final class PreloadCollector {
+
+    /**
+     * Name of the request attribute holding the collector.
+     */
+    public static final String ATTRIBUTE = PreloadCollector.class.getName();
+
+    private final String template;
+    private final String cdn;
+    private final long generation;
+    private final Set<AssetPreload> preloads = new LinkedHashSet<>();
+
+    /**
+     * @param template the view being rendered
+     * @param generation the resolver generation the URLs are resolved against
+     */
+    public PreloadCollector(String template, long generation) {
+        this(template, null, generation);
+    }
+
+    /**
+     * @param template the view being rendered
+     * @param cdn the CDN the request is routed to (see {@link AssetRouter}), or {@code null}
+     * @param generation the resolver generation the URLs are resolved against
+     */
+    public PreloadCollector(String template, String cdn, long generation) {
+        this.template = template;
+        this.cdn = cdn;
+        this.generation = generation;
+    }
+
+    /**
+     * Returns the collector of the request being rendered, or {@code null}.
+     */
+    public static PreloadCollector from(IContext context) {
+        if (context instanceof IWebContext webContext
+                && webContext.getExchange().getAttributeValue(ATTRIBUTE) instanceof PreloadCollector collector) {
+            return collector;
+        }
+        return null;
+    }
+
+    /**
+     * Records a resolved URL if its type is one browsers discover late and benefit from preloading:
+     * stylesheets, scripts and fonts.
+     */
+    public void addIfCritical(String path, String url) {
+        String destination = AssetPreload.destinationOf(path);
+        if (destination != null && !AssetPreload.IMAGE.equals(destination)) {
+            preloads.add(new AssetPreload(url, destination));
+        }
+    }
+
+    /**
+     * Records a resolved URL of any preloadable type.
+     *
+     * @return {@code false} if the type of the asset isn't preloadable
+     */
+    public boolean add(String path, String url) {
+        String destination = AssetPreload.destinationOf(path);
+        if (destination == null) {
+            return false;
+        }
+        preloads.add(new AssetPreload(url, destination));
+        return true;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the CDN the request is routed to, or {@code null} if it isn't routed.
+     */
+    public String getCdn() {
+        return cdn;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the recorded preloads in document order.
+     */
+    public List<AssetPreload> getPreloads() {
+        return new ArrayList<>(preloads);
+    }
+}
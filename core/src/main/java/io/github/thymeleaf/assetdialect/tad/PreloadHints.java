@@ -0,0 +1,124 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Preloads per template, learned from the first render of each template or declared up front,
+ * so later requests can send them before the template executes.
+ *
+ * <p>Learned entries are only valid for the {@linkplain AssetResolver#getGeneration() resolver
+ * generation} their URLs were resolved against and are replaced after the next render once
+ * versions or configuration change. Declared entries never expire. At most {@code maxTemplates}
+ * learned entries are kept; when the limit is reached they are discarded and learned again.
+ * Requests routed to different CDNs (see {@link AssetRouter}) keep separate entries per template.</p>
+ */
+public class PreloadHints {
+
+    private final AssetResolver resolver;
+    private final int maxTemplates;
+    private final Map<Key, Entry> learned = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> declared = new ConcurrentHashMap<>();
+    private final Map<Key, Entry> declaredResolved = new ConcurrentHashMap<>();
+
+    /**
+     * @param resolver resolves declared asset paths and tells when learned URLs are stale
+     * @param maxTemplates maximum number of templates with learned preloads
+     */
+    public PreloadHints(AssetResolver resolver, int maxTemplates) {
+        if (maxTemplates <= 0) {
+            throw new IllegalArgumentException("Max templates must be positive: " + maxTemplates);
+        }
+        this.resolver = resolver;
+        this.maxTemplates = maxTemplates;
+    }
+
+    /**
+     * Declares the assets a template needs, so hints are sent from its first request on.
+     * Replaces what is learned from rendering the template.
+     *
+     * @param paths asset paths as written in tad:src, resolved with the current configuration
+     */
+    public void declare(String template, List<String> paths) {
+        declared.put(template, List.copyOf(paths));
+        declaredResolved.keySet().removeIf(key -> key.template().equals(template));
+    }
+
+    /**
+     * Returns the preloads for a template, or {@code null} if they are unknown or stale.
+     */
+    public List<AssetPreload> get(String template) {
+        return get(template, null);
+    }
+
+    /**
+     * Returns the preloads for a template rendered for requests routed to the given CDN, or
+     * {@code null} if they are unknown or stale.
+     *
+     * @param cdn the CDN requests are routed to, or {@code null} if they aren't routed
+     */
+    public List<AssetPreload> get(String template, String cdn) {
+        long generation = resolver.getGeneration();
+        Key key = new Key(template, cdn);
+        if (declared.containsKey(template)) {
+            return resolveDeclared(key, generation);
+        }
+        Entry entry = learned.get(key);
+        return entry != null && entry.generation == generation ? entry.preloads : null;
+    }
+
+    /**
+     * Returns whether preloads of the template need to be learned from the current render.
+     */
+    public boolean isLearning(String template) {
+        return get(template) == null;
+    }
+
+    /**
+     * Stores the preloads collected while rendering a template, unless the resolver generation
+     * changed during rendering.
+     */
+    public void learn(PreloadCollector collector) {
+        String template = collector.getTemplate();
+        if (declared.containsKey(template) || collector.getGeneration() != resolver.getGeneration()) {
+            return;
+        }
+        Key key = new Key(template, collector.getCdn());
+        if (learned.size() >= maxTemplates && !learned.containsKey(key)) {
+            learned.clear();
+        }
+        learned.put(key, new Entry(collector.getGeneration(), List.copyOf(collector.getPreloads())));
+    }
+
+    /**
+     * Discards all learned preloads.
+     */
+    public void invalidateAll() {
+        learned.clear();
+        declaredResolved.clear();
+    }
+
+    public int size() {
+        return learned.size() + declared.size();
+    }
+
+    private List<AssetPreload> resolveDeclared(Key key, long generation) {
+        Entry entry = declaredResolved.get(key);
+        if (entry == null || entry.generation != generation) {
+            PreloadCollector collector = new PreloadCollector(key.template(), key.cdn(), generation);
+            for (String path : declared.getOrDefault(key.template(), List.of())) {
+                collector.add(path, resolver.resolve(path, key.cdn(), false));
+            }
+            entry = new Entry(generation, List.copyOf(collector.getPreloads()));
+            declaredResolved.put(key, entry);
+        }
+        return entry.preloads;
+    }
+
+    private record Key(String template, String cdn) {
+    }
+
+    private record Entry(long generation, List<AssetPreload> preloads) {
+    }
+}
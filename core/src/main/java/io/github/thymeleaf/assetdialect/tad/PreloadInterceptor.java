@@ -0,0 +1,140 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sends {@code Link: <url>; rel=preload; as=...} headers for the assets a view needs before the
+ * view renders, so browsers start fetching stylesheets, scripts and fonts from the CDN while the
+ * server is still rendering.
+ *
+ * <p>The preloads of a view are learned from its first render through a {@link PreloadCollector}
+ * (or {@linkplain PreloadHints#declare declared} up front) and cached per view name in
+ * {@link PreloadHints}. With early hints enabled they are additionally sent as an interim
+ * {@code 103 Early Hints} response through {@code sendError(103)}, which Tomcat and Jetty implement.
+ * On other containers that call would commit an error response, so early hints are only sent when
+ * the servlet container's server info names Tomcat or Jetty; elsewhere they are disabled with a
+ * warning on the first request and only the {@code Link} headers are sent.</p>
+ *
+ * <p>With an {@link AssetRouter}, preloads are learned and sent per view and routed CDN.</p>
+ */
+public class PreloadInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(PreloadInterceptor.class);
+
+    private static final int SC_EARLY_HINTS = 103;
+
+    private final AssetResolver resolver;
+    private final PreloadHints hints;
+    private final boolean earlyHints;
+    private final AssetRouter router;
+    private volatile Boolean earlyHintsSupported;
+
+    public PreloadInterceptor(AssetResolver resolver, PreloadHints hints, boolean earlyHints) {
+        this(resolver, hints, earlyHints, null);
+    }
+
+    /**
+     * @param router selects the CDN of each request, or {@code null} if requests aren't routed
+     */
+    public PreloadInterceptor(AssetResolver resolver, PreloadHints hints, boolean earlyHints, AssetRouter router) {
+        this.resolver = resolver;
+        this.hints = hints;
+        this.earlyHints = earlyHints;
+        this.router = router;
+    }
+
+    public static PreloadInterceptor from(AssetResolver resolver, AssetProperties.Preload settings) {
+        return from(resolver, settings, null);
+    }
+
+    public static PreloadInterceptor from(AssetResolver resolver, AssetProperties.Preload settings,
+                                          AssetRouter router) {
+        return new PreloadInterceptor(resolver, new PreloadHints(resolver, settings.getMaxTemplates()),
+                settings.isEarlyHints(), router);
+    }
+
+    public PreloadHints getHints() {
+        return hints;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        String viewName = modelAndView != null ? modelAndView.getViewName() : null;
+        if (viewName == null || viewName.startsWith("redirect:") || viewName.startsWith("forward:")
+                || response.isCommitted()) {
+            return;
+        }
+
+        String cdn = router != null ? router.route(request) : null;
+        List<AssetPreload> preloads = hints.get(viewName, cdn);
+        if (preloads == null) {
+            // Unknown or stale, learn them while the view renders
+            request.setAttribute(PreloadCollector.ATTRIBUTE,
+                    new PreloadCollector(viewName, cdn, resolver.getGeneration()));
+            return;
+        }
+        if (preloads.isEmpty()) {
+            return;
+        }
+        for (AssetPreload preload : preloads) {
+            response.addHeader(HttpHeaders.LINK, preload.toLinkValue());
+        }
+        if (earlyHints && supportsEarlyHints(request)) {
+            sendEarlyHints(response);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (ex == null && response.getStatus() < 400
+                && request.getAttribute(PreloadCollector.ATTRIBUTE) instanceof PreloadCollector collector) {
+            hints.learn(collector);
+        }
+    }
+
+    private boolean supportsEarlyHints(HttpServletRequest request) {
+        Boolean supported = earlyHintsSupported;
+        if (supported == null) {
+            String serverInfo = request.getServletContext().getServerInfo();
+            supported = isEarlyHintsServer(serverInfo);
+            if (!supported) {
+                logger.warn("Not sending 103 Early Hints, {} is not known to support them through sendError(103)",
+                        serverInfo);
+            }
+            earlyHintsSupported = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * Returns whether the container identified by the servlet context's server info, e.g.
+     * {@code Apache Tomcat/10.1.24} or {@code jetty/12.0.9}, sends {@code sendError(103)} as an
+     * interim response.
+     */
+    static boolean isEarlyHintsServer(String serverInfo) {
+        if (serverInfo == null) {
+            return false;
+        }
+        String server = serverInfo.toLowerCase(Locale.ROOT);
+        return server.startsWith("apache tomcat") || server.startsWith("jetty");
+    }
+
+    private static void sendEarlyHints(HttpServletResponse response) {
+        try {
+            response.sendError(SC_EARLY_HINTS);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Unable to send 103 Early Hints", e);
+        }
+    }
+}
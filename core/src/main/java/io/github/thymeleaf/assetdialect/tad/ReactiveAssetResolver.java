@@ -0,0 +1,282 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking asset resolution for WebFlux applications.
+ * Resolutions cached by the {@link CachingAssetResolver} are returned directly; misses, which may
+ * hash asset files, run on a bounded elastic {@link Scheduler} and concurrent misses for the same
+ * asset share one resolution. Integrity metadata is cached and loaded the same way.
+ *
+ * <p>Templates render through {@link #getRenderingResolver()}, the synchronous view to pass to
+ * {@link AssetDialect}. On a non-blocking thread, e.g. a Netty event loop during data-driven
+ * rendering, a miss renders the URL the asset last resolved to while it is resolved again in the
+ * background (stale-while-revalidate), so expired or invalidated cache entries never put
+ * unversioned URLs into the page. Only assets never resolved before render their unversioned URL
+ * (see {@link AssetResolver#resolveUnversioned}) and omit integrity metadata until the background
+ * resolution completes; the view's {@linkplain AssetResolver#getGeneration() generation} changes
+ * only when a rendered URL turns out to differ, so URLs baked at parse time or learned preloads are
+ * resolved again. Misses on other threads resolve in the calling thread. Like the URLs, at most
+ * {@linkplain CachingAssetResolver#getMaxSize() max size} last resolved URLs and integrity values
+ * are kept, evicting the oldest first.
+ * {@link #prefetch(Collection)} resolves a view's assets ahead of rendering, and pre-warming
+ * (see {@link AssetPrewarmer}) keeps misses rare in the first place.</p>
+ *
+ * <pre>
+ * ReactiveAssetResolver reactiveResolver = new ReactiveAssetResolver(cachingResolver);
+ * templateEngine.addDialect(new AssetDialect(properties, reactiveResolver.getRenderingResolver()));
+ * </pre>
+ */
+public class ReactiveAssetResolver {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAssetResolver.class);
+
+    // Marks integrity lookups that produced no metadata, as the map can't hold null
+    private static final String NO_INTEGRITY = "";
+
+    private final CachingAssetResolver resolver;
+    private final Scheduler scheduler;
+    private final Map<Key, Mono<String>> pending = new ConcurrentHashMap<>();
+    private final Recent<String> integrities;
+    // The URL each asset last resolved to, served on the event loop while it is resolved again
+    private final Recent<Key> lastResolved;
+    private final AtomicLong settled = new AtomicLong();
+    private final AssetResolver renderingResolver = new RenderingResolver();
+    private volatile long integrityGeneration;
+
+    public ReactiveAssetResolver(CachingAssetResolver resolver) {
+        this(resolver, Schedulers.boundedElastic());
+    }
+
+    /**
+     * @param resolver the cache of resolved URLs, filled on misses
+     * @param scheduler the scheduler misses are resolved on; it must allow blocking
+     */
+    public ReactiveAssetResolver(CachingAssetResolver resolver, Scheduler scheduler) {
+        this.resolver = resolver;
+        this.scheduler = scheduler;
+        this.integrities = new Recent<>(resolver.getMaxSize());
+        this.lastResolved = new Recent<>(resolver.getMaxSize());
+        this.integrityGeneration = resolver.getGeneration();
+    }
+
+    /**
+     * Resolves an asset path like {@link AssetResolver#resolve(String, String, boolean)}.
+     *
+     * @return the resolved URL, or an {@link IllegalArgumentException} error for invalid paths
+     */
+    public Mono<String> resolve(String path, String cdn, boolean forceLocal) {
+        return Mono.defer(() -> {
+            String url = resolver.getIfPresent(path, cdn, forceLocal);
+            if (url != null) {
+                return Mono.just(url);
+            }
+            return pending.computeIfAbsent(new Key(path, cdn, forceLocal), key ->
+                    Mono.fromCallable(() -> resolveAndRemember(key))
+                            .subscribeOn(scheduler)
+                            .doFinally(signal -> pending.remove(key))
+                            .cache());
+        });
+    }
+
+    public Mono<String> resolve(String path) {
+        return resolve(path, null, false);
+    }
+
+    /**
+     * Returns the Subresource Integrity metadata of an asset, see {@link AssetResolver#resolveIntegrity}.
+     *
+     * @return the integrity metadata, or empty if it is not available for the asset
+     */
+    public Mono<String> resolveIntegrity(String path) {
+        return Mono.defer(() -> {
+            if (AssetPathValidator.check(path) != null) {
+                return Mono.empty();
+            }
+            String cached = cachedIntegrity(path);
+            if (cached != null) {
+                return cached.equals(NO_INTEGRITY) ? Mono.empty() : Mono.just(cached);
+            }
+            return Mono.fromCallable(() -> loadIntegrity(path))
+                    .subscribeOn(scheduler)
+                    .filter(integrity -> !integrity.equals(NO_INTEGRITY));
+        });
+    }
+
+    /**
+     * Resolves the URLs and integrity metadata of the given asset paths, e.g. the assets of a view
+     * before it renders. Invalid paths are skipped.
+     */
+    public Mono<Void> prefetch(Collection<String> paths) {
+        return Flux.fromIterable(paths)
+                .flatMap(path -> resolve(path).then(resolveIntegrity(path))
+                        .onErrorResume(IllegalArgumentException.class, e -> Mono.empty()))
+                .then();
+    }
+
+    /**
+     * Returns the synchronous resolver for template rendering, which never resolves a miss on a
+     * non-blocking thread.
+     */
+    public AssetResolver getRenderingResolver() {
+        return renderingResolver;
+    }
+
+    public CachingAssetResolver getResolver() {
+        return resolver;
+    }
+
+    private String cachedIntegrity(String path) {
+        long currentGeneration = resolver.getGeneration();
+        if (currentGeneration != integrityGeneration) {
+            clearIntegrities(currentGeneration);
+        }
+        return integrities.get(path);
+    }
+
+    private synchronized void clearIntegrities(long currentGeneration) {
+        if (integrityGeneration != currentGeneration) {
+            integrities.clear();
+            integrityGeneration = currentGeneration;
+        }
+    }
+
+    private String loadIntegrity(String path) {
+        long currentGeneration = resolver.getGeneration();
+        String integrity = resolver.resolveIntegrity(path);
+        String value = integrity != null ? integrity : NO_INTEGRITY;
+        // Only publish metadata loaded against the generation it was loaded for
+        if (resolver.getGeneration() == currentGeneration) {
+            integrities.put(path, value);
+        }
+        return value;
+    }
+
+    private String resolveAndRemember(Key key) {
+        String url = resolver.resolve(key.path(), key.cdn(), key.forceLocal());
+        lastResolved.put(key, url);
+        return url;
+    }
+
+    private record Key(String path, String cdn, boolean forceLocal) {
+    }
+
+    /**
+     * Values of the most recently written keys, evicting the oldest beyond a maximum size.
+     */
+    private static final class Recent<K> {
+        private final int maxSize;
+        private final Map<K, String> values = new ConcurrentHashMap<>();
+        // Keys in write order, each queued once while it has a value
+        private final ConcurrentLinkedQueue<K> writeOrder = new ConcurrentLinkedQueue<>();
+
+        private Recent(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        private String get(K key) {
+            return values.get(key);
+        }
+
+        private void put(K key, String value) {
+            if (values.put(key, value) == null) {
+                writeOrder.add(key);
+            }
+            while (values.size() > maxSize) {
+                K oldest = writeOrder.poll();
+                if (oldest == null) {
+                    return;
+                }
+                values.remove(oldest);
+            }
+        }
+
+        private void clear() {
+            // Queue first: a value put concurrently is then either cleared or queued
+            writeOrder.clear();
+            values.clear();
+        }
+    }
+
+    /**
+     * Synchronous view used by the dialect's processors.
+     */
+    private final class RenderingResolver implements AssetResolver {
+
+        @Override
+        public String resolve(String path, String cdn, boolean forceLocal) {
+            String url = resolver.getIfPresent(path, cdn, forceLocal);
+            if (url != null) {
+                return url;
+            }
+            Key key = new Key(path, cdn, forceLocal);
+            if (!Schedulers.isInNonBlockingThread()) {
+                return resolveAndRemember(key);
+            }
+
+            // Never hash on the event loop: render the last resolved URL, or the unversioned one for
+            // an asset never resolved, and resolve in the background
+            String stale = lastResolved.get(key);
+            String provisional = stale != null ? stale : resolver.resolveUnversioned(path, cdn, forceLocal);
+            ReactiveAssetResolver.this.resolve(path, cdn, forceLocal).subscribe(resolved -> {
+                if (!resolved.equals(provisional)) {
+                    settled.incrementAndGet();
+                }
+            }, e -> logger.debug("Failed to resolve asset path in the background: {}", path, e));
+            return provisional;
+        }
+
+        @Override
+        public String resolveIntegrity(String path) {
+            if (AssetPathValidator.check(path) != null) {
+                return null;
+            }
+            String cached = cachedIntegrity(path);
+            if (cached != null) {
+                return cached.equals(NO_INTEGRITY) ? null : cached;
+            }
+            if (!Schedulers.isInNonBlockingThread()) {
+                String integrity = loadIntegrity(path);
+                return integrity.equals(NO_INTEGRITY) ? null : integrity;
+            }
+
+            ReactiveAssetResolver.this.resolveIntegrity(path).subscribe(integrity -> settled.incrementAndGet(),
+                    e -> logger.debug("Failed to load integrity in the background: {}", path, e));
+            return null;
+        }
+
+        @Override
+        public String resolveUnversioned(String path, String cdn, boolean forceLocal) {
+            return resolver.resolveUnversioned(path, cdn, forceLocal);
+        }
+
+        /**
+         * Changes with the resolver's generation and whenever a URL or integrity metadata rendered
+         * provisionally was resolved in the background.
+         */
+        @Override
+        public long getGeneration() {
+            return resolver.getGeneration() + settled.get();
+        }
+
+        @Override
+        public boolean isCdnUrl(String url) {
+            return resolver.isCdnUrl(url);
+        }
+
+        @Override
+        public boolean isUseLocal() {
+            return resolver.isUseLocal();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+/**
+ * Receives the outcome of every {@link DefaultAssetResolver} resolution, e.g. to record metrics.
+ * Called on the rendering thread, so implementations must be cheap and thread-safe.
+ */
+interface ResolutionObserver {
+
+    /**
+     * How a path was resolved.
+     */
+    enum Mode {
+        /** Resolved against a CDN base URL. */
+        CDN,
+        /** Resolved against the local path. */
+        LOCAL,
+        /** Returned unchanged, because the dialect is disabled or no CDN is configured. */
+        PASSTHROUGH
+    }
+
+    /**
+     * @param cdn the requested CDN name, {@code null} for the default CDN
+     * @param durationNanos the time the resolution took
+     */
+    void resolved(Mode mode, String cdn, long durationNanos);
+
+    void rejected(AssetPathValidator.Violation violation);
+}
@@ -0,0 +1,289 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the resolver configuration, compiled from {@link AssetProperties} and the
+ * active profiles.
+ *
+ * <p>{@link DefaultAssetResolver} reads the current snapshot with a single volatile load per
+ * resolution and replaces it as a whole on refresh, so a resolution never mixes old and new
+ * settings and never scans the active profiles.</p>
+ */
+public final class ResolverSnapshot {
+
+    private final boolean enabled;
+    private final boolean useLocal;
+    private final String localPath;
+    private final CdnHosts defaultCdn;
+    private final Map<String, CdnHosts> cdns;
+    private final CdnRules cdnRules;
+    private final boolean versionAssets;
+    private final String versionStrategyName;
+    private final VersionStrategy versionStrategy;
+    private final int versionLength;
+    private final Path assetBasePath;
+    private final ClasspathAssets classpathAssets;
+    private final AssetIntegrity integrity;
+    private final AssetDigestCache.DigestLoader digestLoader;
+
+    private ResolverSnapshot(AssetProperties properties, boolean useLocal, VersionStrategy versionStrategy,
+                             Path assetBasePath, ClasspathAssets classpathAssets, AssetIntegrity integrity,
+                             AssetDigestCache.DigestLoader digestLoader) {
+        this.enabled = properties.isEnabled();
+        this.useLocal = useLocal;
+        this.localPath = StringUtils.hasText(properties.getLocalPath()) ? properties.getLocalPath() : null;
+        this.defaultCdn = CdnHosts.parse(properties.getDefaultCdn());
+        this.cdns = normalizeCdns(properties.getCdns());
+        this.cdnRules = properties.getRouting() != null
+                ? CdnRules.compile(properties.getRouting().getRules(), cdns.keySet()) : null;
+        this.versionAssets = properties.isVersionAssets();
+        this.versionStrategyName = properties.getVersionStrategy();
+        this.versionStrategy = versionStrategy;
+        this.versionLength = properties.getVersionLength();
+        this.assetBasePath = assetBasePath;
+        this.classpathAssets = classpathAssets;
+        this.integrity = integrity;
+        this.digestLoader = digestLoader;
+    }
+
+    /**
+     * Compiles a snapshot of the given properties.
+     *
+     * @param versionStrategies the registered version strategies by name
+     * @param loaderFactory creates the digest loader for files below the asset base path
+     */
+    static ResolverSnapshot compile(AssetProperties properties, Environment environment,
+                                    Map<String, VersionStrategy> versionStrategies,
+                                    LoaderFactory loaderFactory) {
+        boolean useLocal = properties.isUseLocalInDev() && isDevelopmentEnvironment(environment);
+        String strategyName = properties.getVersionStrategy();
+        VersionStrategy strategy = strategyName != null ? versionStrategies.get(strategyName) : null;
+        String configuredBasePath = properties.getAssetBasePath();
+        ClasspathAssets classpathAssets = null;
+        Path basePath = null;
+        if (ClasspathAssets.isClasspathLocation(configuredBasePath)) {
+            // Exploded classpath locations are hashed like directories, JAR entries are indexed once
+            classpathAssets = ClasspathAssets.scan(configuredBasePath, classLoader());
+            basePath = classpathAssets.getDirectory();
+        } else if (StringUtils.hasText(configuredBasePath)) {
+            basePath = Paths.get(configuredBasePath).normalize();
+        }
+        VersionStrategy fileStrategy = strategy != null && strategy.isPerFile() ? strategy : null;
+        AssetIntegrity integrity = integrityOf(properties.getIntegrity());
+        AssetDigestCache.DigestLoader loader = basePath != null && (fileStrategy != null || integrity != null)
+                ? loaderFactory.create(fileStrategy, integrity, basePath) : null;
+        return new ResolverSnapshot(properties, useLocal, strategy, basePath, classpathAssets, integrity, loader);
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        return classLoader != null ? classLoader : ResolverSnapshot.class.getClassLoader();
+    }
+
+    /**
+     * Creates the loader hashing files below the asset base path on digest cache misses.
+     */
+    @FunctionalInterface
+    interface LoaderFactory {
+        /**
+         * @param strategy the {@linkplain VersionStrategy#isPerFile() per-file} version strategy, or
+         *                 {@code null} if versions don't depend on the file
+         * @param integrity the integrity algorithm, or {@code null} if integrity metadata is disabled
+         */
+        AssetDigestCache.DigestLoader create(VersionStrategy strategy, AssetIntegrity integrity, Path basePath);
+    }
+
+    private static AssetIntegrity integrityOf(AssetProperties.Integrity settings) {
+        if (settings == null || !settings.isEnabled()) {
+            return null;
+        }
+        try {
+            return AssetIntegrity.of(settings.getAlgorithm());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isDevelopmentEnvironment(Environment environment) {
+        String[] activeProfiles = environment.getActiveProfiles();
+        for (String profile : activeProfiles) {
+            if (profile.equalsIgnoreCase("dev") || profile.equalsIgnoreCase("development")) {
+                return true;
+            }
+        }
+        return activeProfiles.length == 0; // Consider default as dev
+    }
+
+    private static Map<String, CdnHosts> normalizeCdns(Map<String, String> cdns) {
+        if (cdns == null || cdns.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, CdnHosts> normalized = new HashMap<>();
+        cdns.forEach((name, urls) -> {
+            CdnHosts hosts = CdnHosts.parse(urls);
+            if (name != null && hosts != null) {
+                normalized.put(name, hosts);
+            }
+        });
+        return Map.copyOf(normalized);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns whether assets resolve to the local path unless a CDN is forced, i.e. local
+     * resolution in development is enabled and a development (or no) profile is active.
+     */
+    public boolean isUseLocal() {
+        return useLocal;
+    }
+
+    /**
+     * Returns the local path prefix, or {@code null} if none is configured.
+     */
+    public String getLocalPath() {
+        return localPath;
+    }
+
+    /**
+     * Returns the (first) base URL of the given CDN, or of the default CDN when no name is given,
+     * without a trailing slash; {@code null} if there is no such CDN.
+     */
+    public String getCdnUrl(String cdnName) {
+        CdnHosts hosts = getCdnHosts(cdnName);
+        return hosts != null ? hosts.getPrimary() : null;
+    }
+
+    /**
+     * Returns the base URL of the given CDN, or of the default CDN when no name is given, that
+     * the asset path is assigned to, see {@link CdnHosts}; {@code null} if there is no such CDN.
+     */
+    public String getCdnUrl(String cdnName, String path) {
+        CdnHosts hosts = getCdnHosts(cdnName);
+        return hosts != null ? hosts.select(path) : null;
+    }
+
+    /**
+     * Returns the CDN an asset resolves against: the given name if any, otherwise the CDN the
+     * {@linkplain #getCdnRules() path rules} assign the path to; {@code null} for the default CDN.
+     */
+    public String getCdnName(String cdnName, String path) {
+        if (StringUtils.hasText(cdnName) || cdnRules == null) {
+            return cdnName;
+        }
+        return cdnRules.match(path);
+    }
+
+    private CdnHosts getCdnHosts(String cdnName) {
+        return StringUtils.hasText(cdnName) ? cdns.get(cdnName) : defaultCdn;
+    }
+
+    /**
+     * Returns whether the URL starts with the base URL of the default or a named CDN.
+     */
+    public boolean isCdnUrl(String url) {
+        if (url == null) {
+            return false;
+        }
+        if (defaultCdn != null && defaultCdn.contains(url)) {
+            return true;
+        }
+        for (CdnHosts hosts : cdns.values()) {
+            if (hosts.contains(url)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CdnHosts getDefaultCdn() {
+        return defaultCdn;
+    }
+
+    public Map<String, CdnHosts> getCdns() {
+        return cdns;
+    }
+
+    /**
+     * Returns the compiled path rules, or {@code null} if none are configured.
+     */
+    public CdnRules getCdnRules() {
+        return cdnRules;
+    }
+
+    public boolean isVersionAssets() {
+        return versionAssets;
+    }
+
+    public String getVersionStrategyName() {
+        return versionStrategyName;
+    }
+
+    /**
+     * Returns the configured version strategy, or {@code null} if the name is unknown.
+     */
+    public VersionStrategy getVersionStrategy() {
+        return versionStrategy;
+    }
+
+    public int getVersionLength() {
+        return versionLength;
+    }
+
+    /**
+     * Returns the normalized asset base path, or {@code null} if none is configured.
+     */
+    public Path getAssetBasePath() {
+        return assetBasePath;
+    }
+
+    /**
+     * Returns the assets of a {@code classpath:} asset base path, or {@code null} if the base path
+     * is not a classpath location. Assets inside a JAR have no {@linkplain #getAssetBasePath() base path}
+     * and are versioned from their indexed entries.
+     */
+    public ClasspathAssets getClasspathAssets() {
+        return classpathAssets;
+    }
+
+    /**
+     * Converts a web-facing path (e.g. "/assets/test.css" or "image.jpg") into a path
+     * relative to the asset base directory by removing the local path prefix and leading slash.
+     */
+    public String toRelativeAssetPath(String path) {
+        // If the path starts with the localPath (e.g., "/assets"), remove it.
+        // Otherwise, assume it's directly relative to the assetBasePath.
+        int start = localPath != null && path.startsWith(localPath) ? localPath.length() : 0;
+        // Remove leading slash if present after localPath removal
+        if (path.startsWith("/", start)) {
+            start++;
+        }
+        return start == 0 ? path : path.substring(start);
+    }
+
+    /**
+     * Returns the integrity algorithm, or {@code null} if integrity metadata is disabled or the
+     * configured algorithm is not supported.
+     */
+    public AssetIntegrity getIntegrity() {
+        return integrity;
+    }
+
+    /**
+     * Returns the digest loader computing per-file versions and integrity metadata, content digests
+     * in one read pass, or {@code null} if neither depends on the file or no asset base path is configured.
+     */
+    AssetDigestCache.DigestLoader getDigestLoader() {
+        return digestLoader;
+    }
+}
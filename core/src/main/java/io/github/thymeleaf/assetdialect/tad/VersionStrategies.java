@@ -0,0 +1,102 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.zip.CRC32C;
+
+/**
+ * Built-in {@link VersionStrategy} implementations.
+ *
+ * <ul>
+ *     <li>{@code hash} / {@code md5} - MD5 content hash, 32 hex characters (default)</li>
+ *     <li>{@code sha256} - SHA-256 content hash truncated to 16 hex characters</li>
+ *     <li>{@code crc32c} - CRC32C content checksum, 8 hex characters</li>
+ *     <li>{@code xxhash64} - 64-bit xxHash content fingerprint, 16 hex characters</li>
+ *     <li>{@code build} / {@code timestamp} - build time in milliseconds, the same for all assets
+ *     (see {@link BuildStampVersionStrategy})</li>
+ *     <li>{@code lastmodified} - last-modified time of the file in milliseconds</li>
+ * </ul>
+ *
+ * CRC32C and xxHash64 are not cryptographic but are considerably faster than MD5 or SHA-256,
+ * which is all cache busting needs. The build and last-modified strategies don't read file content;
+ * they are stable while the application runs and identical across the nodes of a release as long
+ * as the build stamp and file times come from the same artifact.
+ */
+public final class VersionStrategies {
+
+    public static final ContentVersionStrategy MD5 =
+            new ContentVersionStrategy("md5", 32, () -> Fingerprint.of(messageDigest("MD5")));
+
+    public static final ContentVersionStrategy HASH =
+            new ContentVersionStrategy("hash", 32, () -> Fingerprint.of(messageDigest("MD5")));
+
+    public static final ContentVersionStrategy SHA256 =
+            new ContentVersionStrategy("sha256", 16, () -> Fingerprint.of(messageDigest("SHA-256")));
+
+    public static final ContentVersionStrategy CRC32C =
+            new ContentVersionStrategy("crc32c", 8, () -> Fingerprint.of(new CRC32C()));
+
+    public static final ContentVersionStrategy XXHASH64 =
+            new ContentVersionStrategy("xxhash64", 16, XxHash64::new);
+
+    public static final BuildStampVersionStrategy BUILD = new BuildStampVersionStrategy("build", null);
+
+    /**
+     * Alias of {@link #BUILD}, kept for configurations written when {@code timestamp} was the
+     * current time of every resolve.
+     */
+    public static final BuildStampVersionStrategy TIMESTAMP = new BuildStampVersionStrategy("timestamp", null);
+
+    public static final VersionStrategy LAST_MODIFIED = new VersionStrategy() {
+        @Override
+        public String getName() {
+            return "lastmodified";
+        }
+
+        @Override
+        public String getVersion(Path file, AssetDigester digester) throws IOException {
+            if (file == null) {
+                return null;
+            }
+            try {
+                return String.valueOf(Files.getLastModifiedTime(file).toMillis());
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+    };
+
+    private VersionStrategies() {
+    }
+
+    /**
+     * Returns the built-in strategies followed by those registered through {@link ServiceLoader},
+     * keyed by name. Service-loaded strategies override built-ins with the same name.
+     */
+    public static Map<String, VersionStrategy> discover() {
+        Map<String, VersionStrategy> strategies = new LinkedHashMap<>();
+        VersionStrategy[] builtIns = {HASH, MD5, SHA256, CRC32C, XXHASH64, BUILD, TIMESTAMP, LAST_MODIFIED};
+        for (VersionStrategy strategy : builtIns) {
+            strategies.put(strategy.getName(), strategy);
+        }
+        for (VersionStrategy strategy : ServiceLoader.load(VersionStrategy.class)) {
+            strategies.put(strategy.getName(), strategy);
+        }
+        return strategies;
+    }
+
+    private static MessageDigest messageDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " algorithm not available", e);
+        }
+    }
+}
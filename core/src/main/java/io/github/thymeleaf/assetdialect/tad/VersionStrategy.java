@@ -0,0 +1,41 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Computes the version embedded in asset URLs for cache busting.
+ * Strategies are selected by name through {@code tad.version-strategy}; custom
+ * implementations can be registered with {@link DefaultAssetResolver#registerVersionStrategy}
+ * or through {@link java.util.ServiceLoader} ({@code META-INF/services/io.github.thymeleaf.assetdialect.tad.VersionStrategy}).
+ *
+ * @see ContentVersionStrategy
+ * @see VersionStrategies
+ */
+public interface VersionStrategy {
+
+    /**
+     * Returns the name used to select this strategy in configuration.
+     */
+    String getName();
+
+    /**
+     * Computes the version of an asset.
+     *
+     * @param file the asset file inside the asset base path, which may not exist,
+     *             or {@code null} when no base path is configured
+     * @param digester the digest engine to read file content with
+     * @return the version, or {@code null} to leave the asset unversioned
+     */
+    String getVersion(Path file, AssetDigester digester) throws IOException;
+
+    /**
+     * Returns whether the version depends on the asset file. Versions of files are computed only
+     * for files inside the asset base path, cached in the digest cache like content versions, and
+     * computed again once the size or last-modified time of the file changes. Strategies returning
+     * {@code false} are asked on every resolution without a file being looked at.
+     */
+    default boolean isPerFile() {
+        return true;
+    }
+}
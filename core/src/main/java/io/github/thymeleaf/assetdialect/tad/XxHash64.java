@@ -0,0 +1,113 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of the 64-bit xxHash (XXH64) fingerprint with seed 0.
+ * Not cryptographic; used for fast cache-busting versions.
+ */
+final class XxHash64 implements Fingerprint {
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE = 32;
+
+    private long v1 = PRIME64_1 + PRIME64_2;
+    private long v2 = PRIME64_2;
+    private long v3 = 0;
+    private long v4 = -PRIME64_1;
+    private long totalLength;
+
+    private final ByteBuffer pending = ByteBuffer.allocate(STRIPE).order(ByteOrder.LITTLE_ENDIAN);
+
+    @Override
+    public void update(ByteBuffer data) {
+        ByteOrder originalOrder = data.order();
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            totalLength += data.remaining();
+
+            if (pending.position() > 0) {
+                while (pending.hasRemaining() && data.hasRemaining()) {
+                    pending.put(data.get());
+                }
+                if (pending.hasRemaining()) {
+                    return;
+                }
+                pending.flip();
+                processStripe(pending);
+                pending.clear();
+            }
+
+            while (data.remaining() >= STRIPE) {
+                processStripe(data);
+            }
+
+            while (data.hasRemaining()) {
+                pending.put(data.get());
+            }
+        } finally {
+            data.order(originalOrder);
+        }
+    }
+
+    @Override
+    public byte[] digest() {
+        long hash;
+        if (totalLength >= STRIPE) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = PRIME64_5;
+        }
+        hash += totalLength;
+
+        pending.flip();
+        while (pending.remaining() >= 8) {
+            hash ^= round(0, pending.getLong());
+            hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (pending.remaining() >= 4) {
+            hash ^= (pending.getInt() & 0xFFFFFFFFL) * PRIME64_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+        }
+        while (pending.hasRemaining()) {
+            hash ^= (pending.get() & 0xFFL) * PRIME64_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+
+        return ByteBuffer.allocate(Long.BYTES).putLong(hash).array();
+    }
+
+    private void processStripe(ByteBuffer data) {
+        v1 = round(v1, data.getLong());
+        v2 = round(v2, data.getLong());
+        v3 = round(v3, data.getLong());
+        v4 = round(v4, data.getLong());
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME64_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME64_1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME64_1 + PRIME64_4;
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap allocation of the current thread in allocation tests.
+ */
+final class Allocations {
+
+    private Allocations() {
+    }
+
+    /**
+     * Returns the number of bytes the current thread allocated while running the action.
+     */
+    static long allocatedBytes(ThrowingRunnable action) throws Exception {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        action.run();
+        return threadBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.DigestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AssetBundleProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path assets;
+    private Path output;
+    private AssetBundles bundles;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assets = tempDir.resolve("static");
+        output = tempDir.resolve("out");
+        Files.createDirectories(assets.resolve("js"));
+        Files.writeString(assets.resolve("js/a.js"), "var a = 1");
+        Files.writeString(assets.resolve("js/b.js"), "var b = 2;");
+        AssetBundles definitions = AssetBundles.read(new ByteArrayInputStream(
+                "{\"bundles\":{\"vendor\":{\"assets\":[\"js/a.js\",\"js/b.js\"]}}}".getBytes(StandardCharsets.UTF_8)));
+        bundles = new AssetBundler(assets, output).bundle(definitions);
+    }
+
+    @Test
+    void shouldConcatenateAssetsAndRecordDigest() throws Exception {
+        String content = Files.readString(output.resolve("bundles/vendor.js"));
+
+        assertThat(content).isEqualTo("var a = 1;\nvar b = 2;");
+        AssetBundles.Bundle bundle = bundles.get("vendor");
+        assertThat(bundle.getPath()).isEqualTo("bundles/vendor.js");
+        assertThat(bundle.getDigest()).isEqualTo(DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldRoundTripThroughJson() throws Exception {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        bundles.write(json);
+
+        AssetBundles read = AssetBundles.read(new ByteArrayInputStream(json.toByteArray()));
+
+        assertThat(read.get("vendor").getAssets()).containsExactly("js/a.js", "js/b.js");
+        assertThat(read.getByPath("bundles/vendor.js").getDigest()).isEqualTo(bundles.get("vendor").getDigest());
+    }
+
+    @Test
+    void shouldRejectAssetsOutsideBasePath() {
+        AssetBundles definitions = new AssetBundles(Map.of("evil",
+                new AssetBundles.Bundle("bundles/evil.js", List.of("../secret.js"), null)));
+
+        assertThatThrownBy(() -> new AssetBundler(assets, output).bundle(definitions))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRenderOneVersionedUrlInProduction() {
+        String result = render("prod", "<script tad:bundle=\"vendor\" defer></script>");
+
+        assertThat(result).contains("src=\"https://cdn.example.com/bundles/vendor."
+                + bundles.get("vendor").getDigest() + ".js\"").contains("defer").doesNotContain("tad:");
+    }
+
+    @Test
+    void shouldExpandIntoIndividualElementsInDevelopment() {
+        String result = render("dev", "<script tad:bundle=\"vendor\" defer></script>");
+
+        assertThat(result.split("</script>", -1)).hasSize(3);
+        assertThat(result).matches("(?s)<script[^>]* src=\"/static/js/a\\.[0-9a-f]{32}\\.js\"[^>]*></script>\n"
+                + "<script[^>]* src=\"/static/js/b\\.[0-9a-f]{32}\\.js\"[^>]*></script>");
+        assertThat(result).doesNotContain("tad:");
+    }
+
+    @Test
+    void shouldUseHrefForLinkElements() throws Exception {
+        Files.writeString(assets.resolve("site.css"), "body{}");
+        AssetBundles styles = new AssetBundler(assets, output).bundle(new AssetBundles(Map.of("site",
+                new AssetBundles.Bundle("bundles/site.css", List.of("site.css"), null))));
+        bundles = styles;
+
+        assertThat(render("prod", "<link rel=\"stylesheet\" tad:bundle=\"site\">"))
+                .matches("<link rel=\"stylesheet\"\\s+href=\"https://cdn\\.example\\.com/bundles/site\\.[0-9a-f]{32}\\.css\">");
+        assertThat(render("dev", "<link rel=\"stylesheet\" tad:bundle=\"site\">"))
+                .matches("<link rel=\"stylesheet\"\\s+href=\"/static/site\\.[0-9a-f]{32}\\.css\">");
+    }
+
+    @Test
+    void shouldRejectUnknownBundles() {
+        assertThatThrownBy(() -> render("prod", "<script tad:bundle=\"missing\"></script>"))
+                .hasRootCauseMessage("Unknown asset bundle: missing");
+    }
+
+    private String render(String profile, String template) {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setLocalPath("/static");
+        properties.setAssetBasePath(assets.toString());
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(profile);
+        DefaultAssetResolver resolver = new DefaultAssetResolver(properties, environment);
+        resolver.setBundles(bundles);
+
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new AssetDialect(properties, resolver, ImageVariants.empty(), bundles));
+        return engine.process(template, new Context());
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetCompressorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldWriteGzipCopiesOfCompressibleAssets() throws Exception {
+        String css = "body { margin: 0; padding: 0; }\n".repeat(100);
+        Files.createDirectories(tempDir.resolve("css"));
+        Files.writeString(tempDir.resolve("css/site.css"), css);
+        Files.writeString(tempDir.resolve("image.png"), "not really an image ".repeat(100));
+        Path output = tempDir.resolve("out");
+
+        int compressed = new AssetCompressor(tempDir, output).compress();
+
+        assertThat(compressed).isEqualTo(1);
+        Path gzip = output.resolve("css/site.css.gz");
+        assertThat(Files.size(gzip)).isLessThan(css.length() / 10);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(css);
+        }
+        assertThat(output.resolve("image.png.gz")).doesNotExist();
+    }
+
+    @Test
+    void shouldSkipAssetsThatDoNotCompress() throws Exception {
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+        Files.write(tempDir.resolve("random.txt"), random);
+        Files.writeString(tempDir.resolve("tiny.js"), "a();");
+
+        int compressed = new AssetCompressor(tempDir).compress();
+
+        assertThat(compressed).isZero();
+        assertThat(tempDir.resolve("random.txt.gz")).doesNotExist();
+        assertThat(tempDir.resolve("tiny.js.gz")).doesNotExist();
+    }
+
+    @Test
+    void shouldKeepUpToDateCopiesAndReplaceStaleOnes() throws Exception {
+        Path js = tempDir.resolve("app.js");
+        Files.writeString(js, "console.log('first');\n".repeat(50));
+        AssetCompressor compressor = new AssetCompressor(tempDir);
+        compressor.compress();
+        Path gzip = tempDir.resolve("app.js.gz");
+        FileTime written = Files.getLastModifiedTime(gzip);
+
+        compressor.compress();
+        assertThat(Files.getLastModifiedTime(gzip)).isEqualTo(written);
+
+        Files.writeString(js, "console.log('second');\n".repeat(50));
+        Files.setLastModifiedTime(js, FileTime.fromMillis(written.toMillis() + 1000));
+        compressor.compress();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).startsWith("console.log('second');");
+        }
+    }
+}
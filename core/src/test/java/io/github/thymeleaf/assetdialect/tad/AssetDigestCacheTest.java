@@ -0,0 +1,177 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AssetDigestCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldComputeDigestOnlyOncePerFile() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.js"), "console.log('a');");
+        AssetDigestCache cache = new AssetDigestCache(10, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        String first = cache.get(file, f -> "digest-" + loads.incrementAndGet());
+        String second = cache.get(file, f -> "digest-" + loads.incrementAndGet());
+
+        assertThat(first).isEqualTo("digest-1");
+        assertThat(second).isEqualTo("digest-1");
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecomputeWhenFileChanges() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.css"), "body{}");
+        AssetDigestCache cache = new AssetDigestCache(10, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(file, f -> "digest-" + loads.incrementAndGet());
+        Files.writeString(file, "body{color:red}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        String digest = cache.get(file, f -> "digest-" + loads.incrementAndGet());
+
+        assertThat(digest).isEqualTo("digest-2");
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldExpireEntriesAfterWrite() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.css"), "body{}");
+        AssetDigestCache cache = new AssetDigestCache(10, Duration.ofNanos(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(file, f -> "digest-" + loads.incrementAndGet());
+        Thread.sleep(1);
+        cache.get(file, f -> "digest-" + loads.incrementAndGet());
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldKeepGenerationWhenReloadedDigestsAreUnchanged() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.css"), "body{}");
+        AssetDigestCache cache = new AssetDigestCache(10, Duration.ofNanos(1));
+        cache.get(file, f -> "digest");
+        long generation = cache.getGeneration();
+
+        Thread.sleep(1);
+        cache.get(file, f -> "digest");
+        cache.refresh(List.of(file), f -> "digest");
+        cache.refreshAll(f -> "digest");
+
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getGeneration()).isEqualTo(generation);
+
+        cache.refresh(List.of(file), f -> "changed");
+        assertThat(cache.getGeneration()).isGreaterThan(generation);
+    }
+
+    @Test
+    void shouldEvictOldestEntriesBeyondMaxSize() throws Exception {
+        AssetDigestCache cache = new AssetDigestCache(2, null);
+        for (int i = 0; i < 5; i++) {
+            Path file = Files.writeString(tempDir.resolve("file" + i + ".js"), "x" + i);
+            cache.get(file, f -> f.getFileName().toString());
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictInWriteOrderAfterRefreshes() throws Exception {
+        AssetDigestCache cache = new AssetDigestCache(2, null);
+        Path first = Files.writeString(tempDir.resolve("first.js"), "a");
+        Path second = Files.writeString(tempDir.resolve("second.js"), "b");
+        cache.get(first, f -> "v1");
+        cache.get(second, f -> "v1");
+        for (int i = 0; i < 10; i++) {
+            cache.refresh(List.of(first), f -> "v2");
+        }
+
+        cache.get(Files.writeString(tempDir.resolve("third.js"), "c"), f -> "v1");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(first, f -> "reloaded")).isEqualTo("v2");
+        assertThat(cache.get(second, f -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void shouldFailForMissingFilesWithoutCaching() {
+        AssetDigestCache cache = new AssetDigestCache(10, null);
+
+        assertThatThrownBy(() -> cache.get(tempDir.resolve("missing.css"), f -> "digest"))
+                .isInstanceOf(IOException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldBeSafeUnderConcurrentAccess() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("main.js"), "main");
+        AssetDigestCache cache = new AssetDigestCache(10, null);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    String digest = null;
+                    for (int j = 0; j < 100; j++) {
+                        digest = cache.get(file, f -> "digest");
+                    }
+                    return digest;
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("digest");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.getHitCount() + cache.getMissCount()).isEqualTo(threads * 100L);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeRepeatedResolutionsFromCache() throws Exception {
+        Files.writeString(tempDir.resolve("test.css"), "body{}");
+        AssetProperties properties = new AssetProperties();
+        properties.setAssetBasePath(tempDir.toString());
+        properties.setDefaultCdn("https://cdn.example.com");
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        DefaultAssetResolver resolver = new DefaultAssetResolver(properties, environment);
+
+        String first = resolver.resolve("/test.css");
+        String second = resolver.resolve("/test.css");
+
+        assertThat(first).isEqualTo(second).matches("https://cdn\\.example\\.com/test\\.[0-9a-f]{32}\\.css");
+        assertThat(resolver.getDigestCache().getMissCount()).isEqualTo(1);
+        assertThat(resolver.getDigestCache().getHitCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetDigestIndexTest {
+
+    private static final String SCHEME = "md5/sha384";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReuseDigestsOfUnchangedFilesAfterReopening() throws Exception {
+        Path assets = Files.createDirectories(tempDir.resolve("static/css"));
+        Path site = Files.writeString(assets.resolve("site.css"), "body{}");
+        Path theme = Files.writeString(assets.resolve("theme.css"), "p{}");
+        Path indexFile = tempDir.resolve("cache/digests.idx");
+
+        AssetDigestIndex index = AssetDigestIndex.open(indexFile, tempDir.resolve("static"), SCHEME);
+        index.record(site, attributes(site), new AssetDigestCache.Digests("v1", "sha384-a"));
+        index.record(theme, attributes(theme), new AssetDigestCache.Digests("v2", null));
+        assertThat(index.flush()).isTrue();
+        assertThat(index.flush()).isFalse();
+
+        Files.writeString(theme, "p{color:red}");
+        AssetDigestIndex reopened = AssetDigestIndex.open(indexFile, tempDir.resolve("static"), SCHEME);
+
+        AssetDigestCache.Digests digests = reopened.lookup(site, attributes(site));
+        assertThat(digests.getVersion()).isEqualTo("v1");
+        assertThat(digests.getIntegrity()).isEqualTo("sha384-a");
+        assertThat(reopened.lookup(theme, attributes(theme))).isNull();
+        assertThat(reopened.getHitCount()).isEqualTo(1);
+        assertThat(indexFile.getParent().toFile().list()).containsExactly("digests.idx");
+    }
+
+    @Test
+    void shouldIgnoreIndexOfOtherSchemeOrCorruptIndex() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.js"), "app();");
+        Path indexFile = tempDir.resolve("digests.idx");
+        AssetDigestIndex index = AssetDigestIndex.open(indexFile, tempDir, SCHEME);
+        index.record(file, attributes(file), new AssetDigestCache.Digests("v1", null));
+        index.flush();
+
+        assertThat(AssetDigestIndex.open(indexFile, tempDir, "sha256/-").size()).isZero();
+
+        byte[] bytes = Files.readAllBytes(indexFile);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(indexFile, bytes);
+        assertThat(AssetDigestIndex.open(indexFile, tempDir, SCHEME).size()).isZero();
+
+        Files.write(indexFile, new byte[] {1, 2, 3});
+        assertThat(AssetDigestIndex.open(indexFile, tempDir, SCHEME).size()).isZero();
+    }
+
+    @Test
+    void shouldDropEntriesOfDeletedFiles() throws Exception {
+        Path kept = Files.writeString(tempDir.resolve("kept.js"), "a();");
+        Path removed = Files.writeString(tempDir.resolve("removed.js"), "b();");
+        Path indexFile = tempDir.resolve("digests.idx");
+        AssetDigestIndex index = AssetDigestIndex.open(indexFile, tempDir, SCHEME);
+        index.record(kept, attributes(kept), new AssetDigestCache.Digests("v1", null));
+        index.record(removed, attributes(removed), new AssetDigestCache.Digests("v2", null));
+        index.flush();
+
+        Files.delete(removed);
+        index.forget(removed);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.flush()).isTrue();
+
+        assertThat(AssetDigestIndex.open(indexFile, tempDir, SCHEME).size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropEntriesBelowDeletedDirectories() throws Exception {
+        Path kept = Files.writeString(tempDir.resolve("kept.js"), "a();");
+        Path images = Files.createDirectories(tempDir.resolve("images"));
+        Path logo = Files.writeString(images.resolve("logo.svg"), "<svg/>");
+        AssetDigestIndex index = AssetDigestIndex.open(tempDir.resolve("digests.idx"), tempDir, SCHEME);
+        index.record(kept, attributes(kept), new AssetDigestCache.Digests("v1", null));
+        index.record(logo, attributes(logo), new AssetDigestCache.Digests("v2", null));
+        index.flush();
+
+        index.forget(images);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.lookup(kept, attributes(kept))).isNotNull();
+    }
+
+    @Test
+    void shouldFlushWithoutCheckingFilesAndDropUnconfirmedEntries() throws Exception {
+        Path kept = Files.writeString(tempDir.resolve("kept.js"), "a();");
+        Path removed = Files.writeString(tempDir.resolve("removed.js"), "b();");
+        Path indexFile = tempDir.resolve("digests.idx");
+        AssetDigestIndex index = AssetDigestIndex.open(indexFile, tempDir, SCHEME);
+        index.record(kept, attributes(kept), new AssetDigestCache.Digests("v1", null));
+        index.record(removed, attributes(removed), new AssetDigestCache.Digests("v2", null));
+        index.flush();
+
+        // Deleted while the application was down
+        Files.delete(removed);
+        AssetDigestIndex reopened = AssetDigestIndex.open(indexFile, tempDir, SCHEME);
+        assertThat(reopened.flush()).isFalse();
+        assertThat(reopened.lookup(kept, attributes(kept))).isNotNull();
+        reopened.forgetUnconfirmed();
+        assertThat(reopened.flush()).isTrue();
+
+        assertThat(AssetDigestIndex.open(indexFile, tempDir, SCHEME).size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetFilesTheResolverFindsDeleted() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.js"), "console.log('a');");
+        DefaultAssetResolver resolver = resolver();
+        resolver.resolve("/app.js");
+        resolver.flushDigestIndex();
+
+        Files.delete(file);
+        resolver.refreshVersions(List.of(file));
+
+        assertThat(resolver.getDigestIndex().size()).isZero();
+        assertThat(resolver.flushDigestIndex()).isTrue();
+    }
+
+    @Test
+    void shouldVersionFromIndexWithoutHashingAfterRestart() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.js"), "console.log('a');");
+        String version = DigestUtils.md5DigestAsHex("console.log('a');".getBytes(StandardCharsets.UTF_8));
+
+        DefaultAssetResolver resolver = resolver();
+        assertThat(resolver.resolve("/app.js")).isEqualTo("https://cdn.example.com/app." + version + ".js");
+        assertThat(resolver.flushDigestIndex()).isTrue();
+
+        // Same size and last-modified time: the restarted resolver trusts the index instead of hashing
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Files.writeString(file, "console.log('b');");
+        Files.setLastModifiedTime(file, lastModified);
+        DefaultAssetResolver restarted = resolver();
+
+        assertThat(restarted.resolve("/app.js")).isEqualTo("https://cdn.example.com/app." + version + ".js");
+        assertThat(restarted.getDigestIndex().getHitCount()).isEqualTo(1);
+        assertThat(restarted.flushDigestIndex()).isFalse();
+    }
+
+    private DefaultAssetResolver resolver() {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.setVersionStrategy("md5");
+        properties.getCaching().setIndexLocation(tempDir.resolve("index/digests.idx").toString());
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        return new DefaultAssetResolver(properties, environment);
+    }
+
+    private static BasicFileAttributes attributes(Path file) throws Exception {
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static io.github.thymeleaf.assetdialect.tad.Allocations.allocatedBytes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetDigesterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldMatchInMemoryDigestWhenReadingThroughBuffers() throws Exception {
+        byte[] content = randomBytes(300_000);
+        Path file = Files.write(tempDir.resolve("bundle.js"), content);
+        AssetDigester digester = new AssetDigester(DataSize.ofKilobytes(4), DataSize.ofMegabytes(8));
+
+        assertThat(digester.md5Hex(file)).isEqualTo(DigestUtils.md5DigestAsHex(content));
+    }
+
+    @Test
+    void shouldMatchInMemoryDigestWhenMemoryMapping() throws Exception {
+        byte[] content = randomBytes(300_000);
+        Path file = Files.write(tempDir.resolve("video.mp4"), content);
+        AssetDigester digester = new AssetDigester(DataSize.ofKilobytes(4), DataSize.ofKilobytes(1));
+
+        assertThat(digester.md5Hex(file)).isEqualTo(DigestUtils.md5DigestAsHex(content));
+    }
+
+    @Test
+    void shouldFeedSeveralDigestsInOnePass() throws Exception {
+        byte[] content = randomBytes(10_000);
+        Path file = Files.write(tempDir.resolve("styles.css"), content);
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+
+        long read = new AssetDigester().update(file, Fingerprint.of(md5), Fingerprint.of(sha256));
+
+        assertThat(read).isEqualTo(content.length);
+        assertThat(HexFormat.of().formatHex(md5.digest())).isEqualTo(DigestUtils.md5DigestAsHex(content));
+        assertThat(sha256.digest()).isEqualTo(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    @Test
+    void shouldKeepHeapAllocationIndependentOfFileSize() throws Exception {
+        Path small = Files.write(tempDir.resolve("small.js"), randomBytes(64 * 1024));
+        Path large = Files.write(tempDir.resolve("large.js"), randomBytes(16 * 1024 * 1024));
+        AssetDigester digester = new AssetDigester();
+        digester.md5Hex(small);
+        digester.md5Hex(large);
+
+        long smallAllocation = allocatedBytes(() -> digester.md5Hex(small));
+        long largeAllocation = allocatedBytes(() -> digester.md5Hex(large));
+
+        assertThat(largeAllocation).isLessThan(smallAllocation + 64 * 1024);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
+
@@ -0,0 +1,147 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetIntegrityProcessorTest {
+
+    private static final String SCRIPT = "console.log('app');";
+
+    @TempDir
+    Path tempDir;
+
+    private AssetProperties properties;
+    private MockEnvironment environment;
+    private DefaultAssetResolver resolver;
+    private TemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(tempDir.resolve("js"));
+        Files.writeString(tempDir.resolve("js/app.js"), SCRIPT);
+        properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setCdns(Map.of("static", "https://static.example.com"));
+        properties.setLocalPath("/assets");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.getIntegrity().setEnabled(true);
+        environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new DefaultAssetResolver(properties, environment);
+        engine = engineFor(resolver);
+    }
+
+    @Test
+    void shouldComputeVersionAndIntegrityInOneReadPass() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        resolver.getDigester().setReadListener(bytes -> reads.incrementAndGet());
+
+        String url = resolver.resolve("/js/app.js");
+        String integrity = resolver.resolveIntegrity("/js/app.js");
+
+        assertThat(url).matches("https://cdn\\.example\\.com/js/app\\.[0-9a-f]{32}\\.js");
+        assertThat(integrity).isEqualTo(sha384(SCRIPT));
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void shouldAddIntegrityAndCrossoriginForCdnUrls() throws Exception {
+        String output = engine.process("<script tad:src=\"/js/app.js\" tad:integrity></script>", new Context());
+
+        assertThat(output).contains("integrity=\"" + sha384(SCRIPT) + "\"")
+                .contains("crossorigin=\"anonymous\"")
+                .doesNotContain("tad:");
+    }
+
+    @Test
+    void shouldKeepExplicitCrossorigin() {
+        String output = engine.process(
+                "<script tad:src=\"/js/app.js\" tad:cdn=\"static\" tad:integrity crossorigin=\"use-credentials\"></script>",
+                new Context());
+
+        assertThat(output).contains("src=\"https://static.example.com/js/app.")
+                .contains("crossorigin=\"use-credentials\"")
+                .doesNotContain("anonymous");
+    }
+
+    @Test
+    void shouldOmitCrossoriginForLocalUrls() throws Exception {
+        String output = engine.process("<script tad:src=\"/js/app.js\" tad:local=\"true\" tad:integrity></script>",
+                new Context());
+
+        assertThat(output).contains("integrity=\"" + sha384(SCRIPT) + "\"").doesNotContain("crossorigin");
+    }
+
+    @Test
+    void shouldResolveIntegrityOfExplicitPathAgainstHref() throws Exception {
+        Files.createDirectories(tempDir.resolve("css"));
+        Files.writeString(tempDir.resolve("css/site.css"), "body{}");
+
+        String output = engine.process(
+                "<link rel=\"stylesheet\" href=\"https://static.example.com/css/site.css\" tad:integrity=\"/css/site.css\">",
+                new Context());
+
+        assertThat(output).contains("integrity=\"" + sha384("body{}") + "\"")
+                .contains("crossorigin=\"anonymous\"")
+                .doesNotContain("tad:integrity");
+    }
+
+    @Test
+    void shouldLeaveElementsUntouchedWhenDisabled() {
+        properties.getIntegrity().setEnabled(false);
+        resolver.refresh();
+
+        String output = engine.process("<script tad:src=\"/js/app.js\" tad:integrity></script>", new Context());
+
+        assertThat(output).doesNotContain("integrity").doesNotContain("crossorigin");
+    }
+
+    @Test
+    void shouldServeIntegrityFromManifest() throws Exception {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new AssetManifestGenerator(tempDir).generate().write(json);
+        AssetManifest manifest = AssetManifest.read(new ByteArrayInputStream(json.toByteArray()));
+        properties.setAssetBasePath(tempDir.resolve("does-not-exist").toString());
+        ManifestAssetResolver manifestResolver = new ManifestAssetResolver(properties, environment, manifest);
+
+        assertThat(manifest.get("js/app.js").getIntegrity()).isEqualTo(sha384(SCRIPT));
+        assertThat(manifestResolver.resolveIntegrity("/js/app.js")).isEqualTo(sha384(SCRIPT));
+    }
+
+    @Test
+    void shouldNotHashFilesMissingFromManifest() {
+        ManifestAssetResolver manifestResolver = new ManifestAssetResolver(properties, environment,
+                new AssetManifest(Map.of()));
+
+        assertThat(manifestResolver.resolveIntegrity("/js/app.js")).isNull();
+    }
+
+    private static TemplateEngine engineFor(AssetResolver resolver) {
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new AssetDialect(null, resolver));
+        return engine;
+    }
+
+    private static String sha384(String content) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-384").digest(content.getBytes(StandardCharsets.UTF_8));
+        return "sha384-" + Base64.getEncoder().encodeToString(digest);
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldGenerateManifestWithResolverVersioningRules() throws Exception {
+        Path css = tempDir.resolve("css");
+        Files.createDirectories(css);
+        Files.writeString(css.resolve("styles.css"), "body{}");
+        Files.writeString(tempDir.resolve("malware.exe"), "nope");
+
+        AssetManifest manifest = new AssetManifestGenerator(tempDir).generate();
+
+        String digest = DigestUtils.md5DigestAsHex("body{}".getBytes(StandardCharsets.UTF_8));
+        AssetManifest.Entry entry = manifest.get("css/styles.css");
+        assertThat(entry.getDigest()).isEqualTo(digest);
+        assertThat(entry.getVersionedPath()).isEqualTo("css/styles." + digest + ".css");
+        assertThat(entry.getSize()).isEqualTo(6);
+        assertThat(manifest.get("malware.exe")).isNull();
+    }
+
+    @Test
+    void shouldRoundTripThroughJson() throws Exception {
+        Files.writeString(tempDir.resolve("main.js"), "console.log(1);");
+        Path output = tempDir.resolve("out").resolve(AssetManifest.DEFAULT_FILE_NAME);
+
+        AssetManifest written = new AssetManifestGenerator(tempDir).writeTo(output);
+        AssetManifest loaded = AssetManifest.load(new FileSystemResource(output));
+
+        assertThat(loaded.size()).isEqualTo(written.size());
+        assertThat(loaded.get("main.js").getDigest()).isEqualTo(written.get("main.js").getDigest());
+    }
+
+    @Test
+    void shouldResolveVersionsFromManifestWithoutFilesystem() {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(tempDir.resolve("does-not-exist").toString());
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        AssetManifest manifest = new AssetManifest(Map.of(
+                "css/styles.css", new AssetManifest.Entry("css/styles.abc123.css", "abc123", 6)));
+        ManifestAssetResolver resolver = new ManifestAssetResolver(properties, environment, manifest);
+
+        assertThat(resolver.resolve("/css/styles.css")).isEqualTo("https://cdn.example.com/css/styles.abc123.css");
+        assertThat(resolver.resolve("/css/unknown.css")).isEqualTo("https://cdn.example.com/css/unknown.css");
+    }
+
+    @Test
+    void shouldTruncateManifestVersionsLikeDefaultResolver() throws Exception {
+        Files.writeString(tempDir.resolve("main.js"), "console.log(1);");
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.setVersionLength(8);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        AssetManifest manifest = new AssetManifestGenerator(tempDir).generate();
+
+        String fromManifest = new ManifestAssetResolver(properties, environment, manifest).resolve("/main.js");
+
+        assertThat(fromManifest).isEqualTo(new DefaultAssetResolver(properties, environment).resolve("/main.js"));
+        assertThat(fromManifest).isEqualTo("https://cdn.example.com/main."
+                + manifest.get("main.js").getDigest().substring(0, 8) + ".js");
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AssetMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry registry;
+    private DefaultAssetResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(tempDir.resolve("js"));
+        Files.writeString(tempDir.resolve("js/app.js"), "console.log('app');");
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setCdns(Map.of("images", "https://img.example.com"));
+        properties.setLocalPath("/static");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.setVersionStrategy("crc32c");
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new DefaultAssetResolver(properties, environment);
+        registry = new SimpleMeterRegistry();
+        new AssetMetrics(resolver).bindTo(registry);
+    }
+
+    @Test
+    void shouldTimeResolutionsByModeAndCdn() {
+        resolver.resolve("/js/app.js");
+        resolver.resolve("/js/app.js", "images", false);
+        resolver.resolve("/js/app.js", null, true);
+        resolver.resolve("/js/app.js", "unknown", false);
+
+        assertThat(registry.get("tad.resolve").tags("mode", "cdn", "cdn", "default").timer().count()).isEqualTo(1);
+        assertThat(registry.get("tad.resolve").tags("mode", "cdn", "cdn", "images").timer().count()).isEqualTo(1);
+        assertThat(registry.get("tad.resolve").tags("mode", "local", "cdn", "none").timer().count()).isEqualTo(1);
+        assertThat(registry.get("tad.resolve").tags("mode", "passthrough", "cdn", "none").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountDigestCacheLookupsAndBytesRead() {
+        resolver.resolve("/js/app.js");
+        resolver.resolve("/js/app.js");
+
+        assertThat(registry.get("tad.digest.cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("tad.digest.cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("tad.hash.read").summary().count()).isEqualTo(1);
+        assertThat(registry.get("tad.hash.read").summary().totalAmount()).isEqualTo(19);
+    }
+
+    @Test
+    void shouldCountRejectionsByReason() {
+        assertThatThrownBy(() -> resolver.resolve("../secret.js")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> resolver.resolve("script.bat")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> resolver.resolve("/etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(registry.get("tad.security.rejections").tag("reason", "traversal").counter().count()).isEqualTo(1);
+        assertThat(registry.get("tad.security.rejections").tag("reason", "extension").counter().count()).isEqualTo(1);
+        assertThat(registry.get("tad.security.rejections").tag("reason", "absolute-path").counter().count()).isEqualTo(1);
+        assertThat(registry.get("tad.security.rejections").tag("reason", "invalid-character").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldCountRejectionsReplayedFromCacheAndVersionLookups() {
+        CachingAssetResolver caching = new CachingAssetResolver(resolver, 10);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> caching.resolve("../secret.js")).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(resolver.getVersion("script.bat")).isNull();
+
+        assertThat(registry.get("tad.security.rejections").tag("reason", "traversal").counter().count()).isEqualTo(3);
+        assertThat(registry.get("tad.security.rejections").tag("reason", "extension").counter().count()).isEqualTo(1);
+    }
+}
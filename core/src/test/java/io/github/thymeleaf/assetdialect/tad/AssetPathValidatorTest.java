@@ -0,0 +1,46 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetPathValidatorTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "../app.js, TRAVERSAL",
+        "css/%2E%2e/app.css, TRAVERSAL",
+        "..%252f..%252fetc%252fpasswd, TRAVERSAL",
+        "wild*card.jpg, INVALID_CHARACTER",
+        "C:\\windows\\file.txt, INVALID_CHARACTER",
+        "script.bat, EXTENSION",
+        "style., EXTENSION",
+        "/etc/passwd, ABSOLUTE_PATH",
+        "/usr, ABSOLUTE_PATH"
+    })
+    void shouldReportViolation(String path, AssetPathValidator.Violation expected) {
+        assertThat(AssetPathValidator.validate(path)).isEqualTo(expected);
+        assertThat(AssetPathValidator.isValid(path)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"app.js", "/css/Site.CSS", "fonts/icons.woff2", "favicon", "my image.jpg",
+        "/etcetera/logo.png", "v1.2/app.js", "images/caf\u00e9.png"})
+    void shouldAcceptValidPaths(String path) {
+        assertThat(AssetPathValidator.validate(path)).isNull();
+    }
+
+    @Test
+    void shouldPreferTraversalOverInvalidCharacters() {
+        assertThat(AssetPathValidator.validate("a?b/../c.js")).isEqualTo(AssetPathValidator.Violation.TRAVERSAL);
+    }
+
+    @Test
+    void shouldTreatBlankPathsAsEmpty() {
+        assertThat(AssetPathValidator.validate(null)).isEqualTo(AssetPathValidator.Violation.EMPTY);
+        assertThat(AssetPathValidator.validate(" \t")).isEqualTo(AssetPathValidator.Violation.EMPTY);
+    }
+}
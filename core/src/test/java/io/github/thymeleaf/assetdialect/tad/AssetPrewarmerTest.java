@@ -0,0 +1,92 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetPrewarmerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AssetProperties properties;
+    private DefaultAssetResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path js = Files.createDirectories(tempDir.resolve("js"));
+        Files.writeString(js.resolve("app.js"), "console.log('app');");
+        Files.writeString(js.resolve("vendor.js"), "console.log('vendor');");
+        Files.writeString(tempDir.resolve("site.css"), "body{}");
+        Files.writeString(tempDir.resolve("deploy.sh"), "echo not an asset");
+
+        properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(tempDir.toString());
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new DefaultAssetResolver(properties, environment);
+    }
+
+    @Test
+    void shouldHashWhitelistedAssetsOnVirtualThreads() {
+        AssetPrewarmer.Result result = new AssetPrewarmer(resolver, properties.getPrewarm()).prewarm();
+
+        assertThat(result.getFiles()).isEqualTo(3);
+        assertThat(result.getBytes()).isEqualTo(19 + 22 + 6);
+        assertThat(resolver.getDigestCache().size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldOnlyCountBytesActuallyHashed() {
+        AssetPrewarmer prewarmer = new AssetPrewarmer(resolver, properties.getPrewarm());
+        prewarmer.prewarm();
+
+        AssetPrewarmer.Result again = prewarmer.prewarm();
+
+        assertThat(again.getFiles()).isEqualTo(3);
+        assertThat(again.getBytes()).isZero();
+    }
+
+    @Test
+    void shouldHashAssetsOnForkJoinPool() {
+        properties.getPrewarm().setExecutor(AssetProperties.Prewarm.Executor.FORK_JOIN);
+        properties.getPrewarm().setParallelism(2);
+        properties.getPrewarm().setMaxConcurrentIo(1);
+
+        AssetPrewarmer.Result result = new AssetPrewarmer(resolver, properties.getPrewarm()).prewarm();
+
+        assertThat(result.getFiles()).isEqualTo(3);
+        assertThat(resolver.getDigestCache().size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldServeFirstRequestFromWarmCache() {
+        new AssetPrewarmer(resolver, properties.getPrewarm()).prewarm();
+        long misses = resolver.getDigestCache().getMissCount();
+
+        String resolved = resolver.resolve("/js/app.js");
+
+        assertThat(resolved).startsWith("https://cdn.example.com/js/app.");
+        assertThat(resolver.getDigestCache().getMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    void shouldSkipWhenVersionsAreNotCached() {
+        properties.getCaching().setEnabled(false);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        DefaultAssetResolver uncached = new DefaultAssetResolver(properties, environment);
+
+        AssetPrewarmer.Result result = new AssetPrewarmer(uncached, properties.getPrewarm()).prewarm();
+
+        assertThat(result.getFiles()).isZero();
+        assertThat(result.getBytes()).isZero();
+    }
+}
@@ -2,6 +2,7 @@ package io.github.thymeleaf.assetdialect.tad;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,4 +28,13 @@ class AssetPropertiesTest {
         assertThat(properties.isVersionAssets()).isTrue();
         assertThat(properties.getVersionStrategy()).isEqualTo("timestamp");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldEnableDigestCachingByDefault() {
+        AssetProperties properties = new AssetProperties();
+
+        assertThat(properties.getCaching().isEnabled()).isTrue();
+        assertThat(properties.getCaching().getMaxSize()).isEqualTo(1000);
+        assertThat(properties.getCaching().getExpireAfterWrite()).isEqualTo(Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.ModelAndView;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AssetRouterTest {
+
+    private static final String TEMPLATE = "<script tad:src=\"/js/app.js\"></script>"
+            + "<img tad:src=\"/img/logo.png\" tad:cdn=\"images\">";
+
+    private final MockServletContext servletContext = new MockServletContext();
+    private AssetProperties properties;
+    private AssetResolver resolver;
+    private TemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setCdns(Map.of("eu", "https://eu.cdn.example.com", "images", "https://img.example.com"));
+        properties.setVersionAssets(false);
+        properties.getRouting().setHeader("X-Region");
+        properties.getRouting().setAttribute("cohort");
+        properties.getRouting().setRoutes(Map.of("EU-West", "eu", "eu-central", "eu", "beta", "images"));
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new CachingAssetResolver(new DefaultAssetResolver(properties, environment), 100);
+        engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new AssetDialect(properties, resolver));
+    }
+
+    @Test
+    void shouldCompileRoutingTable() {
+        AssetRouter router = AssetRouter.from(properties.getRouting());
+
+        assertThat(router.lookup(" EU-CENTRAL ")).isEqualTo("eu");
+        assertThat(router.lookup("us-east")).isNull();
+        assertThat(router.lookup(null)).isNull();
+        assertThat(AssetRouter.from(new AssetProperties.Routing())).isNull();
+    }
+
+    @Test
+    void shouldRouteElementsWithoutExplicitCdnByHeader() {
+        MockHttpServletRequest request = request();
+        request.addHeader("X-Region", "eu-west");
+
+        String html = render(request);
+
+        assertThat(html).contains("src=\"https://eu.cdn.example.com/js/app.js\"")
+                .contains("src=\"https://img.example.com/img/logo.png\"");
+        assertThat(request.getAttribute(AssetRouter.ATTRIBUTE)).isEqualTo("eu");
+        assertThat(render(request())).contains("src=\"https://cdn.example.com/js/app.js\"");
+    }
+
+    @Test
+    void shouldPreferRequestAttributeOverHeader() {
+        MockHttpServletRequest request = request();
+        request.addHeader("X-Region", "eu-west");
+        request.setAttribute("cohort", "beta");
+
+        assertThat(render(request)).contains("src=\"https://img.example.com/js/app.js\"");
+    }
+
+    @Test
+    void shouldNotRouteOutsideWebRequests() {
+        assertThat(engine.process(TEMPLATE, new Context())).contains("src=\"https://cdn.example.com/js/app.js\"");
+    }
+
+    @Test
+    void shouldMemoizeRoutedResolutionsWithoutResolutionCache() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        DefaultAssetResolver uncached = spy(new DefaultAssetResolver(properties, environment));
+        AssetDialect dialect = new AssetDialect(properties, uncached);
+        engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(dialect);
+        MockHttpServletRequest first = request();
+        first.addHeader("X-Region", "eu-west");
+        MockHttpServletRequest second = request();
+        second.addHeader("X-Region", "eu-central");
+
+        assertThat(render(first)).isEqualTo(render(second)).contains("src=\"https://eu.cdn.example.com/js/app.js\"");
+        assertThat(dialect.getResolver()).isInstanceOf(CachingAssetResolver.class);
+        verify(uncached, times(1)).resolve("/js/app.js", "eu", false);
+    }
+
+    @Test
+    void shouldLearnPreloadsPerRoutedCdn() {
+        AssetRouter router = AssetRouter.from(properties.getRouting());
+        PreloadInterceptor interceptor = new PreloadInterceptor(resolver, new PreloadHints(resolver, 10), false, router);
+        renderWithPreloads(interceptor, "eu-west");
+        renderWithPreloads(interceptor, null);
+
+        assertThat(renderWithPreloads(interceptor, "eu-central").getHeaders("Link"))
+                .containsExactly("<https://eu.cdn.example.com/js/app.js>; rel=preload; as=script");
+        assertThat(renderWithPreloads(interceptor, null).getHeaders("Link"))
+                .containsExactly("<https://cdn.example.com/js/app.js>; rel=preload; as=script");
+    }
+
+    @Test
+    void shouldOnlyBakeExplicitCdnsAtParseTime() {
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(new StringTemplateResolver(), resolver);
+        templateResolver.setRouter(AssetRouter.from(properties.getRouting()));
+
+        String markup = templateResolver.resolveLiterals(TEMPLATE);
+
+        assertThat(markup).contains("<script tad:src=\"/js/app.js\"></script>")
+                .contains("src=\"https://img.example.com/img/logo.png\"");
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest(servletContext);
+    }
+
+    private String render(MockHttpServletRequest request) {
+        var exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(request, new MockHttpServletResponse());
+        return engine.process(TEMPLATE, new WebContext(exchange));
+    }
+
+    private MockHttpServletResponse renderWithPreloads(PreloadInterceptor interceptor, String region) {
+        MockHttpServletRequest request = request();
+        if (region != null) {
+            request.addHeader("X-Region", region);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.postHandle(request, response, null, new ModelAndView(TEMPLATE));
+        var exchange = JakartaServletWebApplication.buildApplication(servletContext).buildExchange(request, response);
+        engine.process(TEMPLATE, new WebContext(exchange));
+        interceptor.afterCompletion(request, response, null, null);
+        return response;
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AssetSrcsetProcessorTest {
+
+    private AssetResolver resolver;
+    private TemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        resolver = mock(AssetResolver.class);
+        when(resolver.resolve(anyString(), any(), anyBoolean()))
+                .thenAnswer(call -> "https://cdn.example.com" + call.getArgument(0));
+        ImageVariants variants = new ImageVariants(Map.of("images/hero.jpg", new ImageVariants.Image(1500, List.of(
+                new ImageVariants.Variant("images/hero-320w.jpg", 320),
+                new ImageVariants.Variant("images/hero-640w.jpg", 640)))));
+        engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new AssetDialect(null, resolver, variants));
+    }
+
+    @Test
+    void shouldExpandSourcePathIntoGeneratedVariants() {
+        String output = engine.process("<img tad:srcset=\"/images/hero.jpg\" tad:sizes=\"100vw\">", new Context());
+
+        assertThat(output).contains("srcset=\"https://cdn.example.com/images/hero-320w.jpg 320w, "
+                + "https://cdn.example.com/images/hero-640w.jpg 640w, "
+                + "https://cdn.example.com/images/hero.jpg 1500w\"");
+        assertThat(output).contains("sizes=\"100vw\"").doesNotContain("tad:");
+    }
+
+    @Test
+    void shouldResolveEveryExplicitCandidate() {
+        String output = engine.process(
+                "<img tad:srcset=\"/img/a.png 1x,/img/b.png   2x\" tad:cdn=\"images\" tad:local=\"true\">", new Context());
+
+        assertThat(output).contains("srcset=\"https://cdn.example.com/img/a.png 1x, https://cdn.example.com/img/b.png 2x\"");
+        verify(resolver).resolve("/img/a.png", "images", true);
+        verify(resolver).resolve("/img/b.png", "images", true);
+    }
+
+    @Test
+    void shouldResolveSourcePathWithoutVariantsAsIs() {
+        String output = engine.process("<source tad:srcset=\"/img/photo.webp\">", new Context());
+
+        assertThat(output).contains("srcset=\"https://cdn.example.com/img/photo.webp\"").doesNotContain("tad:srcset");
+    }
+}
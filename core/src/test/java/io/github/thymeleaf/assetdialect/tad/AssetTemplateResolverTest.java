@@ -0,0 +1,138 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class AssetTemplateResolverTest {
+
+    private static final String TEMPLATE =
+            "<html><head><script tad:src=\"/js/main.js\"></script></head><body></body></html>";
+
+    private AssetResolver resolver;
+    private TemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        resolver = mock(AssetResolver.class);
+        when(resolver.resolve("/js/main.js", null, false)).thenReturn("https://cdn.example.com/js/main.abc.js");
+
+        StringTemplateResolver templateResolver = new StringTemplateResolver();
+        templateResolver.setCacheable(true);
+        engine = new TemplateEngine();
+        engine.setTemplateResolver(new AssetTemplateResolver(templateResolver, resolver));
+        engine.addDialect(new AssetDialect(null, resolver));
+    }
+
+    @Test
+    void shouldResolveLiteralValuesOncePerParse() {
+        String first = engine.process(TEMPLATE, new Context());
+        String second = engine.process(TEMPLATE, new Context());
+
+        assertThat(first).contains("<script src=\"https://cdn.example.com/js/main.abc.js\"></script>");
+        assertThat(second).isEqualTo(first);
+        verify(resolver, times(1)).resolve("/js/main.js", null, false);
+    }
+
+    @Test
+    void shouldParseAgainWhenGenerationChanges() {
+        engine.process(TEMPLATE, new Context());
+        when(resolver.getGeneration()).thenReturn(1L);
+        when(resolver.resolve("/js/main.js", null, false)).thenReturn("https://cdn.example.com/js/main.def.js");
+
+        String output = engine.process(TEMPLATE, new Context());
+
+        assertThat(output).contains("src=\"https://cdn.example.com/js/main.def.js\"");
+        verify(resolver, times(2)).resolve("/js/main.js", null, false);
+    }
+
+    @Test
+    void shouldParseAgainWhenRevalidatedBakedUrlChanges() {
+        StringTemplateResolver stringResolver = new StringTemplateResolver();
+        stringResolver.setCacheable(true);
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(stringResolver, resolver);
+        templateResolver.setRevalidateBakedUrls(true);
+        engine = new TemplateEngine();
+        engine.setTemplateResolver(templateResolver);
+        engine.addDialect(new AssetDialect(null, resolver));
+
+        String first = engine.process(TEMPLATE, new Context());
+        assertThat(engine.process(TEMPLATE, new Context())).isEqualTo(first);
+        // The file changed, but nothing moved the generation
+        when(resolver.resolve("/js/main.js", null, false)).thenReturn("https://cdn.example.com/js/main.def.js");
+
+        String output = engine.process(TEMPLATE, new Context());
+
+        assertThat(first).contains("src=\"https://cdn.example.com/js/main.abc.js\"");
+        assertThat(output).contains("src=\"https://cdn.example.com/js/main.def.js\"");
+    }
+
+    @Test
+    void shouldApplyCdnAndLocalAttributesAndDropThem() {
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(new StringTemplateResolver(), resolver);
+        when(resolver.resolve("/img/logo.png", "images", true)).thenReturn("/static/img/logo.png");
+
+        String markup = templateResolver.resolveLiterals(
+                "<img class='logo' src=\"placeholder.png\" tad:src=\"/img/logo.png\" tad:cdn=\"images\" tad:local=\"true\"/>");
+
+        assertThat(markup).isEqualTo("<img class='logo' src=\"/static/img/logo.png\"/>");
+    }
+
+    @Test
+    void shouldBakeIntegrityAttributes() {
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(new StringTemplateResolver(), resolver);
+        when(resolver.resolveIntegrity("/js/main.js")).thenReturn("sha384-abc");
+        when(resolver.isCdnUrl("https://cdn.example.com/js/main.abc.js")).thenReturn(true);
+
+        String markup = templateResolver.resolveLiterals("<script tad:src=\"/js/main.js\" tad:integrity defer></script>");
+
+        assertThat(markup).isEqualTo("<script src=\"https://cdn.example.com/js/main.abc.js\" integrity=\"sha384-abc\""
+                + " crossorigin=\"anonymous\" defer></script>");
+    }
+
+    @Test
+    void shouldLeaveExpressionsAndRejectedPathsToProcessor() {
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(new StringTemplateResolver(), resolver);
+        when(resolver.resolve("../secret.js", null, false)).thenThrow(new IllegalArgumentException("Invalid asset path"));
+
+        String expression = "<script tad:src=\"${path}\"></script>";
+        String rejected = "<script tad:src=\"../secret.js\"></script>";
+
+        assertThat(templateResolver.resolveLiterals(expression)).isSameAs(expression);
+        assertThat(templateResolver.resolveLiterals(rejected)).isSameAs(rejected);
+        assertThatThrownBy(() -> engine.process(rejected, new Context()))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldLeaveMarkupWithoutAssetAttributesUntouched() {
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(new StringTemplateResolver(), resolver);
+        String markup = "<p title=\"a > b\">text</p>";
+
+        assertThat(templateResolver.resolveLiterals(markup)).isSameAs(markup);
+        verifyNoInteractions(resolver);
+    }
+
+    @Test
+    void shouldSkipRawTextAndCdata() {
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(new StringTemplateResolver(), resolver);
+        String markup = "<script tad:src=\"/js/main.js\"></script>"
+                + "<script>var html = '<img tad:src=\"/js/main.js\">';</script>"
+                + "<STYLE>/* <img tad:src=\"/js/main.js\"> */</style>"
+                + "<![CDATA[<img tad:src=\"/js/main.js\">]]>"
+                + "<img tad:src=\"/js/main.js\">";
+
+        assertThat(templateResolver.resolveLiterals(markup)).isEqualTo(
+                "<script src=\"https://cdn.example.com/js/main.abc.js\"></script>"
+                        + "<script>var html = '<img tad:src=\"/js/main.js\">';</script>"
+                        + "<STYLE>/* <img tad:src=\"/js/main.js\"> */</style>"
+                        + "<![CDATA[<img tad:src=\"/js/main.js\">]]>"
+                        + "<img src=\"https://cdn.example.com/js/main.abc.js\">");
+    }
+}
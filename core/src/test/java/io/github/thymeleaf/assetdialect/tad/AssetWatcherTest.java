@@ -0,0 +1,101 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DefaultAssetResolver resolver;
+    private AssetWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.setVersionStrategy("crc32c");
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new DefaultAssetResolver(properties, environment);
+        watcher = new AssetWatcher(resolver, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.stop();
+    }
+
+    @Test
+    void shouldRefreshChangedAssetsInBackground() throws Exception {
+        Path js = Files.createDirectories(tempDir.resolve("js"));
+        Files.writeString(js.resolve("main.js"), "one");
+        String before = resolver.resolve("/js/main.js");
+
+        watcher.start();
+        assertThat(resolver.getDigestCache().isValidateOnRead()).isFalse();
+        long generation = resolver.getDigestCache().getGeneration();
+        Files.writeString(js.resolve("main.js"), "two");
+
+        awaitTrue(() -> resolver.getDigestCache().getGeneration() > generation);
+        assertThat(resolver.resolve("/js/main.js")).isNotEqualTo(before);
+    }
+
+    @Test
+    void shouldWatchDirectoriesCreatedAfterStart() throws Exception {
+        watcher.start();
+        Path css = Files.createDirectories(tempDir.resolve("css"));
+        Files.writeString(css.resolve("site.css"), "a{}");
+        Thread.sleep(200);
+        String before = resolver.resolve("/css/site.css");
+        long generation = resolver.getDigestCache().getGeneration();
+
+        Files.writeString(css.resolve("site.css"), "b{}");
+
+        awaitTrue(() -> resolver.getDigestCache().getGeneration() > generation);
+        assertThat(resolver.resolve("/css/site.css")).isNotEqualTo(before);
+    }
+
+    @Test
+    void shouldDropDeletedAssets() throws Exception {
+        Files.writeString(tempDir.resolve("app.js"), "app");
+        resolver.resolve("/app.js");
+        watcher.start();
+
+        Files.delete(tempDir.resolve("app.js"));
+
+        awaitTrue(() -> resolver.getDigestCache().size() == 0);
+        assertThat(resolver.resolve("/app.js")).isEqualTo("https://cdn.example.com/app.js");
+    }
+
+    @Test
+    void shouldRestoreValidationWhenStopped() {
+        watcher.start();
+        watcher.stop();
+
+        assertThat(watcher.isRunning()).isFalse();
+        assertThat(resolver.getDigestCache().isValidateOnRead()).isTrue();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
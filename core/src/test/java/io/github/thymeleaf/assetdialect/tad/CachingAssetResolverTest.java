@@ -0,0 +1,119 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+class CachingAssetResolverTest {
+
+    private AssetResolver delegate;
+    private CachingAssetResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(AssetResolver.class);
+        resolver = new CachingAssetResolver(delegate, 100);
+    }
+
+    @Test
+    void shouldReturnCachedUrlForSameInputs() {
+        when(delegate.resolve("app.js", null, false)).thenReturn("https://cdn.example.com/app.1.js");
+
+        assertThat(resolver.resolve("app.js")).isEqualTo("https://cdn.example.com/app.1.js");
+        assertThat(resolver.resolve("app.js")).isEqualTo("https://cdn.example.com/app.1.js");
+
+        verify(delegate, times(1)).resolve("app.js", null, false);
+        assertThat(resolver.getHitCount()).isEqualTo(1);
+        assertThat(resolver.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeyByCdnAndLocalFlag() {
+        when(delegate.resolve("app.js", null, false)).thenReturn("https://cdn.example.com/app.js");
+        when(delegate.resolve("app.js", "js", false)).thenReturn("https://js.example.com/app.js");
+        when(delegate.resolve("app.js", null, true)).thenReturn("/static/app.js");
+
+        assertThat(resolver.resolve("app.js", null, false)).isEqualTo("https://cdn.example.com/app.js");
+        assertThat(resolver.resolve("app.js", "js", false)).isEqualTo("https://js.example.com/app.js");
+        assertThat(resolver.resolve("app.js", null, true)).isEqualTo("/static/app.js");
+        assertThat(resolver.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRethrowCachedRejectionWithoutResolvingAgain() {
+        IllegalArgumentException rejection = new IllegalArgumentException("Invalid asset path: ../secret.js");
+        when(delegate.resolve("../secret.js", null, false)).thenThrow(rejection);
+
+        Throwable first = catchThrowable(() -> resolver.resolve("../secret.js"));
+        Throwable second = catchThrowable(() -> resolver.resolve("../secret.js"));
+
+        assertThat(first).isSameAs(rejection);
+        assertThat(second).isSameAs(rejection);
+        verify(delegate, times(1)).resolve("../secret.js", null, false);
+    }
+
+    @Test
+    void shouldInvalidateWhenGenerationChanges() {
+        when(delegate.resolve("app.js", null, false)).thenReturn("https://cdn.example.com/app.1.js");
+        resolver.resolve("app.js");
+
+        when(delegate.getGeneration()).thenReturn(1L);
+        when(delegate.resolve("app.js", null, false)).thenReturn("https://cdn.example.com/app.2.js");
+
+        assertThat(resolver.resolve("app.js")).isEqualTo("https://cdn.example.com/app.2.js");
+    }
+
+    @Test
+    void shouldEvictOldestEntriesBeyondMaxSize() {
+        CachingAssetResolver small = new CachingAssetResolver(delegate, 2);
+        when(delegate.resolve(anyString(), isNull(), eq(false))).thenAnswer(call -> "/" + call.getArgument(0));
+
+        small.resolve("a.js");
+        small.resolve("b.js");
+        small.resolve("c.js");
+        small.resolve("a.js");
+
+        assertThat(small.size()).isEqualTo(2);
+        verify(delegate, times(2)).resolve("a.js", null, false);
+        verify(delegate, times(1)).resolve("c.js", null, false);
+    }
+
+    @Test
+    void shouldResolveAgainAfterExpiry() throws Exception {
+        CachingAssetResolver expiring = new CachingAssetResolver(delegate, 100, Duration.ofNanos(1));
+        when(delegate.resolve("app.js", null, false)).thenReturn("https://cdn.example.com/app.1.js");
+        expiring.resolve("app.js");
+        when(delegate.resolve("app.js", null, false)).thenReturn("https://cdn.example.com/app.2.js");
+        Thread.sleep(1);
+
+        assertThat(expiring.resolve("app.js")).isEqualTo("https://cdn.example.com/app.2.js");
+        assertThat(expiring.getIfPresent("app.js", null, false)).isNull();
+    }
+
+    @Test
+    void shouldExpireByDefaultWhenCreatedFromSettings() {
+        AssetProperties.ResolutionCache settings = new AssetProperties().getResolutionCache();
+
+        assertThat(settings.getExpireAfterWrite()).isPositive();
+        assertThat(CachingAssetResolver.from(delegate, settings).getDelegate()).isSameAs(delegate);
+    }
+
+    @Test
+    void shouldEvictInWriteOrderUnderManyMisses() {
+        CachingAssetResolver small = new CachingAssetResolver(delegate, 100);
+        when(delegate.resolve(anyString(), isNull(), eq(false))).thenAnswer(call -> "/" + call.getArgument(0));
+
+        for (int i = 0; i < 10_000; i++) {
+            small.resolve("file" + i + ".js");
+        }
+
+        assertThat(small.size()).isEqualTo(100);
+        assertThat(small.getIfPresent("file9999.js", null, false)).isEqualTo("/file9999.js");
+        assertThat(small.getIfPresent("file9899.js", null, false)).isNull();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CdnHostsTest {
+
+    private static final int ASSETS = 20_000;
+    private static final String HOSTS = "https://s1.example.com,https://s2.example.com/,"
+            + "https://s3.example.com,https://s4.example.com";
+
+    @Test
+    void shouldParseAndNormalizeHostList() {
+        CdnHosts hosts = CdnHosts.parse(" https://s1.example.com/ , ,https://s2.example.com,https://s1.example.com");
+
+        assertThat(hosts.getBaseUrls()).containsExactly("https://s1.example.com", "https://s2.example.com");
+        assertThat(hosts.getPrimary()).isEqualTo("https://s1.example.com");
+        assertThat(hosts.isSharded()).isTrue();
+        assertThat(CdnHosts.parse(" , ")).isNull();
+        assertThat(CdnHosts.parse("https://cdn.example.com/").select("/js/app.js")).isEqualTo("https://cdn.example.com");
+    }
+
+    @Test
+    void shouldDistributeAssetsEvenly() {
+        CdnHosts hosts = CdnHosts.parse(HOSTS);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < ASSETS; i++) {
+            counts.merge(hosts.select(assetPath(i)), 1, Integer::sum);
+        }
+
+        int expected = ASSETS / 4;
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(expected * 9 / 10, expected * 11 / 10));
+    }
+
+    @Test
+    void shouldOnlyRemapAssetsOfRemovedHost() {
+        CdnHosts hosts = CdnHosts.parse(HOSTS);
+        CdnHosts remaining = CdnHosts.parse("https://s4.example.com,https://s1.example.com,https://s2.example.com");
+
+        int remapped = 0;
+        for (int i = 0; i < ASSETS; i++) {
+            String before = hosts.select(assetPath(i));
+            String after = remaining.select(assetPath(i));
+            if (!before.equals("https://s3.example.com")) {
+                assertThat(after).isEqualTo(before);
+            } else {
+                remapped++;
+            }
+        }
+        assertThat(remapped).isBetween(ASSETS / 4 * 9 / 10, ASSETS / 4 * 11 / 10);
+    }
+
+    @Test
+    void shouldResolveEachAssetToItsShard() {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setCdns(Map.of("static", HOSTS));
+        properties.setVersionAssets(false);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        DefaultAssetResolver resolver = new DefaultAssetResolver(properties, environment);
+        CdnHosts hosts = resolver.getSnapshot().getCdns().get("static");
+
+        for (String path : List.of("/js/app.js", "/css/site.css", "/images/logo.png")) {
+            String url = resolver.resolve(path, "static", false);
+            assertThat(url).isEqualTo(hosts.select(path) + path);
+            assertThat(resolver.resolve(path, "static", false)).isEqualTo(url);
+            assertThat(resolver.isCdnUrl(url)).isTrue();
+        }
+        assertThat(hosts.select("/js/app.js")).isEqualTo(hosts.select("js/app.js"));
+        assertThat(resolver.resolve("/js/app.js")).isEqualTo("https://cdn.example.com/js/app.js");
+    }
+
+    private static String assetPath(int i) {
+        return "/assets/" + (i % 37) + "/file-" + i + ".js";
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CdnRulesTest {
+
+    private static final Set<String> CDNS = Set.of("images", "fonts", "js");
+
+    @Test
+    void shouldMatchLongestDirectoryBeforeExtension() {
+        CdnRules rules = CdnRules.compile(Map.of(
+                "images", "/img/**, /media/",
+                "js", "/img/sprites/**, *.js",
+                "fonts", "woff2,.WOFF"), CDNS);
+
+        assertThat(rules.size()).isEqualTo(6);
+        assertThat(rules.match("/img/logo.png")).isEqualTo("images");
+        assertThat(rules.match("img/a/b/logo.png")).isEqualTo("images");
+        assertThat(rules.match("/media/video.mp4")).isEqualTo("images");
+        assertThat(rules.match("/img/sprites/icons.svg")).isEqualTo("js");
+        assertThat(rules.match("/img/app.js")).isEqualTo("images");
+        assertThat(rules.match("/js/app.js")).isEqualTo("js");
+        assertThat(rules.match("/fonts/inter.WOFF2")).isEqualTo("fonts");
+        assertThat(rules.match("/fonts/inter.woff?v=2")).isEqualTo("fonts");
+        assertThat(rules.match("/images/logo.png")).isNull();
+        assertThat(rules.match("/img")).isNull();
+        assertThat(rules.match("/css/site.css")).isNull();
+        assertThat(rules.match("/js.d/README")).isNull();
+    }
+
+    @Test
+    void shouldIgnoreInvalidRules() {
+        CdnRules rules = CdnRules.compile(Map.of(
+                "images", "/img/*.png, *.*, ",
+                "unknown", "/docs/**"), CDNS);
+
+        assertThat(rules).isNull();
+        assertThat(CdnRules.compile(Map.of(), CDNS)).isNull();
+    }
+
+    @Test
+    void shouldRouteAssetsWithoutExplicitCdn() {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setCdns(Map.of("images", "https://img.example.com", "fonts", "https://fonts.example.com"));
+        properties.getRouting().setRules(Map.of("images", "/img/**", "fonts", "woff2"));
+        properties.setVersionAssets(false);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        DefaultAssetResolver resolver = new DefaultAssetResolver(properties, environment);
+
+        assertThat(resolver.resolve("/img/logo.png")).isEqualTo("https://img.example.com/img/logo.png");
+        assertThat(resolver.resolve("/fonts/inter.woff2")).isEqualTo("https://fonts.example.com/fonts/inter.woff2");
+        assertThat(resolver.resolve("/js/app.js")).isEqualTo("https://cdn.example.com/js/app.js");
+        assertThat(resolver.resolve("/img/logo.png", "fonts", false)).isEqualTo("https://fonts.example.com/img/logo.png");
+
+        properties.getRouting().setRules(Map.of());
+        resolver.refresh();
+        assertThat(resolver.resolve("/img/logo.png")).isEqualTo("https://cdn.example.com/img/logo.png");
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClasspathAssetsTest {
+
+    private static final String CSS = "body { margin: 0; }";
+    private static final String SCRIPT = "app();";
+
+    @TempDir
+    Path tempDir;
+
+    private Path jar;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jar = tempDir.resolve("app.jar");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+            addEntry(zip, "static/", null);
+            addEntry(zip, "static/css/site.css", CSS);
+            addEntry(zip, "static/setup.exe", "MZ");
+            addEntry(zip, "BOOT-INF/classes/static/", null);
+            addEntry(zip, "BOOT-INF/classes/static/js/app.js", SCRIPT);
+        }
+    }
+
+    @Test
+    void shouldVersionJarEntriesFromCentralDirectory() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+            ClasspathAssets assets = ClasspathAssets.scan("classpath:static", classLoader);
+
+            assertThat(assets.getDirectory()).isNull();
+            assertThat(assets.size()).isEqualTo(1);
+            assertThat(assets.getVersion("css/site.css")).isEqualTo(crcVersion(CSS));
+            assertThat(assets.getVersion("setup.exe")).isNull();
+        }
+    }
+
+    @Test
+    void shouldIndexSpringBootFatJarLocations() {
+        String jarPath = jar.toUri().getRawPath();
+
+        assertThat(scan("jar:nested:" + jarPath + "/!BOOT-INF/classes/!/static/").getVersion("js/app.js"))
+                .isEqualTo(crcVersion(SCRIPT));
+        assertThat(scan("jar:" + jar.toUri() + "!/BOOT-INF/classes!/static/").getVersion("js/app.js"))
+                .isEqualTo(crcVersion(SCRIPT));
+        assertThat(scan("jar:nested:" + jarPath + "/!BOOT-INF/lib/webjar.jar!/static/").size()).isZero();
+    }
+
+    @Test
+    void shouldUseDirectoryOfExplodedClasspath() throws Exception {
+        Path classes = Files.createDirectories(tempDir.resolve("classes/static"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {tempDir.resolve("classes").toUri().toURL()}, null)) {
+            assertThat(ClasspathAssets.scan("classpath:/static/", classLoader).getDirectory()).isEqualTo(classes);
+            assertThat(ClasspathAssets.scan("classpath:missing", classLoader).getDirectory()).isNull();
+        }
+    }
+
+    @Test
+    void shouldResolveVersionsOfAssetsInsideJar() throws Exception {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath("classpath:static");
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+            thread.setContextClassLoader(classLoader);
+            DefaultAssetResolver resolver = new DefaultAssetResolver(properties, environment);
+
+            assertThat(resolver.resolve("/css/site.css"))
+                    .isEqualTo("https://cdn.example.com/css/site." + crcVersion(CSS) + ".css");
+            assertThat(resolver.resolve("/missing.css")).isEqualTo("https://cdn.example.com/missing.css");
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private static ClasspathAssets scan(String location) {
+        try {
+            URL url = new URL(null, location, new URLStreamHandler() {
+                @Override
+                protected URLConnection openConnection(URL u) {
+                    throw new UnsupportedOperationException();
+                }
+            });
+            return ClasspathAssets.scan("classpath:static", new ClassLoader(null) {
+                @Override
+                public URL getResource(String name) {
+                    return url;
+                }
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String crcVersion(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return String.format("%08x%08x", crc.getValue(), bytes.length);
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, String content) throws Exception {
+        zip.putNextEntry(new ZipEntry(name));
+        if (content != null) {
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        zip.closeEntry();
+    }
+}
@@ -2,12 +2,17 @@ package io.github.thymeleaf.assetdialect.tad;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
+import static io.github.thymeleaf.assetdialect.tad.Allocations.allocatedBytes;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -93,4 +98,48 @@ class DefaultAssetResolverTest {
 
         assertThat(result).startsWith("test.");
     }
+
+    @Test
+    void shouldAllocateSmallConstantPerResolve(@TempDir Path tempDir) throws Exception {
+        DefaultAssetResolver realResolver = allocationTestResolver(tempDir);
+
+        // Default configuration: every cached version is validated with one file attribute read
+        assertThat(allocationPerResolve(realResolver)).isLessThan(1024);
+    }
+
+    @Test
+    void shouldAllocateLessWhenVersionsAreServedFromMemory(@TempDir Path tempDir) throws Exception {
+        DefaultAssetResolver realResolver = allocationTestResolver(tempDir);
+        // As while an AssetWatcher keeps versions fresh, so no file attributes are read
+        realResolver.getDigestCache().setValidateOnRead(false);
+
+        assertThat(allocationPerResolve(realResolver)).isLessThan(512);
+    }
+
+    private static DefaultAssetResolver allocationTestResolver(Path tempDir) throws Exception {
+        Files.createDirectories(tempDir.resolve("js"));
+        Files.writeString(tempDir.resolve("js/app.js"), "console.log('app');");
+        AssetProperties realProperties = new AssetProperties();
+        realProperties.setDefaultCdn("https://cdn.example.com");
+        realProperties.setAssetBasePath(tempDir.toString());
+        realProperties.setVersionStrategy("crc32c");
+        MockEnvironment prod = new MockEnvironment();
+        prod.setActiveProfiles("prod");
+        return new DefaultAssetResolver(realProperties, prod);
+    }
+
+    private static long allocationPerResolve(DefaultAssetResolver realResolver) throws Exception {
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            realResolver.resolve("/js/app.js");
+        }
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < iterations; i++) {
+                realResolver.resolve("/js/app.js");
+            }
+        });
+
+        assertThat(realResolver.resolve("/js/app.js")).matches("https://cdn\\.example\\.com/js/app\\.[0-9a-f]{8}\\.js");
+        return allocated / iterations;
+    }
 }
@@ -0,0 +1,170 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintedAssetHandlerTest {
+
+    private static final String CSS = "body { margin: 0; }";
+
+    @TempDir
+    Path tempDir;
+
+    private AssetProperties properties;
+    private MockEnvironment environment;
+    private String version;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(tempDir.resolve("css"));
+        Files.writeString(tempDir.resolve("css/site.css"), CSS);
+        version = DigestUtils.md5DigestAsHex(CSS.getBytes(StandardCharsets.UTF_8));
+        properties = new AssetProperties();
+        properties.setLocalPath("/static");
+        properties.setAssetBasePath(tempDir.toString());
+        environment = new MockEnvironment();
+        environment.setActiveProfiles("dev");
+    }
+
+    @Test
+    void shouldServeCurrentVersionAsImmutable() throws Exception {
+        MockHttpServletResponse response = handle(defaultHandler(), request("css/site." + version + ".css"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CSS);
+        assertThat(response.getContentType()).startsWith("text/css");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo(FingerprintedAssetHandler.IMMUTABLE_CACHE_CONTROL);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + version + "\"");
+    }
+
+    @Test
+    void shouldRejectStaleVersions() throws Exception {
+        MockHttpServletResponse response = handle(defaultHandler(), request("css/site.0123456789abcdef0123456789abcdef.css"));
+
+        assertThat(response.getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void shouldServeUnversionedPathsForRevalidation() throws Exception {
+        MockHttpServletResponse response = handle(defaultHandler(), request("css/site.css"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + version + "\"");
+    }
+
+    @Test
+    void shouldAnswerNotModifiedFromManifestWithoutFiles() throws Exception {
+        AssetManifest manifest = new AssetManifest(Map.of("js/app.js",
+                new AssetManifest.Entry("js/app.abc123.js", "abc123", 42)));
+        properties.setAssetBasePath(tempDir.resolve("missing").toString());
+        FingerprintedAssetHandler handler = new FingerprintedAssetHandler(
+                new ManifestAssetResolver(properties, environment, manifest),
+                List.of(new FileSystemResource(tempDir.resolve("missing") + "/")));
+        MockHttpServletRequest request = request("js/app.abc123.js");
+        request.addHeader("If-None-Match", "W/\"other\", \"abc123\"");
+
+        MockHttpServletResponse response = handle(handler, request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"abc123\"");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo(FingerprintedAssetHandler.IMMUTABLE_CACHE_CONTROL);
+    }
+
+    @Test
+    void shouldServePrecompressedCopyToGzipClients() throws Exception {
+        Files.writeString(tempDir.resolve("css/site.css.gz"), "compressed");
+        MockHttpServletRequest request = request("css/site." + version + ".css");
+        request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+
+        MockHttpServletResponse response = handle(defaultHandler(), request);
+
+        assertThat(response.getContentAsString()).isEqualTo("compressed");
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + version + "-gz\"");
+    }
+
+    @Test
+    void shouldIgnorePrecompressedCopyOlderThanAsset() throws Exception {
+        Path compressed = Files.writeString(tempDir.resolve("css/site.css.gz"), "compressed");
+        Files.setLastModifiedTime(compressed, FileTime.fromMillis(
+                Files.getLastModifiedTime(tempDir.resolve("css/site.css")).toMillis() - 60_000));
+        MockHttpServletRequest request = request("css/site." + version + ".css");
+        request.addHeader("Accept-Encoding", "gzip");
+
+        MockHttpServletResponse response = handle(defaultHandler(), request);
+
+        assertThat(response.getContentAsString()).isEqualTo(CSS);
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + version + "\"");
+    }
+
+    @Test
+    void shouldHandOffLargeFilesToContainerSendfile() throws Exception {
+        byte[] content = new byte[(int) FingerprintedAssetHandler.ZERO_COPY_THRESHOLD];
+        Files.write(tempDir.resolve("large.png"), content);
+        String largeVersion = DigestUtils.md5DigestAsHex(content);
+        MockHttpServletRequest request = request("large." + largeVersion + ".png");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = handle(defaultHandler(), request);
+
+        assertThat(response.getContentLengthLong()).isEqualTo(content.length);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(tempDir.resolve("large.png").toFile().getAbsolutePath());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) content.length);
+    }
+
+    @Test
+    void shouldTransferLargeFilesWithoutSendfile() throws Exception {
+        byte[] content = new byte[(int) FingerprintedAssetHandler.ZERO_COPY_THRESHOLD + 1];
+        content[content.length - 1] = 7;
+        Files.write(tempDir.resolve("large.png"), content);
+        String largeVersion = DigestUtils.md5DigestAsHex(content);
+
+        MockHttpServletResponse response = handle(defaultHandler(), request("large." + largeVersion + ".png"));
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void shouldRejectTraversal() throws Exception {
+        assertThat(handle(defaultHandler(), request("../secret.txt")).getStatus()).isEqualTo(404);
+    }
+
+    private FingerprintedAssetHandler defaultHandler() {
+        return new FingerprintedAssetHandler(new DefaultAssetResolver(properties, environment),
+                List.of(new FileSystemResource(tempDir + "/")));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/static/" + path);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+        return request;
+    }
+
+    private static MockHttpServletResponse handle(FingerprintedAssetHandler handler, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+}
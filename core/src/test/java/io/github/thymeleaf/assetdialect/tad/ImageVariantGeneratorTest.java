@@ -0,0 +1,151 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldGenerateSmallerVariantsOnly() throws Exception {
+        Path images = Files.createDirectories(tempDir.resolve("static/images"));
+        ImageIO.write(new BufferedImage(1500, 1000, BufferedImage.TYPE_INT_RGB), "jpeg", images.resolve("hero.jpg").toFile());
+        ImageIO.write(new BufferedImage(500, 250, BufferedImage.TYPE_INT_ARGB), "png", images.resolve("logo.png").toFile());
+        Files.writeString(images.resolve("notes.txt"), "not an image");
+        Path output = tempDir.resolve("variants");
+
+        ImageVariants variants = new ImageVariantGenerator(tempDir.resolve("static"), output).generate();
+
+        assertThat(variants.size()).isEqualTo(2);
+        ImageVariants.Image hero = variants.get("images/hero.jpg");
+        assertThat(hero.getWidth()).isEqualTo(1500);
+        assertThat(hero.getVariants()).extracting(ImageVariants.Variant::getPath)
+                .containsExactly("images/hero-320w.jpg", "images/hero-640w.jpg", "images/hero-1280w.jpg");
+        BufferedImage scaled = ImageIO.read(output.resolve("images/hero-640w.jpg").toFile());
+        assertThat(scaled.getWidth()).isEqualTo(640);
+        assertThat(scaled.getHeight()).isEqualTo(427);
+        assertThat(variants.get("images/logo.png").getVariants()).extracting(ImageVariants.Variant::getWidth)
+                .containsExactly(320);
+    }
+
+    @Test
+    void shouldApplyExifOrientationBeforeScaling() throws Exception {
+        Path base = Files.createDirectories(tempDir.resolve("static"));
+        // Stored in landscape, left half red, displayed rotated clockwise so red ends up on top
+        BufferedImage stored = new BufferedImage(1500, 1000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = stored.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 750, 1000);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(750, 0, 750, 1000);
+        graphics.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(stored, "jpeg", jpeg);
+        Files.write(base.resolve("portrait.jpg"), withExifOrientation(jpeg.toByteArray(), 6));
+        Path output = tempDir.resolve("variants");
+
+        ImageVariants variants = new ImageVariantGenerator(base, output).generate();
+
+        ImageVariants.Image portrait = variants.get("portrait.jpg");
+        assertThat(portrait.getWidth()).isEqualTo(1000);
+        assertThat(portrait.getVariants()).extracting(ImageVariants.Variant::getWidth).containsExactly(320, 640);
+        BufferedImage scaled = ImageIO.read(output.resolve("portrait-640w.jpg").toFile());
+        assertThat(scaled.getWidth()).isEqualTo(640);
+        assertThat(scaled.getHeight()).isEqualTo(960);
+        assertThat(new Color(scaled.getRGB(320, 100)).getRed()).isGreaterThan(200);
+        assertThat(new Color(scaled.getRGB(320, 860)).getBlue()).isGreaterThan(200);
+    }
+
+    @Test
+    void shouldKeepUpToDateVariantsAndSkipThemAsSources() throws Exception {
+        Path source = tempDir.resolve("photo.png");
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+        ImageVariantGenerator generator = new ImageVariantGenerator(tempDir, tempDir, List.of(400));
+        generator.generate();
+        Path variant = tempDir.resolve("photo-400w.png");
+        FileTime generated = FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 60_000);
+        Files.setLastModifiedTime(variant, generated);
+
+        ImageVariants variants = generator.generate();
+
+        assertThat(variants.getImages()).containsOnlyKeys("photo.png");
+        assertThat(Files.getLastModifiedTime(variant)).isEqualTo(generated);
+    }
+
+    @Test
+    void shouldSkipImagesThatCannotBeDecoded() throws Exception {
+        Path base = Files.createDirectories(tempDir.resolve("static"));
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "jpeg", base.resolve("photo.jpg").toFile());
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "jpeg", jpeg);
+        Files.write(base.resolve("truncated.jpg"), Arrays.copyOf(jpeg.toByteArray(), 40));
+
+        ImageVariants variants = new ImageVariantGenerator(base, tempDir.resolve("variants"), List.of(400)).generate();
+
+        assertThat(variants.getImages()).containsOnlyKeys("photo.jpg");
+    }
+
+    @Test
+    void shouldTreatVariantLikeNamesAsSourcesWithSeparateOutput() throws Exception {
+        Path base = Files.createDirectories(tempDir.resolve("static"));
+        ImageIO.write(new BufferedImage(128, 128, BufferedImage.TYPE_INT_ARGB), "png", base.resolve("icon-64w.png").toFile());
+
+        ImageVariants variants = new ImageVariantGenerator(base, tempDir.resolve("variants"), List.of(32)).generate();
+
+        assertThat(variants.get("icon-64w.png").getVariants()).extracting(ImageVariants.Variant::getPath)
+                .containsExactly("icon-64w-32w.png");
+    }
+
+    @Test
+    void shouldRoundTripThroughJson() throws Exception {
+        ImageVariants variants = new ImageVariants(Map.of("images/hero.jpg", new ImageVariants.Image(1500,
+                List.of(new ImageVariants.Variant("images/hero-640w.jpg", 640),
+                        new ImageVariants.Variant("images/hero-320w.jpg", 320)))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        variants.write(out);
+
+        ImageVariants read = ImageVariants.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(read.get("images/hero.jpg").getWidth()).isEqualTo(1500);
+        assertThat(read.get("images/hero.jpg").getVariants()).extracting(ImageVariants.Variant::getWidth)
+                .containsExactly(320, 640);
+    }
+
+    /**
+     * Inserts a big-endian EXIF segment holding only the orientation tag after the JFIF segment.
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer exif = ByteBuffer.allocate(36)
+                .putShort((short) 0xFFE1).putShort((short) 34)
+                .put("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1))
+                .put("MM".getBytes(StandardCharsets.ISO_8859_1)).putShort((short) 42).putInt(8)
+                .putShort((short) 1)
+                .putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0)
+                .putInt(0);
+        int jfifEnd = 4 + ((jpeg[4] & 0xFF) << 8 | (jpeg[5] & 0xFF));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, jfifEnd);
+        out.write(exif.array(), 0, exif.position());
+        out.write(jpeg, jfifEnd, jpeg.length - jfifEnd);
+        return out.toByteArray();
+    }
+}
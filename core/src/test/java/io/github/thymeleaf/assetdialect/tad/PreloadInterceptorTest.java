@@ -0,0 +1,133 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.ModelAndView;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PreloadInterceptorTest {
+
+    private static final String TEMPLATE = "<html tad:preload=\"/fonts/inter.woff2\"><head>"
+            + "<script tad:src=\"/js/main.js\"></script></head>"
+            + "<body><img tad:src=\"/img/logo.png\"></body></html>";
+
+    private final MockServletContext servletContext = new MockServletContext();
+    private AssetResolver resolver;
+    private TemplateEngine engine;
+    private PreloadInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        resolver = mock(AssetResolver.class);
+        when(resolver.resolve(anyString(), any(), anyBoolean()))
+                .thenAnswer(call -> "https://cdn.example.com" + call.getArgument(0));
+        engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new AssetDialect(null, resolver));
+        interceptor = new PreloadInterceptor(resolver, new PreloadHints(resolver, 10), false);
+    }
+
+    @Test
+    void shouldLearnPreloadsOnFirstRenderAndSendThemAfterwards() {
+        MockHttpServletResponse first = render();
+        assertThat(first.getHeaders("Link")).isEmpty();
+
+        MockHttpServletResponse second = render();
+
+        assertThat(second.getHeaders("Link")).containsExactly(
+                "<https://cdn.example.com/fonts/inter.woff2>; rel=preload; as=font; crossorigin",
+                "<https://cdn.example.com/js/main.js>; rel=preload; as=script");
+    }
+
+    @Test
+    void shouldLearnAgainWhenGenerationChanges() {
+        render();
+        when(resolver.getGeneration()).thenReturn(1L);
+        when(resolver.resolve(anyString(), any(), anyBoolean()))
+                .thenAnswer(call -> "https://cdn2.example.com" + call.getArgument(0));
+
+        assertThat(render().getHeaders("Link")).isEmpty();
+        assertThat(render().getHeaders("Link")).contains("<https://cdn2.example.com/js/main.js>; rel=preload; as=script");
+    }
+
+    @Test
+    void shouldSendDeclaredPreloadsFromFirstRequestWithEarlyHints() throws Exception {
+        PreloadHints hints = new PreloadHints(resolver, 10);
+        hints.declare(TEMPLATE, List.of("/css/site.css"));
+        interceptor = new PreloadInterceptor(resolver, hints, true);
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext("Apache Tomcat/10.1.24"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.postHandle(request, response, null, new ModelAndView(TEMPLATE));
+
+        assertThat(response.getHeaders("Link")).containsExactly("<https://cdn.example.com/css/site.css>; rel=preload; as=style");
+        assertThat(response.getStatus()).isEqualTo(103);
+    }
+
+    @Test
+    void shouldOnlySendEarlyHintsOnContainersSupportingThem() {
+        PreloadHints hints = new PreloadHints(resolver, 10);
+        hints.declare(TEMPLATE, List.of("/css/site.css"));
+        interceptor = new PreloadInterceptor(resolver, hints, true);
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext("Undertow - 2.3.13.Final"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.postHandle(request, response, null, new ModelAndView(TEMPLATE));
+
+        assertThat(response.getHeaders("Link")).containsExactly("<https://cdn.example.com/css/site.css>; rel=preload; as=style");
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(PreloadInterceptor.isEarlyHintsServer("jetty/12.0.9")).isTrue();
+        assertThat(PreloadInterceptor.isEarlyHintsServer(null)).isFalse();
+    }
+
+    @Test
+    void shouldLearnPreloadsOfTemplatesResolvedAtParseTime() {
+        StringTemplateResolver stringResolver = new StringTemplateResolver();
+        stringResolver.setCacheable(true);
+        AssetTemplateResolver templateResolver = new AssetTemplateResolver(stringResolver, resolver);
+        templateResolver.setRecordPreloads(true);
+        engine.setTemplateResolver(templateResolver);
+
+        MockHttpServletResponse first = render();
+        assertThat(first.getHeaders("Link")).isEmpty();
+        MockHttpServletResponse second = render();
+
+        assertThat(second.getHeaders("Link")).containsExactly(
+                "<https://cdn.example.com/fonts/inter.woff2>; rel=preload; as=font; crossorigin",
+                "<https://cdn.example.com/js/main.js>; rel=preload; as=script");
+        verify(resolver, times(1)).resolve("/js/main.js", null, false);
+        assertThat(engine.process(TEMPLATE, new Context())).doesNotContain("baked-preload")
+                .contains("<script src=\"https://cdn.example.com/js/main.js\"></script>");
+    }
+
+    private static MockServletContext servletContext(String serverInfo) {
+        return new MockServletContext() {
+            @Override
+            public String getServerInfo() {
+                return serverInfo;
+            }
+        };
+    }
+
+    private MockHttpServletResponse render() {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.postHandle(request, response, null, new ModelAndView(TEMPLATE));
+        var exchange = JakartaServletWebApplication.buildApplication(servletContext).buildExchange(request, response);
+        engine.process(TEMPLATE, new WebContext(exchange));
+        interceptor.afterCompletion(request, response, null, null);
+        return response;
+    }
+}
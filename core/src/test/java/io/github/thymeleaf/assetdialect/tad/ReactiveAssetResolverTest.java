@@ -0,0 +1,183 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.DigestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BlockHound instruments the JVM it is installed in, so these tests run in the forked blockHoundTest task
+@Tag("blockhound")
+class ReactiveAssetResolverTest {
+
+    private static final String SCRIPT = "console.log('app');";
+    private static final String TEMPLATE = "<script tad:src=\"/js/app.js\" tad:integrity></script>";
+
+    @TempDir
+    Path tempDir;
+
+    private DefaultAssetResolver delegate;
+    private ReactiveAssetResolver reactive;
+    private String versionedUrl;
+
+    @BeforeAll
+    static void installBlockHound() {
+        // Besides the JDK's blocking calls, treat every entry point that reads asset files as blocking
+        BlockHound.builder()
+                .markAsBlocking(DefaultAssetResolver.class, "resolveVersion",
+                        "(Lio/github/thymeleaf/assetdialect/tad/ResolverSnapshot;Ljava/lang/String;)Ljava/lang/String;")
+                .markAsBlocking(DefaultAssetResolver.class, "resolveIntegrity", "(Ljava/lang/String;)Ljava/lang/String;")
+                .install();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(tempDir.resolve("js"));
+        Files.writeString(tempDir.resolve("js/app.js"), SCRIPT);
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.getIntegrity().setEnabled(true);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        delegate = new DefaultAssetResolver(properties, environment);
+        reactive = new ReactiveAssetResolver(new CachingAssetResolver(delegate, 100));
+        versionedUrl = "https://cdn.example.com/js/app."
+                + DigestUtils.md5DigestAsHex(SCRIPT.getBytes(StandardCharsets.UTF_8)) + ".js";
+    }
+
+    @Test
+    void shouldDetectBlockingResolutionOnEventLoop() {
+        Throwable error = onEventLoop(() -> delegate.resolve("/js/app.js"))
+                .then(Mono.<Throwable>empty())
+                .onErrorResume(Mono::just)
+                .block();
+
+        assertThat(error).isInstanceOf(BlockingOperationError.class);
+    }
+
+    @Test
+    void shouldResolveMissesOffTheEventLoop() {
+        String url = Mono.defer(() -> reactive.resolve("/js/app.js")).subscribeOn(Schedulers.parallel()).block();
+        String integrity = Mono.defer(() -> reactive.resolveIntegrity("/js/app.js"))
+                .subscribeOn(Schedulers.parallel()).block();
+
+        assertThat(url).isEqualTo(versionedUrl);
+        assertThat(integrity).startsWith("sha384-");
+        assertThat(Mono.defer(() -> reactive.resolve("/js/app.js")).subscribeOn(Schedulers.parallel()).block())
+                .isEqualTo(versionedUrl);
+    }
+
+    @Test
+    void shouldRenderUnversionedUrlOnEventLoopMissAndResolveInBackground() throws Exception {
+        AssetResolver rendering = reactive.getRenderingResolver();
+        long generation = rendering.getGeneration();
+
+        String provisional = onEventLoop(() -> rendering.resolve("/js/app.js", null, false)).block();
+        assertThat(provisional).isEqualTo("https://cdn.example.com/js/app.js");
+
+        awaitGenerationChange(rendering, generation);
+        assertThat(onEventLoop(() -> rendering.resolve("/js/app.js", null, false)).block()).isEqualTo(versionedUrl);
+    }
+
+    @Test
+    void shouldRenderLastResolvedUrlOnEventLoopAfterExpiry() throws Exception {
+        CachingAssetResolver expiring = new CachingAssetResolver(delegate, 100, Duration.ofMillis(1));
+        AssetResolver rendering = new ReactiveAssetResolver(expiring).getRenderingResolver();
+        assertThat(rendering.resolve("/js/app.js", null, false)).isEqualTo(versionedUrl);
+        long generation = rendering.getGeneration();
+        Thread.sleep(5);
+
+        assertThat(onEventLoop(() -> rendering.resolve("/js/app.js", null, false)).block()).isEqualTo(versionedUrl);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (expiring.getMissCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(expiring.getMissCount()).isEqualTo(2);
+        assertThat(rendering.getGeneration()).isEqualTo(generation);
+    }
+
+    @Test
+    void shouldRenderTemplatesOnEventLoopWithoutBlocking() {
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new AssetDialect(null, reactive.getRenderingResolver()));
+        // Let the engine read its own configuration before rendering on the event loop
+        engine.process("<p></p>", new Context());
+
+        String cold = onEventLoop(() -> engine.process(TEMPLATE, new Context())).block();
+        assertThat(cold).contains("src=\"https://cdn.example.com/js/app.js\"").doesNotContain("integrity");
+
+        reactive.prefetch(List.of("/js/app.js", "../secret.js")).block();
+        String warm = onEventLoop(() -> engine.process(TEMPLATE, new Context())).block();
+        assertThat(warm).contains("src=\"" + versionedUrl + "\"").contains("integrity=\"sha384-");
+    }
+
+    @Test
+    void shouldReportInvalidPathsAsErrors() {
+        Throwable error = reactive.resolve("../secret.js")
+                .then(Mono.<Throwable>empty())
+                .onErrorResume(Mono::just)
+                .block();
+
+        assertThat(error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(reactive.resolveIntegrity("../secret.js").block()).isNull();
+    }
+
+    @Test
+    void shouldBoundCachedIntegrityToCacheSize() {
+        AtomicInteger loads = new AtomicInteger();
+        AssetResolver counting = new AssetResolver() {
+            @Override
+            public String resolve(String path, String cdn, boolean forceLocal) {
+                return path;
+            }
+
+            @Override
+            public String resolveIntegrity(String path) {
+                loads.incrementAndGet();
+                return "sha384-" + path.hashCode();
+            }
+        };
+        ReactiveAssetResolver bounded = new ReactiveAssetResolver(new CachingAssetResolver(counting, 1));
+
+        bounded.resolveIntegrity("/a.js").block();
+        bounded.resolveIntegrity("/a.js").block();
+        bounded.resolveIntegrity("/b.js").block();
+        bounded.resolveIntegrity("/a.js").block();
+
+        assertThat(loads).hasValue(3);
+    }
+
+    private static void awaitGenerationChange(AssetResolver resolver, long generation) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (resolver.getGeneration() == generation && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(resolver.getGeneration()).isNotEqualTo(generation);
+    }
+
+    private static <T> Mono<T> onEventLoop(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(Schedulers.parallel());
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ResolverSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AssetProperties properties;
+    private MockEnvironment environment;
+    private DefaultAssetResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(tempDir.resolve("js"));
+        Files.writeString(tempDir.resolve("js/app.js"), "console.log('app');");
+        properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com/");
+        properties.setCdns(Map.of("images", "https://img.example.com/", "blank", " "));
+        properties.setLocalPath("/static");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.setVersionStrategy("crc32c");
+        environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        resolver = new DefaultAssetResolver(properties, environment);
+    }
+
+    @Test
+    void shouldNormalizeCdnBaseUrls() {
+        ResolverSnapshot snapshot = resolver.getSnapshot();
+
+        assertThat(snapshot.getCdnUrl(null)).isEqualTo("https://cdn.example.com");
+        assertThat(snapshot.getCdnUrl("images")).isEqualTo("https://img.example.com");
+        assertThat(snapshot.getCdnUrl("blank")).isNull();
+        assertThat(snapshot.getCdns()).containsOnlyKeys("images");
+        assertThat(snapshot.toRelativeAssetPath("/static/js/app.js")).isEqualTo("js/app.js");
+    }
+
+    @Test
+    void shouldScanProfilesOnlyWhenCompiling() {
+        Environment profiles = mock(Environment.class);
+        when(profiles.getActiveProfiles()).thenReturn(new String[]{"dev"});
+        DefaultAssetResolver devResolver = new DefaultAssetResolver(properties, profiles);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(devResolver.resolve("/js/app.js")).matches("/static/js/app\\.[0-9a-f]{8}\\.js");
+        }
+
+        verify(profiles, times(1)).getActiveProfiles();
+    }
+
+    @Test
+    void shouldKeepConfigurationUntilRefreshed() {
+        String before = resolver.resolve("/js/app.js");
+        long generation = resolver.getGeneration();
+
+        properties.setDefaultCdn("https://other.example.com");
+        environment.setActiveProfiles("dev");
+        assertThat(resolver.resolve("/js/app.js")).isEqualTo(before);
+
+        resolver.refresh();
+
+        assertThat(resolver.resolve("/js/app.js")).matches("/static/js/app\\.[0-9a-f]{8}\\.js");
+        assertThat(resolver.getGeneration()).isGreaterThan(generation);
+    }
+
+    @Test
+    void shouldInvalidateCachedVersionsWhenStrategyChanges() {
+        resolver.resolve("/js/app.js");
+        assertThat(resolver.getDigestCache().size()).isEqualTo(1);
+
+        AssetProperties updated = new AssetProperties();
+        updated.setDefaultCdn("https://cdn.example.com");
+        updated.setAssetBasePath(tempDir.toString());
+        updated.setVersionStrategy("xxhash64");
+        resolver.refresh(updated);
+
+        assertThat(resolver.getDigestCache().size()).isZero();
+        assertThat(resolver.getSnapshot().getVersionStrategyName()).isEqualTo("xxhash64");
+        assertThat(resolver.resolve("/js/app.js")).matches("https://cdn\\.example\\.com/js/app\\.[0-9a-f]{16}\\.js");
+    }
+
+    @Test
+    void shouldRefreshFromChangedEnvironment() {
+        AssetResolverRefresher refresher = new AssetResolverRefresher(resolver, environment);
+        environment.setProperty("tad.default-cdn", "https://edge.example.com");
+        environment.setProperty("tad.asset-base-path", tempDir.toString());
+        environment.setProperty("tad.version-assets", "false");
+
+        refresher.onApplicationEvent(new EnvironmentChangeEvent(environment, Set.of("server.port")));
+        assertThat(resolver.resolve("/js/app.js")).startsWith("https://cdn.example.com/");
+
+        refresher.onApplicationEvent(new EnvironmentChangeEvent(environment, Set.of("tad.default-cdn")));
+        assertThat(resolver.resolve("/js/app.js")).isEqualTo("https://edge.example.com/js/app.js");
+    }
+
+    @Test
+    void shouldApplyRoutingRulesOnRefreshAndReportStartupOnlyKeys() {
+        AssetResolverRefresher refresher = new AssetResolverRefresher(resolver, environment);
+        environment.setProperty("tad.default-cdn", "https://cdn.example.com");
+        environment.setProperty("tad.cdns.images", "https://img.example.com");
+        environment.setProperty("tad.routing.rules.images", "/js/**");
+        environment.setProperty("tad.version-assets", "false");
+
+        refresher.onApplicationEvent(new EnvironmentChangeEvent(environment, Set.of("tad.routing.rules.images")));
+
+        assertThat(resolver.resolve("/js/app.js")).isEqualTo("https://img.example.com/js/app.js");
+        assertThat(AssetResolverRefresher.startupOnlyKeys(Set.of("tad.routing.rules.images", "tad.defaultCdn",
+                "tad.cdns.eu-west", "tad.integrity.enabled", "tad.routing.header", "tad.routing.routes.eu",
+                "tad.preload.early-hints", "tad.resolution-cache.enabled", "tad.resolveAtParseTime", "server.port")))
+                .containsExactly("tad.preload.early-hints", "tad.resolution-cache.enabled", "tad.resolveAtParseTime",
+                        "tad.routing.header", "tad.routing.routes.eu");
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.thymeleaf.assetdialect.tad;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionStrategiesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AssetDigester digester = new AssetDigester();
+
+    @Test
+    void shouldComputeBuiltInContentVersions() throws Exception {
+        byte[] content = "abc".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("main.js"), content);
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+
+        assertThat(VersionStrategies.HASH.getVersion(file, digester)).isEqualTo(DigestUtils.md5DigestAsHex(content));
+        assertThat(VersionStrategies.MD5.getVersion(file, digester)).isEqualTo(DigestUtils.md5DigestAsHex(content));
+        assertThat(VersionStrategies.SHA256.getVersion(file, digester)).isEqualTo("ba7816bf8f01cfea");
+        assertThat(VersionStrategies.CRC32C.getVersion(file, digester)).isEqualTo(String.format("%08x", crc.getValue()));
+        assertThat(VersionStrategies.XXHASH64.getVersion(file, digester)).isEqualTo("44bc2cf5ad770999");
+    }
+
+    @Test
+    void shouldComputeXxHash64AcrossBufferBoundaries() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("empty.js"), "");
+        Path text = Files.writeString(tempDir.resolve("text.txt"), "Nobody inspects the spammish repetition");
+
+        assertThat(VersionStrategies.XXHASH64.getVersion(file, digester)).isEqualTo("ef46db3751d8e999");
+        AssetDigester smallBuffers = new AssetDigester(DataSize.ofBytes(5), AssetDigester.DEFAULT_MAPPING_THRESHOLD);
+        assertThat(VersionStrategies.XXHASH64.getVersion(text, smallBuffers)).isEqualTo("fbcea83c8a378bf1");
+    }
+
+    @Test
+    void shouldResolveWithConfiguredStrategyAndLength() throws Exception {
+        Files.writeString(tempDir.resolve("main.js"), "abc");
+        DefaultAssetResolver resolver = resolver("xxhash64", 8);
+
+        assertThat(resolver.resolve("/main.js")).isEqualTo("https://cdn.example.com/main.44bc2cf5.js");
+    }
+
+    @Test
+    void shouldUseRegisteredCustomStrategy() throws Exception {
+        Files.writeString(tempDir.resolve("main.js"), "abc");
+        DefaultAssetResolver resolver = resolver("release", 0);
+        resolver.registerVersionStrategy(new VersionStrategy() {
+            @Override
+            public String getName() {
+                return "release";
+            }
+
+            @Override
+            public String getVersion(Path file, AssetDigester digester) {
+                return "r42";
+            }
+        });
+
+        assertThat(resolver.resolve("/main.js")).isEqualTo("https://cdn.example.com/main.r42.js");
+    }
+
+    @Test
+    void shouldLeaveAssetUnversionedForUnknownStrategy() throws Exception {
+        Files.writeString(tempDir.resolve("main.js"), "abc");
+
+        assertThat(resolver("unknown", 0).resolve("/main.js")).isEqualTo("https://cdn.example.com/main.js");
+    }
+
+    @Test
+    void shouldVersionAllAssetsWithTheSameBuildStamp() throws Exception {
+        Files.writeString(tempDir.resolve("main.js"), "abc");
+        Files.writeString(tempDir.resolve("site.css"), "body{}");
+        DefaultAssetResolver resolver = resolver("timestamp", 0);
+        String stamp = VersionStrategies.TIMESTAMP.getStamp();
+
+        assertThat(resolver.resolve("/main.js")).isEqualTo("https://cdn.example.com/main." + stamp + ".js");
+        assertThat(resolver.resolve("/site.css")).isEqualTo("https://cdn.example.com/site." + stamp + ".css");
+        assertThat(resolver("build", 0).resolve("/main.js")).isEqualTo(resolver.resolve("/main.js"));
+    }
+
+    @Test
+    void shouldReadBuildStampFromBuildInfo() throws Exception {
+        Path metaInf = Files.createDirectories(tempDir.resolve("META-INF"));
+        Files.writeString(metaInf.resolve("build-info.properties"), "build.time=2026-10-18T10\\:15\\:30.123Z\n");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {tempDir.toUri().toURL()}, null)) {
+            assertThat(BuildStampVersionStrategy.readBuildStamp(classLoader))
+                    .isEqualTo(String.valueOf(Instant.parse("2026-10-18T10:15:30.123Z").toEpochMilli()));
+        }
+        try (URLClassLoader empty = new URLClassLoader(new URL[0], null)) {
+            assertThat(BuildStampVersionStrategy.readBuildStamp(empty)).isNull();
+        }
+    }
+
+    @Test
+    void shouldVersionWithLastModifiedTime() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("main.js"), "abc");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_700_000_000_000L));
+
+        assertThat(resolver("lastmodified", 0).resolve("/main.js"))
+                .isEqualTo("https://cdn.example.com/main.1700000000000.js");
+        assertThat(resolver("lastmodified", 0).resolve("/missing.js")).isEqualTo("https://cdn.example.com/missing.js");
+    }
+
+    @Test
+    void shouldCacheAndShortenLastModifiedVersions() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("main.js"), "abc");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_700_000_000_000L));
+        DefaultAssetResolver resolver = resolver("lastmodified", 10);
+
+        assertThat(resolver.resolve("/main.js")).isEqualTo("https://cdn.example.com/main.1700000000.js");
+        assertThat(resolver.resolve("/main.js")).isEqualTo("https://cdn.example.com/main.1700000000.js");
+        assertThat(resolver.getDigestCache().getMissCount()).isEqualTo(1);
+        assertThat(resolver.getDigestCache().getHitCount()).isEqualTo(1);
+    }
+
+    private DefaultAssetResolver resolver(String strategy, int versionLength) {
+        AssetProperties properties = new AssetProperties();
+        properties.setDefaultCdn("https://cdn.example.com");
+        properties.setAssetBasePath(tempDir.toString());
+        properties.setVersionStrategy(strategy);
+        properties.setVersionLength(versionLength);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        return new DefaultAssetResolver(properties, environment);
+    }
+}
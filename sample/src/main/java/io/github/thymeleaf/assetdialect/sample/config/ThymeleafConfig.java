@@ -1,31 +1,187 @@
 package io.github.thymeleaf.assetdialect.sample.config;
 
+import io.github.thymeleaf.assetdialect.tad.AssetBundles;
 import io.github.thymeleaf.assetdialect.tad.AssetDialect;
+import io.github.thymeleaf.assetdialect.tad.AssetManifest;
+import io.github.thymeleaf.assetdialect.tad.AssetMetrics;
+import io.github.thymeleaf.assetdialect.tad.AssetPrewarmer;
 import io.github.thymeleaf.assetdialect.tad.AssetProperties;
+import io.github.thymeleaf.assetdialect.tad.AssetResolver;
+import io.github.thymeleaf.assetdialect.tad.AssetResolverRefresher;
+import io.github.thymeleaf.assetdialect.tad.AssetTemplateResolver;
+import io.github.thymeleaf.assetdialect.tad.AssetWatcher;
+import io.github.thymeleaf.assetdialect.tad.CachingAssetResolver;
 import io.github.thymeleaf.assetdialect.tad.DefaultAssetResolver;
+import io.github.thymeleaf.assetdialect.tad.FingerprintedAssetHandler;
+import io.github.thymeleaf.assetdialect.tad.ImageVariants;
+import io.github.thymeleaf.assetdialect.tad.ManifestAssetResolver;
+import io.github.thymeleaf.assetdialect.tad.PreloadInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.templateresolver.ITemplateResolver;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
 @Configuration
 @EnableConfigurationProperties(AssetProperties.class)
 public class ThymeleafConfig {
 
+    @Bean(destroyMethod = "flushDigestIndex")
+    public DefaultAssetResolver assetResolver(AssetProperties properties, Environment environment,
+                                              ResourceLoader resourceLoader, AssetBundles assetBundles)
+            throws IOException {
+        DefaultAssetResolver resolver = null;
+        if (StringUtils.hasText(properties.getManifestLocation())) {
+            // Use the manifest generated by the generateAssetManifest task when it is on the classpath
+            Resource manifest = resourceLoader.getResource(properties.getManifestLocation());
+            if (manifest.exists()) {
+                resolver = new ManifestAssetResolver(properties, environment, AssetManifest.load(manifest));
+            }
+        }
+        if (resolver == null) {
+            resolver = new DefaultAssetResolver(properties, environment);
+        }
+        resolver.setBundles(assetBundles);
+        return resolver;
+    }
+
+    @Bean
+    public AssetBundles assetBundles(AssetProperties properties, ResourceLoader resourceLoader) throws IOException {
+        if (StringUtils.hasText(properties.getBundlesLocation())) {
+            // Use the bundles built by the generateAssetBundles task when they are on the classpath
+            Resource bundles = resourceLoader.getResource(properties.getBundlesLocation());
+            if (bundles.exists()) {
+                return AssetBundles.load(bundles);
+            }
+        }
+        return AssetBundles.empty();
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "tad.resolution-cache", name = "enabled", havingValue = "true")
+    public CachingAssetResolver cachingAssetResolver(DefaultAssetResolver assetResolver, AssetProperties properties) {
+        return CachingAssetResolver.from(assetResolver, properties.getResolutionCache());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tad.watch", name = "enabled", havingValue = "true")
+    public AssetWatcher assetWatcher(DefaultAssetResolver assetResolver, AssetProperties properties) {
+        return AssetWatcher.from(assetResolver, properties.getWatch());
+    }
+
     @Bean
-    public AssetDialect assetDialect(AssetProperties properties, Environment environment) {
-        DefaultAssetResolver resolver = new DefaultAssetResolver(properties, environment);
-        return new AssetDialect(properties, resolver);
+    @ConditionalOnProperty(prefix = "tad.prewarm", name = "enabled", havingValue = "true")
+    public AssetPrewarmer assetPrewarmer(DefaultAssetResolver assetResolver, AssetProperties properties) {
+        return new AssetPrewarmer(assetResolver, properties.getPrewarm());
     }
 
     @Bean
-    public SpringTemplateEngine templateEngine(ITemplateResolver templateResolver, AssetDialect assetDialect) {
+    @ConditionalOnProperty(prefix = "tad.preload", name = "enabled", havingValue = "true")
+    public PreloadInterceptor preloadInterceptor(AssetProperties properties, AssetDialect assetDialect) {
+        // Preloads resolve like the dialect's elements, through its caching resolver while routing is configured
+        return PreloadInterceptor.from(assetDialect.getResolver(), properties.getPreload(), assetDialect.getRouter());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tad.preload", name = "enabled", havingValue = "true")
+    public WebMvcConfigurer preloadConfigurer(PreloadInterceptor preloadInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(preloadInterceptor);
+            }
+        };
+    }
+
+    @Bean
+    public SimpleUrlHandlerMapping assetHandlerMapping(DefaultAssetResolver assetResolver, AssetProperties properties) {
+        // Serve fingerprinted URLs, including the outputs of the generateAssetBundles and compressAssets
+        // tasks, ahead of the default static resource handler
+        FingerprintedAssetHandler handler = new FingerprintedAssetHandler(assetResolver, List.of(
+                new FileSystemResource(properties.getAssetBasePath() + "/"), new ClassPathResource("static/")));
+        return new SimpleUrlHandlerMapping(Map.of(properties.getLocalPath() + "/**", handler),
+                Ordered.LOWEST_PRECEDENCE - 2);
+    }
+
+    @Bean
+    public AssetDialect assetDialect(AssetProperties properties, AssetResolver assetResolver,
+                                     AssetBundles assetBundles, ResourceLoader resourceLoader) throws IOException {
+        ImageVariants imageVariants = ImageVariants.empty();
+        if (StringUtils.hasText(properties.getImageVariantsLocation())) {
+            // Use the variants generated by the generateImageVariants task when they are on the classpath
+            Resource variants = resourceLoader.getResource(properties.getImageVariantsLocation());
+            if (variants.exists()) {
+                imageVariants = ImageVariants.load(variants);
+            }
+        }
+        return new AssetDialect(properties, assetResolver, imageVariants, assetBundles);
+    }
+
+    @Bean
+    public SpringTemplateEngine templateEngine(ITemplateResolver templateResolver, AssetDialect assetDialect,
+                                               AssetProperties properties, AssetResolver assetResolver,
+                                               DefaultAssetResolver defaultAssetResolver,
+                                               ObjectProvider<AssetWatcher> assetWatcher) {
         SpringTemplateEngine engine = new SpringTemplateEngine();
-        engine.setTemplateResolver(templateResolver);
+        if (properties.isResolveAtParseTime()) {
+            AssetTemplateResolver assetTemplateResolver = new AssetTemplateResolver(templateResolver, assetResolver);
+            // Leave CDN-routed elements to render time
+            assetTemplateResolver.setRouter(assetDialect.getRouter());
+            // Keep baked stylesheets, scripts and fonts visible to the preload interceptor
+            assetTemplateResolver.setRecordPreloads(properties.getPreload().isEnabled());
+            // Without a watcher or manifest moving the generation, only revalidation notices changed assets
+            assetTemplateResolver.setRevalidateBakedUrls(assetWatcher.getIfAvailable() == null
+                    && !(defaultAssetResolver instanceof ManifestAssetResolver));
+            engine.setTemplateResolver(assetTemplateResolver);
+        } else {
+            engine.setTemplateResolver(templateResolver);
+        }
         engine.addDialect(assetDialect);
         return engine;
     }
-}
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.cloud.context.environment.EnvironmentChangeEvent")
+    static class RefreshConfig {
+
+        @Bean
+        public AssetResolverRefresher assetResolverRefresher(DefaultAssetResolver assetResolver,
+                                                             Environment environment) {
+            return new AssetResolverRefresher(assetResolver, environment);
+        }
+    }
+
+    /**
+     * Spring Boot binds {@link io.micrometer.core.instrument.binder.MeterBinder} beans to the
+     * {@code MeterRegistry} when one exists, e.g. with the actuator; otherwise the resolver stays
+     * uninstrumented.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MetricsConfig {
+
+        @Bean
+        public AssetMetrics assetMetrics(DefaultAssetResolver assetResolver) {
+            return new AssetMetrics(assetResolver);
+        }
+    }
+}